@@ -0,0 +1,140 @@
+package interval;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongFunction;
+
+/**
+ * Shapes of input data for benchmarks. All shapes are generated deterministically for a given size.
+ */
+public enum Workload {
+
+    /**
+     * Uniformly distributed short intervals, partially overlapping.
+     */
+    RANDOM,
+
+    /**
+     * Short intervals sorted ascending by start, partially overlapping.
+     */
+    SORTED,
+
+    /**
+     * Short intervals sorted descending by start, partially overlapping.
+     */
+    REVERSE_SORTED,
+
+    /**
+     * Intervals all containing each other, in random order.
+     */
+    NESTED,
+
+    /**
+     * Intervals not overlapping at all, in random order.
+     */
+    DISJOINT,
+
+    /**
+     * Long intervals which collapse into very few merged intervals.
+     */
+    HEAVY_OVERLAP;
+
+    private static final long SEED = 4711;
+
+    /**
+     * Generate intervals of this shape.
+     * @param size Number of intervals
+     * @return Pairs of start and end
+     */
+    public long[][] generate(int size) {
+        Random random = new Random(SEED);
+        List<long[]> intervals = new ArrayList<>(size);
+        for (long i = 0; i < size; i++) {
+            switch (this) {
+                case RANDOM:
+                    long start = (long) (random.nextDouble() * 10 * size);
+                    intervals.add(new long[]{start, start + random.nextInt(20)});
+                    break;
+                case SORTED:
+                case REVERSE_SORTED:
+                    intervals.add(new long[]{10 * i, 10 * i + random.nextInt(20)});
+                    break;
+                case NESTED:
+                    intervals.add(new long[]{i, 2L * size - i});
+                    break;
+                case DISJOINT:
+                    intervals.add(new long[]{10 * i, 10 * i + 5});
+                    break;
+                case HEAVY_OVERLAP:
+                    long heavyStart = (long) (random.nextDouble() * size);
+                    intervals.add(new long[]{heavyStart, heavyStart + random.nextInt(Math.max(1, size / 10))});
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown workload " + this);
+            }
+        }
+        if (this == REVERSE_SORTED) {
+            Collections.reverse(intervals);
+        } else if (this == NESTED || this == DISJOINT) {
+            Collections.shuffle(intervals, random);
+        }
+        return intervals.toArray(new long[0][]);
+    }
+
+    /**
+     * Value types benchmarked.
+     */
+    public enum ValueType {
+
+        LONG(Long.class, Long::valueOf),
+        BIG_DECIMAL(BigDecimal.class, BigDecimal::valueOf);
+
+        private final Class<?> valueClass;
+        private final LongFunction<?> fromLong;
+
+        ValueType(Class<?> valueClass, LongFunction<?> fromLong) {
+            this.valueClass = valueClass;
+            this.fromLong = fromLong;
+        }
+
+        public Class<?> getValueClass() {
+            return valueClass;
+        }
+
+        /**
+         * Convert generated intervals into lists of values of this type, as returned by the input parser.
+         * @param intervals Pairs of start and end
+         * @param <T> Type of values
+         * @return List of intervals
+         */
+        @SuppressWarnings("unchecked")
+        public <T extends Comparable<T>> List<List<T>> toLists(long[][] intervals) {
+            List<List<T>> lists = new ArrayList<>(intervals.length);
+            for (long[] interval : intervals) {
+                lists.add(List.of((T) fromLong.apply(interval[0]), (T) fromLong.apply(interval[1])));
+            }
+            return lists;
+        }
+
+    }
+
+    /**
+     * Render generated intervals in the input format [[x0, y0], [x1, y1]].
+     * @param intervals Pairs of start and end
+     * @return Single line of input
+     */
+    public static String toInputLine(long[][] intervals) {
+        StringBuilder line = new StringBuilder(intervals.length * 24).append('[');
+        for (int i = 0; i < intervals.length; i++) {
+            if (i > 0) {
+                line.append(", ");
+            }
+            line.append('[').append(intervals[i][0]).append(", ").append(intervals[i][1]).append(']');
+        }
+        return line.append(']').toString();
+    }
+
+}
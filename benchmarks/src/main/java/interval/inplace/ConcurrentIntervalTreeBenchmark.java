@@ -0,0 +1,125 @@
+package interval.inplace;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention benchmark of ConcurrentIntervalTree against an IntervalTree shared behind a single lock. Run with
+ * different thread counts, e.g. {@code java -jar target/benchmarks.jar ConcurrentIntervalTreeBenchmark -t 32}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentIntervalTreeBenchmark {
+
+    /**
+     * Intervals start uniformly in [0, range) with lengths up to maxLength. A large range relative to maxLength keeps
+     * many disjunctive intervals in the tree, a small one lets them collapse into few.
+     */
+    @Param({"1000000", "100000000"})
+    private long range;
+
+    @Param({"100"})
+    private long maxLength;
+
+    /**
+     * Number of shards of equal width the range is split into, 1 publishing every insertion through the same root.
+     */
+    @Param({"1", "64"})
+    private int shards;
+
+    private ConcurrentIntervalTree<Long> concurrentTree;
+    private IntervalTree<Long> lockedTree;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        List<Long> boundaries = new ArrayList<>();
+        for (int shard = 1; shard < shards; shard++) {
+            boundaries.add(range / shards * shard);
+        }
+        concurrentTree = new ConcurrentIntervalTree<>(boundaries);
+        lockedTree = new IntervalTree<>();
+    }
+
+    private long randomStart() {
+        return ThreadLocalRandom.current().nextLong(range);
+    }
+
+    private long randomLength() {
+        return ThreadLocalRandom.current().nextLong(maxLength);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void concurrentInsert() {
+        long start = randomStart();
+        concurrentTree.insert(start, start + randomLength());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void lockedInsert() {
+        long start = randomStart();
+        long end = start + randomLength();
+        synchronized (lockedTree) {
+            lockedTree.insert(start, end);
+        }
+    }
+
+    @Benchmark
+    @Group("concurrentReadWhileWriting")
+    @GroupThreads(3)
+    public void concurrentWriter() {
+        long start = randomStart();
+        concurrentTree.insert(start, start + randomLength());
+    }
+
+    @Benchmark
+    @Group("concurrentReadWhileWriting")
+    @GroupThreads(1)
+    public List<List<Long>> concurrentSnapshot() {
+        return concurrentTree.getIntervals();
+    }
+
+    @Benchmark
+    @Group("lockedReadWhileWriting")
+    @GroupThreads(3)
+    public void lockedWriter() {
+        long start = randomStart();
+        long end = start + randomLength();
+        synchronized (lockedTree) {
+            lockedTree.insert(start, end);
+        }
+    }
+
+    @Benchmark
+    @Group("lockedReadWhileWriting")
+    @GroupThreads(1)
+    public List<List<Long>> lockedSnapshot() {
+        synchronized (lockedTree) {
+            return lockedTree.getIntervals();
+        }
+    }
+
+}
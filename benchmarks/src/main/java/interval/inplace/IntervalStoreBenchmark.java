@@ -0,0 +1,112 @@
+package interval.inplace;
+
+import interval.Workload;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Benchmarks of the stores backing an IntervalTree: inserting intervals one by one, looking up points and iterating
+ * over the stored intervals, for the TreeMap and the B+-tree backing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IntervalStoreBenchmark {
+
+    public enum Backing {
+        TREE_MAP(TreeMapIntervalStore::new),
+        B_PLUS_TREE(BPlusTreeIntervalStore::new);
+
+        private final Supplier<IntervalStore<?>> factory;
+
+        Backing(Supplier<IntervalStore<?>> factory) {
+            this.factory = factory;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T extends Comparable<T>> IntervalStore<T> newStore() {
+            return (IntervalStore<T>) factory.get();
+        }
+    }
+
+    @Param({"1000", "1000000"})
+    private int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSE_SORTED", "NESTED", "DISJOINT", "HEAVY_OVERLAP"})
+    private Workload workload;
+
+    @Param({"LONG", "BIG_DECIMAL"})
+    private Workload.ValueType valueType;
+
+    @Param({"TREE_MAP", "B_PLUS_TREE"})
+    private Backing backing;
+
+    @SuppressWarnings("rawtypes")
+    private Comparable[] starts;
+    @SuppressWarnings("rawtypes")
+    private Comparable[] ends;
+    @SuppressWarnings("rawtypes")
+    private IntervalStore filled;
+
+    @Setup
+    @SuppressWarnings("rawtypes")
+    public void setUp() {
+        List<?> intervals = valueType.toLists(workload.generate(size));
+        starts = new Comparable[size];
+        ends = new Comparable[size];
+        for (int i = 0; i < size; i++) {
+            List bounds = (List) intervals.get(i);
+            starts[i] = (Comparable) bounds.get(0);
+            ends[i] = (Comparable) bounds.get(1);
+        }
+        filled = insert();
+    }
+
+    /**
+     * Insert all intervals one by one. With the GC profiler, gc.alloc.rate.norm shows the bytes allocated per call,
+     * which for the B+-tree is only the nodes, as neither absorbed nor contained intervals allocate anything.
+     */
+    @Benchmark
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public IntervalStore insert() {
+        IntervalStore store = backing.newStore();
+        for (int i = 0; i < starts.length; i++) {
+            store.insert(starts[i], ends[i]);
+        }
+        return store;
+    }
+
+    @Benchmark
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void findCovering(Blackhole blackhole) {
+        for (Comparable end : ends) {
+            blackhole.consume(filled.findCovering(end));
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings("rawtypes")
+    public void iterate(Blackhole blackhole) {
+        for (Object interval : filled) {
+            blackhole.consume(interval);
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+package interval.inplace;
+
+import interval.Workload;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the merge and emit paths: IntervalTree.insert one by one, IntervalMerger.merge with each strategy and
+ * IntervalTree.getIntervals on the merged result.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MergeBenchmark {
+
+    @Param({"1000", "1000000"})
+    private int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSE_SORTED", "NESTED", "DISJOINT", "HEAVY_OVERLAP"})
+    private Workload workload;
+
+    @Param({"LONG", "BIG_DECIMAL"})
+    private Workload.ValueType valueType;
+
+    @SuppressWarnings("rawtypes")
+    private List intervals;
+    @SuppressWarnings("rawtypes")
+    private IntervalTree merged;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        intervals = valueType.toLists(workload.generate(size));
+        merged = intervalTreeInsert();
+    }
+
+    @Benchmark
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public IntervalTree intervalTreeInsert() {
+        IntervalTree intervalTree = new IntervalTree<>();
+        for (Object interval : intervals) {
+            intervalTree.insert((List) interval);
+        }
+        return intervalTree;
+    }
+
+    @Benchmark
+    public List<?> mergeByInsertion() {
+        return merge(MergeStrategy.INSERTION);
+    }
+
+    @Benchmark
+    public List<?> mergeBySortAndSweep() {
+        return merge(MergeStrategy.SORT_AND_SWEEP);
+    }
+
+    @Benchmark
+    public List<?> mergeInParallel() {
+        return merge(MergeStrategy.PARALLEL);
+    }
+
+    @Benchmark
+    public List<?> mergeAutomatically() {
+        return merge(MergeStrategy.AUTOMATIC);
+    }
+
+    @Benchmark
+    public List<?> getIntervals() {
+        return merged.getIntervals();
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private List<?> merge(MergeStrategy strategy) {
+        return new IntervalMerger(strategy).merge(intervals);
+    }
+
+}
@@ -0,0 +1,69 @@
+package interval.input;
+
+import interval.Workload;
+import interval.inplace.IntervalMerger;
+import interval.output.IntervalPrinter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the whole pipeline of the application: parsing an input line, merging while parsing and printing the
+ * merged intervals as the application does, into a writer discarding the output.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EndToEndBenchmark {
+
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    @Param({"1000", "1000000"})
+    private int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSE_SORTED", "NESTED", "DISJOINT", "HEAVY_OVERLAP"})
+    private Workload workload;
+
+    @Param({"LONG", "BIG_DECIMAL"})
+    private Workload.ValueType valueType;
+
+    private String inputLine;
+
+    @Setup
+    public void setUp() {
+        inputLine = Workload.toInputLine(workload.generate(size));
+    }
+
+    @Benchmark
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void parseMergeAndPrint() throws IOException {
+        TypeConverter typeConverter = new TypeConverter<>(valueType.getValueClass());
+        InputParser inputParser = new InputParser<>(() -> new BufferedReader(new StringReader(inputLine)), typeConverter);
+        IntervalMerger intervalMerger = new IntervalMerger<>();
+        inputParser.readFromStdin((start, end) -> intervalMerger.insert((Comparable) start, (Comparable) end));
+        Writer output = new BufferedWriter(Writer.nullWriter(), OUTPUT_BUFFER_SIZE);
+        IntervalPrinter printer = new IntervalPrinter<>(output);
+        intervalMerger.forEachMergedInterval(printer::print);
+        printer.finish();
+        output.flush();
+    }
+
+}
@@ -0,0 +1,83 @@
+package interval.input;
+
+import interval.Workload;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the parse path: reading a whole input line with InputParser.readFromStdin and converting single
+ * values with TypeConverter.get.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+
+    @Param({"1000", "1000000"})
+    private int size;
+
+    @Param({"RANDOM"})
+    private Workload workload;
+
+    @Param({"LONG", "BIG_DECIMAL"})
+    private Workload.ValueType valueType;
+
+    private String inputLine;
+    private char[] values;
+    private int[] offsets;
+    private int[] lengths;
+    @SuppressWarnings("rawtypes")
+    private TypeConverter typeConverter;
+
+    @Setup
+    public void setUp() {
+        long[][] intervals = workload.generate(size);
+        inputLine = Workload.toInputLine(intervals);
+        StringBuilder concatenated = new StringBuilder();
+        offsets = new int[2 * size];
+        lengths = new int[2 * size];
+        for (int i = 0; i < 2 * size; i++) {
+            String value = Long.toString(intervals[i / 2][i % 2]);
+            offsets[i] = concatenated.length();
+            lengths[i] = value.length();
+            concatenated.append(value);
+        }
+        values = concatenated.toString().toCharArray();
+        typeConverter = new TypeConverter<>(valueType.getValueClass());
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public boolean readFromStdin(Blackhole blackhole) {
+        InputParser<?> inputParser = new InputParser<>(() -> new BufferedReader(new StringReader(inputLine)), typeConverter);
+        return inputParser.readFromStdin((start, end) -> {
+            blackhole.consume(start);
+            blackhole.consume(end);
+        });
+    }
+
+    @Benchmark
+    public void typeConverterGet(Blackhole blackhole) {
+        for (int i = 0; i < offsets.length; i++) {
+            blackhole.consume(typeConverter.get(values, offsets[i], lengths[i]));
+        }
+    }
+
+}
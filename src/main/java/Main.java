@@ -1,15 +1,151 @@
 import interval.Application;
+import interval.BatchProcessor;
+import interval.MergeServer;
+import interval.checkpoint.CheckpointStore;
 import interval.input.InputParser;
 import interval.inplace.IntervalMerger;
+import interval.inplace.MergeStrategy;
 import interval.input.TypeConverter;
+import interval.metrics.MergerMetrics;
+import interval.metrics.RecordingMergerMetrics;
 
+import javax.management.JMException;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 public class Main {
 
-    public static void main(String[] args) {
-        Application<BigDecimal> application = new Application<>(new InputParser<>(new TypeConverter<>(BigDecimal.class)), new IntervalMerger<>());
+    /**
+     * System property enabling metrics, which are then registered as MXBean under
+     * {@link RecordingMergerMetrics#OBJECT_NAME}.
+     */
+    private static final String METRICS_PROPERTY = "interval.metrics";
+
+    /**
+     * System property enabling a summary of all metrics printed to STDERR at the end of a run.
+     */
+    private static final String METRICS_SUMMARY_PROPERTY = "interval.metrics.summary";
+
+    /**
+     * Argument selecting server mode, followed by the address to listen on.
+     */
+    private static final String SERVE_ARGUMENT = "--serve";
+
+    /**
+     * Argument selecting batch mode, optionally followed by the path of the file to read.
+     */
+    private static final String BATCH_ARGUMENT = "--batch";
+
+    /**
+     * Argument selecting incremental runs, followed by the directory of the checkpoint and optionally the path of the
+     * file to read.
+     */
+    private static final String CHECKPOINT_ARGUMENT = "--checkpoint";
+
+    /**
+     * Number of chunks per worker thread read ahead in batch mode, so that workers don't idle while the oldest chunk
+     * is still being merged.
+     */
+    private static final int CHUNKS_IN_FLIGHT_PER_WORKER = 4;
+
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Merge the intervals of the file given as first argument, which is memory mapped and parsed in parallel chunks if
+     * there are several cores, or else of STDIN. With the arguments --serve and an address, merge requests of clients
+     * instead until the JVM is shut down. With the argument --batch, merge every line of STDIN or the file given next
+     * as independent record. With the arguments --checkpoint and a directory, resume from the intervals merged by
+     * previous runs and keep the result for the next run.
+     * @param args Optional path of the file to read, --serve followed by unix:path or [host:]port, --batch followed by
+     *             an optional path of the file to read, or --checkpoint followed by a directory and an optional path of
+     *             the file to read
+     * @throws JMException When registering metrics fails
+     * @throws IOException When serving fails
+     */
+    public static void main(String[] args) throws JMException, IOException {
+        if (!Boolean.getBoolean(METRICS_PROPERTY) && !Boolean.getBoolean(METRICS_SUMMARY_PROPERTY)) {
+            run(args, MergerMetrics.disabled());
+            return;
+        }
+        RecordingMergerMetrics metrics = new RecordingMergerMetrics();
+        metrics.register(ManagementFactory.getPlatformMBeanServer());
+        run(args, metrics);
+        if (Boolean.getBoolean(METRICS_SUMMARY_PROPERTY)) {
+            System.err.println(metrics.summary());
+        }
+    }
+
+    private static void run(String[] args, MergerMetrics metrics) throws IOException {
+        TypeConverter<BigDecimal> typeConverter = new TypeConverter<>(BigDecimal.class);
+        if (args.length > 1 && SERVE_ARGUMENT.equals(args[0])) {
+            serve(args[1], typeConverter, metrics);
+            return;
+        }
+        if (args.length > 0 && BATCH_ARGUMENT.equals(args[0])) {
+            processBatch(args.length > 1 ? Path.of(args[1]) : null, typeConverter, metrics);
+            return;
+        }
+        if (args.length > 1 && CHECKPOINT_ARGUMENT.equals(args[0])) {
+            try (CheckpointStore<BigDecimal> checkpoint = new CheckpointStore<>(Path.of(args[1]), BigDecimal.class)) {
+                merge(args.length > 2 ? Path.of(args[2]) : null, typeConverter, metrics, checkpoint);
+            }
+            return;
+        }
+        merge(args.length > 0 ? Path.of(args[0]) : null, typeConverter, metrics, null);
+    }
+
+    private static void merge(Path file, TypeConverter<BigDecimal> typeConverter, MergerMetrics metrics,
+                              CheckpointStore<BigDecimal> checkpoint) {
+        InputParser<BigDecimal> inputParser = file != null
+                ? new InputParser<>(file, typeConverter, metrics)
+                : new InputParser<>(typeConverter, metrics);
+        Application<BigDecimal> application = new Application<>(
+                inputParser,
+                new IntervalMerger<>(MergeStrategy.AUTOMATIC, IntervalMerger.DEFAULT_PARALLELISM_THRESHOLD, metrics),
+                metrics,
+                checkpoint,
+                file != null && ForkJoinPool.getCommonPoolParallelism() > 1 ? ForkJoinPool.commonPool() : null);
         application.readInputAndPrintMergedResults();
     }
 
+    private static void serve(String address, TypeConverter<BigDecimal> typeConverter, MergerMetrics metrics) throws IOException {
+        MergerMetrics requestMetrics = metrics.withoutTreeSize();
+        MergeServer<BigDecimal> server = new MergeServer<>(address, MergeServer.newConnectionExecutor(), typeConverter,
+                () -> new IntervalMerger<>(MergeStrategy.AUTOMATIC, IntervalMerger.DEFAULT_PARALLELISM_THRESHOLD,
+                        requestMetrics));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        server.serve();
+    }
+
+    private static void processBatch(Path file, TypeConverter<BigDecimal> typeConverter, MergerMetrics metrics) throws IOException {
+        int workerCount = Runtime.getRuntime().availableProcessors();
+        ExecutorService workers = Executors.newFixedThreadPool(workerCount);
+        MergerMetrics recordMetrics = metrics.withoutTreeSize();
+        BatchProcessor<BigDecimal> batchProcessor = new BatchProcessor<>(workers, CHUNKS_IN_FLIGHT_PER_WORKER * workerCount,
+                typeConverter, () -> new IntervalMerger<>(MergeStrategy.INSERTION,
+                        IntervalMerger.DEFAULT_PARALLELISM_THRESHOLD, recordMetrics));
+        try (Reader input = file == null ? new InputStreamReader(System.in) : Files.newBufferedReader(file)) {
+            batchProcessor.process(input, new BufferedWriter(new OutputStreamWriter(System.out), OUTPUT_BUFFER_SIZE));
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
 }
@@ -1,18 +1,40 @@
 package interval;
 
+import interval.checkpoint.CheckpointStore;
 import interval.inplace.IntervalMerger;
+import interval.inplace.MergeStrategy;
 import interval.input.InputParser;
+import interval.metrics.MergerMetrics;
+import interval.metrics.Phase;
+import interval.output.IntervalPrinter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
 
 public final class Application<T extends Comparable<T>> {
 
     private static final Logger logger = LoggerFactory.getLogger(Application.class);
+
+    /**
+     * Size of the buffer the output is formatted into before it is written to STDOUT.
+     */
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
     private final InputParser<T> inputParser;
     private final IntervalMerger<T> intervalMerger;
+    private final MergerMetrics metrics;
+    private final CheckpointStore<T> checkpoint;
+    private final ForkJoinPool parsePool;
 
     /**
      * Configuration of application for injected InputParser and IntervalMerger
@@ -20,23 +42,202 @@ public final class Application<T extends Comparable<T>> {
      * @param intervalMerger Service merging and returning merged intervals
      */
     public Application(InputParser<T> inputParser, IntervalMerger<T> intervalMerger) {
+        this(inputParser, intervalMerger, MergerMetrics.disabled());
+    }
+
+    /**
+     * Configuration of application for injected InputParser and IntervalMerger, recording the time spent parsing,
+     * merging and printing. As intervals are merged while they are parsed, timing the merge phase reads the clock
+     * twice per interval, which is only done if the metrics are enabled.
+     * @param inputParser Parser to use for reading from STDIN
+     * @param intervalMerger Service merging and returning merged intervals
+     * @param metrics Metrics to record phase timings into
+     */
+    public Application(InputParser<T> inputParser, IntervalMerger<T> intervalMerger, MergerMetrics metrics) {
+        this(inputParser, intervalMerger, metrics, null);
+    }
+
+    /**
+     * Configuration of application resuming from the intervals merged by previous runs. Before parsing, the merger is
+     * restored from the checkpoint, every parsed interval is appended to its log and once the input is parsed
+     * completely, the log is committed. Afterwards the log is compacted into a new snapshot if it grew too large.
+     * Restoring is not timed as a phase of its own, appending to the log counts as parsing, so that the merge phase
+     * holds nothing but inserting into the merger.
+     * @param inputParser Parser to use for reading from STDIN
+     * @param intervalMerger Service merging and returning merged intervals
+     * @param metrics Metrics to record phase timings into
+     * @param checkpoint Persistent state of previous runs, or null to start from scratch
+     */
+    public Application(InputParser<T> inputParser, IntervalMerger<T> intervalMerger, MergerMetrics metrics,
+                       CheckpointStore<T> checkpoint) {
+        this(inputParser, intervalMerger, metrics, checkpoint, null);
+    }
+
+    /**
+     * Configuration of application parsing the input in parallel chunks, see {@link InputParser#readInParallel}. Each
+     * chunk is merged by a merger of its own on the worker parsing it, the mergers are then united pairwise by linear
+     * sweeps, in O(n * log(c)) for c chunks, and the union is merged into the injected merger. With a checkpoint, the
+     * union is appended to its log instead of the parsed intervals, which restores to the same intervals. The parse
+     * phase then includes merging the chunks. The chunk mergers record every input interval and its merges, so that
+     * inserts and merges add up to the same counts as merging on the calling thread.
+     * @param inputParser Parser to use for reading the file or STDIN
+     * @param intervalMerger Service merging and returning merged intervals
+     * @param metrics Metrics to record phase timings, inserts and merges into
+     * @param checkpoint Persistent state of previous runs, or null to start from scratch
+     * @param parsePool Pool to parse chunks on, or null to parse and merge on the calling thread
+     */
+    public Application(InputParser<T> inputParser, IntervalMerger<T> intervalMerger, MergerMetrics metrics,
+                       CheckpointStore<T> checkpoint, ForkJoinPool parsePool) {
         this.inputParser = inputParser;
         this.intervalMerger = intervalMerger;
+        this.metrics = metrics;
+        this.checkpoint = checkpoint;
+        this.parsePool = parsePool;
     }
 
     /**
-     * Load input data from STDIN, merge intervals on successful parsing and print them to STDOUT. If parsing fails
-     * return early with an error message.
+     * Load input data from STDIN, merging each interval as soon as it is parsed, and print the merged intervals to
+     * STDOUT. The merged intervals are formatted one by one straight from the tree into a buffered writer, so the
+     * output is never held in memory as a whole. If parsing fails return early with an error message.
      */
     public void readInputAndPrintMergedResults() {
-        Optional<List<List<T>>> intervals = inputParser.readFromStdin();
-        if (intervals.isEmpty()) {
+        BiConsumer<T, T> insert = checkpoint == null ? intervalMerger::insert : this::insertAndLog;
+        if (checkpoint != null) {
+            run(() -> checkpoint.restore(intervalMerger));
+        }
+        boolean parsed;
+        if (parsePool != null) {
+            parsed = readInputInParallel();
+        } else {
+            parsed = metrics.isEnabled() ? readInputTimed() : inputParser.readFromStdin(insert);
+        }
+        if (!parsed) {
+            if (checkpoint != null) {
+                run(checkpoint::abort);
+            }
             logger.error("Standard input needs to be list of intervals in the form [[x_0, y_0], [x_1, y_1]]");
             return;
         }
+        if (checkpoint != null) {
+            run(checkpoint::commit);
+        }
+
+        if (metrics.isEnabled()) {
+            long printStart = System.nanoTime();
+            printMergedIntervals();
+            metrics.phaseCompleted(Phase.PRINT, System.nanoTime() - printStart);
+        } else {
+            printMergedIntervals();
+        }
+
+        if (checkpoint != null) {
+            run(this::compactIfNeeded);
+        }
+    }
+
+    private void printMergedIntervals() {
+        Writer output = new BufferedWriter(new OutputStreamWriter(System.out), OUTPUT_BUFFER_SIZE);
+        IntervalPrinter<T> printer = new IntervalPrinter<>(output);
+        intervalMerger.forEachMergedInterval(printer::print);
+        printer.finish();
+        flush(output);
+    }
+
+    private void insertAndLog(T start, T end) {
+        intervalMerger.insert(start, end);
+        appendToLog(start, end);
+    }
+
+    private void appendToLog(T start, T end) {
+        run(() -> checkpoint.append(start, end));
+    }
+
+    private void compactIfNeeded() throws IOException {
+        if (checkpoint.shouldCompact()) {
+            checkpoint.compact(intervalMerger);
+        }
+    }
+
+    private static void flush(Writer output) {
+        run(output::flush);
+    }
+
+    private static void run(IOAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean readInputInParallel() {
+        boolean timed = metrics.isEnabled();
+        long parseStart = timed ? System.nanoTime() : 0;
+        MergerMetrics chunkMetrics = metrics.withoutTreeSize();
+        Optional<List<IntervalMerger<T>>> chunkMergers = inputParser.readInParallel(parsePool, chunk -> {
+            IntervalMerger<T> chunkMerger = new IntervalMerger<>(MergeStrategy.INSERTION,
+                    IntervalMerger.DEFAULT_PARALLELISM_THRESHOLD, chunkMetrics);
+            chunk.forEachInterval(chunkMerger::insert);
+            return chunkMerger;
+        });
+        long mergeStart = 0;
+        if (timed) {
+            mergeStart = System.nanoTime();
+            metrics.phaseCompleted(Phase.PARSE, mergeStart - parseStart);
+        }
+        if (chunkMergers.isEmpty()) {
+            return false;
+        }
+        IntervalMerger<T> merged = unite(chunkMergers.get());
+        intervalMerger.insertAll(merged);
+        if (checkpoint != null) {
+            merged.forEachMergedInterval(this::appendToLog);
+        }
+        if (timed) {
+            metrics.phaseCompleted(Phase.MERGE, System.nanoTime() - mergeStart);
+        }
+        return true;
+    }
+
+    private static <T extends Comparable<T>> IntervalMerger<T> unite(List<IntervalMerger<T>> mergers) {
+        List<IntervalMerger<T>> remaining = mergers;
+        while (remaining.size() > 1) {
+            List<IntervalMerger<T>> combined = new ArrayList<>((remaining.size() + 1) / 2);
+            for (int index = 0; index + 1 < remaining.size(); index += 2) {
+                IntervalMerger<T> merger = remaining.get(index);
+                merger.insertAll(remaining.get(index + 1));
+                combined.add(merger);
+            }
+            if (remaining.size() % 2 == 1) {
+                combined.add(remaining.get(remaining.size() - 1));
+            }
+            remaining = combined;
+        }
+        return remaining.get(0);
+    }
+
+    private boolean readInputTimed() {
+        long[] mergeNanos = new long[1];
+        BiConsumer<T, T> timedInsert = (start, end) -> {
+            long insertStart = System.nanoTime();
+            intervalMerger.insert(start, end);
+            mergeNanos[0] += System.nanoTime() - insertStart;
+            if (checkpoint != null) {
+                appendToLog(start, end);
+            }
+        };
+        long parseStart = System.nanoTime();
+        boolean parsed = inputParser.readFromStdin(timedInsert);
+        metrics.phaseCompleted(Phase.PARSE, System.nanoTime() - parseStart - mergeNanos[0]);
+        metrics.phaseCompleted(Phase.MERGE, mergeNanos[0]);
+        return parsed;
+    }
+
+    @FunctionalInterface
+    private interface IOAction {
+
+        void run() throws IOException;
 
-        List<List<T>> intervalsMerged = intervalMerger.merge(intervals.get());
-        System.out.println(intervalsMerged);
     }
 
 }
@@ -0,0 +1,187 @@
+package interval;
+
+import interval.inplace.IntervalMerger;
+import interval.input.IntervalTokenizer;
+import interval.input.TypeConverter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+public final class BatchProcessor<T extends Comparable<T>> {
+
+    /**
+     * Default number of characters read as one chunk of records. Large enough that scheduling a chunk is cheap compared
+     * to merging its records, small enough that chunks keep all workers busy.
+     */
+    static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+    private final ExecutorService workers;
+    private final int maxChunksInFlight;
+    private final int chunkSize;
+    private final TypeConverter<T> typeConverter;
+    private final RecordMerger<T> recordMerger;
+
+    BatchProcessor(ExecutorService workers, int maxChunksInFlight, int chunkSize, TypeConverter<T> typeConverter,
+                   Supplier<IntervalMerger<T>> mergerFactory) {
+        if (maxChunksInFlight < 1) {
+            throw new IllegalArgumentException("At least one chunk needs to be in flight");
+        }
+        this.workers = workers;
+        this.maxChunksInFlight = maxChunksInFlight;
+        this.chunkSize = chunkSize;
+        this.typeConverter = typeConverter;
+        this.recordMerger = new RecordMerger<>(mergerFactory);
+    }
+
+    /**
+     * Service merging many independent records, each a line of the pattern [[x0, y0], [x1, y1]], in parallel. The
+     * input is split into chunks of complete lines which are parsed and merged by the workers. Results are written in
+     * input order, one line per record as the server responds. At most maxChunksInFlight chunks are read ahead of the
+     * oldest chunk not yet written, which bounds memory independent of the number of records.
+     * @param workers Executor to merge the chunks on
+     * @param maxChunksInFlight Largest number of chunks read but not yet written, a few per worker keep all busy
+     * @param typeConverter Converter for the values of the intervals, shared by all workers
+     * @param mergerFactory Factory of the merger for a single record
+     */
+    public BatchProcessor(ExecutorService workers, int maxChunksInFlight, TypeConverter<T> typeConverter,
+                          Supplier<IntervalMerger<T>> mergerFactory) {
+        this(workers, maxChunksInFlight, DEFAULT_CHUNK_SIZE, typeConverter, mergerFactory);
+    }
+
+    /**
+     * Merge all records of the input and write the results in input order. The calling thread reads the chunks and
+     * writes the results, blocking on the oldest chunk whenever the reorder buffer is full.
+     * @param input Records, one per line
+     * @param output Writer for results, one per line, which is flushed at the end
+     * @return Number of records processed
+     * @throws IOException When reading or writing fails, or the calling thread is interrupted
+     */
+    public long process(Reader input, Writer output) throws IOException {
+        ChunkReader chunks = new ChunkReader(input, chunkSize);
+        Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>(maxChunksInFlight);
+        long records = 0;
+        try {
+            String chunk;
+            while ((chunk = chunks.next()) != null) {
+                if (inFlight.size() == maxChunksInFlight) {
+                    records += write(inFlight.removeFirst(), output);
+                }
+                String lines = chunk;
+                inFlight.addLast(workers.submit(() -> mergeChunk(lines)));
+                while (!inFlight.isEmpty() && inFlight.peekFirst().isDone()) {
+                    records += write(inFlight.removeFirst(), output);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                records += write(inFlight.removeFirst(), output);
+            }
+        } finally {
+            inFlight.forEach(result -> result.cancel(true));
+        }
+        output.flush();
+        return records;
+    }
+
+    private ChunkResult mergeChunk(String lines) throws IOException {
+        IntervalTokenizer<T> tokenizer = new IntervalTokenizer<>(lines, typeConverter);
+        StringWriter results = new StringWriter(lines.length());
+        int records = 0;
+        while (recordMerger.mergeNextRecord(tokenizer, results)) {
+            records++;
+        }
+        return new ChunkResult(results.toString(), records);
+    }
+
+    private static long write(Future<ChunkResult> pending, Writer output) throws IOException {
+        ChunkResult result;
+        try {
+            result = pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for merged records");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Merging records failed", e.getCause());
+        } catch (CancellationException e) {
+            throw new InterruptedIOException("Merging records was cancelled");
+        }
+        output.write(result.lines);
+        return result.records;
+    }
+
+    private static final class ChunkResult {
+
+        private final String lines;
+        private final int records;
+
+        private ChunkResult(String lines, int records) {
+            this.lines = lines;
+            this.records = records;
+        }
+
+    }
+
+    /**
+     * Splits the input into chunks of complete lines of at least the chunk size, except for the last one. A line
+     * longer than the chunk size forms a chunk on its own.
+     */
+    private static final class ChunkReader {
+
+        private final Reader reader;
+        private final char[] buffer;
+        private final StringBuilder pending = new StringBuilder();
+
+        private ChunkReader(Reader reader, int chunkSize) {
+            this.reader = reader;
+            this.buffer = new char[chunkSize];
+        }
+
+        private String next() throws IOException {
+            int read;
+            while ((read = reader.read(buffer, 0, buffer.length)) >= 0) {
+                int lastLineEnd = lastIndexOfLineEnd(read);
+                if (lastLineEnd < 0 || pending.length() + lastLineEnd + 1 < buffer.length) {
+                    pending.append(buffer, 0, read);
+                    continue;
+                }
+                pending.append(buffer, 0, lastLineEnd + 1);
+                String chunk = pending.toString();
+                pending.setLength(0);
+                pending.append(buffer, lastLineEnd + 1, read - lastLineEnd - 1);
+                return chunk;
+            }
+            if (pending.length() == 0) {
+                return null;
+            }
+            String chunk = pending.toString();
+            pending.setLength(0);
+            return chunk;
+        }
+
+        private int lastIndexOfLineEnd(int length) {
+            for (int i = length - 1; i >= 0; i--) {
+                if (buffer[i] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+    }
+
+}
@@ -0,0 +1,220 @@
+package interval;
+
+import interval.inplace.IntervalMerger;
+import interval.input.IntervalTokenizer;
+import interval.input.TypeConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetSocketAddress;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public final class MergeServer<T extends Comparable<T>> implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MergeServer.class);
+
+    /**
+     * Prefix of addresses denoting a Unix domain socket, followed by the path of the socket file.
+     */
+    public static final String UNIX_ADDRESS_PREFIX = "unix:";
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ServerSocketChannel serverChannel;
+    private final Path socketFile;
+    private final ExecutorService executor;
+    private final TypeConverter<T> typeConverter;
+    private final RecordMerger<T> recordMerger;
+
+    /**
+     * Server answering requests of clients with the merged intervals, so that a single long-running JVM serves many
+     * merges. Every request is a line of the pattern [[x0, y0], [x1, y1]], answered by a line of the merged intervals
+     * in the same form as the application prints them, or by a line starting with "ERROR " if the request is
+     * malformed. Clients may send further requests before reading the response, which are answered in order.
+     * Each connection is served on its own task of the executor and reuses one tokenizer for all of its requests.
+     * @param address Address to listen on, either unix:path for a Unix domain socket (Java 16 and later), or
+     *                [host:]port for TCP, where port 0 selects any free port
+     * @param executor Executor to serve connections on, see {@link #newConnectionExecutor()}
+     * @param typeConverter Converter for the values of the intervals, shared by all connections
+     * @param mergerFactory Factory of the merger for a single request
+     * @throws IllegalArgumentException When the address is malformed or Unix domain sockets are not supported
+     * @throws IOException When binding the address fails
+     */
+    public MergeServer(String address, ExecutorService executor, TypeConverter<T> typeConverter,
+                       Supplier<IntervalMerger<T>> mergerFactory) throws IOException {
+        SocketAddress socketAddress;
+        if (address.startsWith(UNIX_ADDRESS_PREFIX)) {
+            this.socketFile = Path.of(address.substring(UNIX_ADDRESS_PREFIX.length()));
+            socketAddress = unixDomainAddress(socketFile);
+            this.serverChannel = openUnixDomainChannel();
+        } else {
+            this.socketFile = null;
+            socketAddress = inetAddress(address);
+            this.serverChannel = ServerSocketChannel.open();
+        }
+        bind(socketAddress);
+        this.executor = executor;
+        this.typeConverter = typeConverter;
+        this.recordMerger = new RecordMerger<>(mergerFactory);
+    }
+
+    /**
+     * Executor serving every connection on its own virtual thread if the runtime supports them (Java 21 and later),
+     * else on a cached pool of daemon platform threads.
+     * @return Executor for connections
+     */
+    public static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadCount = new AtomicInteger();
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "merge-connection-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Address the server listens on, of interest if any free port was chosen.
+     * @return Bound address
+     * @throws IOException When the server is already closed
+     */
+    public SocketAddress getLocalAddress() throws IOException {
+        return serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Accept connections and hand each to the executor until the server is closed. Blocks the calling thread.
+     * @throws IOException When accepting a connection fails for any other reason than the server being closed
+     */
+    public void serve() throws IOException {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            }
+            try {
+                executor.execute(() -> serveConnection(channel));
+            } catch (RejectedExecutionException e) {
+                channel.close();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stop accepting connections, interrupt the connections being served and delete the socket file of a Unix domain
+     * socket.
+     * @throws IOException When closing the server socket or deleting the socket file fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            serverChannel.close();
+            executor.shutdownNow();
+        } finally {
+            if (socketFile != null) {
+                Files.deleteIfExists(socketFile);
+            }
+        }
+    }
+
+    /**
+     * Answer all requests of a connection. Responses are only flushed once no further request is buffered, so that
+     * pipelined requests are answered in as few writes as possible.
+     */
+    private void serveConnection(SocketChannel channel) {
+        try (channel;
+             Reader reader = new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            IntervalTokenizer<T> tokenizer = new IntervalTokenizer<>(reader, typeConverter);
+            while (recordMerger.mergeNextRecord(tokenizer, writer)) {
+                if (!tokenizer.hasBufferedInput()) {
+                    writer.flush();
+                }
+            }
+        } catch (AsynchronousCloseException e) {
+            logger.debug("Connection closed as server is shut down");
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Connection closed unexpectedly: {}", e.toString());
+        }
+    }
+
+    private void bind(SocketAddress address) throws IOException {
+        try {
+            serverChannel.bind(address);
+        } catch (IOException | RuntimeException e) {
+            serverChannel.close();
+            throw e;
+        }
+    }
+
+    private static SocketAddress inetAddress(String address) {
+        int separator = address.lastIndexOf(':');
+        try {
+            int port = Integer.parseInt(address.substring(separator + 1));
+            return separator < 0 ? new InetSocketAddress(port) : new InetSocketAddress(address.substring(0, separator), port);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Address needs to be [host:]port or unix:path but was " + address, e);
+        }
+    }
+
+    private static ServerSocketChannel openUnixDomainChannel() throws IOException {
+        try {
+            ProtocolFamily unix = StandardProtocolFamily.valueOf("UNIX");
+            return (ServerSocketChannel) ServerSocketChannel.class.getMethod("open", ProtocolFamily.class).invoke(null, unix);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalArgumentException("Unix domain sockets are not supported", e.getCause());
+        } catch (ReflectiveOperationException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unix domain sockets are not supported before Java 16", e);
+        }
+    }
+
+    /**
+     * Address of a Unix domain socket, looked up reflectively as the API is missing before Java 16.
+     * @param socketFile Path of the socket file
+     * @return Address to bind or connect to
+     * @throws IllegalArgumentException When Unix domain sockets are not supported
+     */
+    static SocketAddress unixDomainAddress(Path socketFile) {
+        try {
+            return (SocketAddress) Class.forName("java.net.UnixDomainSocketAddress")
+                    .getMethod("of", Path.class)
+                    .invoke(null, socketFile);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Unix domain sockets are not supported before Java 16", e);
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+package interval;
+
+import interval.inplace.IntervalMerger;
+import interval.input.IntervalTokenizer;
+import interval.output.IntervalPrinter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.function.Supplier;
+
+/**
+ * Merges independent records, each a line of the pattern [[x0, y0], [x1, y1]], into one line of output per record.
+ */
+final class RecordMerger<T extends Comparable<T>> {
+
+    /**
+     * Prefix of the output line for a record which is not a list of intervals.
+     */
+    static final String ERROR_PREFIX = "ERROR ";
+
+    private final Supplier<IntervalMerger<T>> mergerFactory;
+
+    /**
+     * @param mergerFactory Factory of the merger for a single record
+     */
+    RecordMerger(Supplier<IntervalMerger<T>> mergerFactory) {
+        this.mergerFactory = mergerFactory;
+    }
+
+    /**
+     * Merge the next record of the tokenizer and print the merged intervals as one line. A blank line is printed as [],
+     * a malformed record as a line starting with {@link #ERROR_PREFIX}. The writer is not flushed.
+     * @param tokenizer Tokenizer positioned at the start of a record
+     * @param writer Writer to print to
+     * @return false if the input was already exhausted, else true
+     * @throws IOException When reading the record or writing the result fails
+     */
+    boolean mergeNextRecord(IntervalTokenizer<T> tokenizer, Writer writer) throws IOException {
+        IntervalMerger<T> intervalMerger = mergerFactory.get();
+        try {
+            if (tokenizer.nextLine(intervalMerger::insert) < 0) {
+                return false;
+            }
+        } catch (IllegalArgumentException e) {
+            writer.write(ERROR_PREFIX + describe(e));
+            writer.write(System.lineSeparator());
+            return true;
+        }
+        IntervalPrinter<T> printer = new IntervalPrinter<>(writer);
+        intervalMerger.forEachMergedInterval(printer::print);
+        printer.finish();
+        return true;
+    }
+
+    /**
+     * Message of the exception on a single line, or its class name should it have no message.
+     */
+    private static String describe(IllegalArgumentException e) {
+        String message = e.getMessage();
+        return message == null ? e.getClass().getName() : message.replace('\r', ' ').replace('\n', ' ');
+    }
+
+}
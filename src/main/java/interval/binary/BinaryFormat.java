@@ -0,0 +1,78 @@
+package interval.binary;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.function.Supplier;
+
+/**
+ * Layout of the binary interval format. A stream starts with a header of the magic bytes, the format version and the
+ * tag of the value type. It is followed by blocks, each starting with the number of intervals and the length of the
+ * payload in bytes as big endian ints, followed by start and end of every interval encoded by the
+ * {@link EndpointCodec} of the value type. A block of zero intervals marks the end of the stream.
+ */
+final class BinaryFormat {
+
+    static final int MAGIC = 0x49564C53;
+    static final byte VERSION = 2;
+    static final int HEADER_LENGTH = Integer.BYTES + 2;
+    static final int BLOCK_HEADER_LENGTH = 2 * Integer.BYTES;
+    static final int MAX_BLOCK_LENGTH = 1 << 16;
+
+    private BinaryFormat() {
+    }
+
+    /**
+     * Value types supported by the format with the tags identifying them in the header.
+     */
+    enum ValueType {
+
+        LONG(1, Long.class, EndpointCodec.LongCodec::new),
+        INTEGER(2, Integer.class, EndpointCodec.IntegerCodec::new),
+        DOUBLE(3, Double.class, EndpointCodec.DoubleCodec::new),
+        BIG_INTEGER(4, BigInteger.class, EndpointCodec.BigIntegerCodec::new),
+        BIG_DECIMAL(5, BigDecimal.class, EndpointCodec.BigDecimalCodec::new);
+
+        private final byte tag;
+        private final Class<?> valueClass;
+        private final Supplier<EndpointCodec<?>> codecFactory;
+
+        ValueType(int tag, Class<?> valueClass, Supplier<EndpointCodec<?>> codecFactory) {
+            this.tag = (byte) tag;
+            this.valueClass = valueClass;
+            this.codecFactory = codecFactory;
+        }
+
+        byte getTag() {
+            return tag;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> EndpointCodec<T> newCodec() {
+            return (EndpointCodec<T>) codecFactory.get();
+        }
+
+        boolean supports(Class<?> valueClass) {
+            return this.valueClass == valueClass;
+        }
+
+        static ValueType forClass(Class<?> valueClass) {
+            for (ValueType type : values()) {
+                if (type.supports(valueClass)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Binary format does not support values of " + valueClass.getName());
+        }
+
+        static ValueType forTag(byte tag) {
+            for (ValueType type : values()) {
+                if (type.tag == tag) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown value type " + tag);
+        }
+
+    }
+
+}
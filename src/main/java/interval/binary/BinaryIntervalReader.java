@@ -0,0 +1,180 @@
+package interval.binary;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.function.BiConsumer;
+
+public final class BinaryIntervalReader<T extends Comparable<T>> implements Closeable {
+
+    private static final int END_OF_INPUT = -1;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer source;
+    private final EndpointCodec<T> codec;
+    private ByteBuffer block;
+    private boolean endOfStream;
+
+    /**
+     * Reader of intervals in the compact binary format. Each block is read into a direct buffer as a whole and decoded
+     * from there, without converting values from or to text.
+     * @param channel Channel to read from, closed together with the reader
+     * @param valueClass Type of values, which has to match the type declared in the header
+     * @throws IllegalArgumentException When the header is malformed or declares a different type of values
+     * @throws IOException When reading the header fails or the channel ends within it
+     */
+    public BinaryIntervalReader(ReadableByteChannel channel, Class<T> valueClass) throws IOException {
+        this(channel, null, valueClass);
+    }
+
+    /**
+     * Reader of intervals in the compact binary format held in a buffer, for example a memory mapped file. Blocks are
+     * decoded in place without copying them. The position of the buffer is advanced past every block read, so that
+     * after the end of stream marker it points to whatever follows the stream.
+     * @param buffer Buffer to read from, starting at its position
+     * @param valueClass Type of values, which has to match the type declared in the header
+     * @throws IllegalArgumentException When the header is malformed or declares a different type of values
+     * @throws IOException When the buffer ends within the header
+     */
+    public BinaryIntervalReader(ByteBuffer buffer, Class<T> valueClass) throws IOException {
+        this(null, buffer, valueClass);
+    }
+
+    private BinaryIntervalReader(ReadableByteChannel channel, ByteBuffer source, Class<T> valueClass) throws IOException {
+        BinaryFormat.ValueType valueType = BinaryFormat.ValueType.forClass(valueClass);
+        this.channel = channel;
+        this.source = source;
+        if (channel != null) {
+            this.block = ByteBuffer.allocateDirect(BinaryFormat.BLOCK_HEADER_LENGTH + BinaryFormat.MAX_BLOCK_LENGTH);
+        }
+        readFully(BinaryFormat.HEADER_LENGTH);
+        if (block.getInt() != BinaryFormat.MAGIC) {
+            throw new IllegalArgumentException("Input is not in binary interval format");
+        }
+        byte version = block.get();
+        if (version != BinaryFormat.VERSION) {
+            throw new IllegalArgumentException("Unsupported version " + version + " of binary interval format");
+        }
+        BinaryFormat.ValueType declaredType = BinaryFormat.ValueType.forTag(block.get());
+        if (declaredType != valueType) {
+            throw new IllegalArgumentException("Input contains values of type " + declaredType + " instead of " + valueType);
+        }
+        this.codec = valueType.newCodec();
+    }
+
+    /**
+     * Read the next block and hand every interval of it to the consumer.
+     * @param consumer Receiver of start and end of each interval in order of appearance
+     * @return Number of intervals read or -1 if the end of stream marker was already read
+     * @throws IllegalArgumentException When the block is malformed
+     * @throws IOException When reading fails or the channel ends before the end of stream marker
+     */
+    public int readBlock(BiConsumer<T, T> consumer) throws IOException {
+        int count = readBlockHeader();
+        if (count == END_OF_INPUT) {
+            return END_OF_INPUT;
+        }
+        codec.reset();
+        try {
+            for (int i = 0; i < count; i++) {
+                T start = codec.decode(block);
+                T end = codec.decode(block);
+                consumer.accept(start, end);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Block ends before its " + count + " intervals", e);
+        }
+        if (block.hasRemaining()) {
+            throw new IllegalArgumentException("Block is longer than its " + count + " intervals");
+        }
+        return count;
+    }
+
+    /**
+     * Read all remaining blocks up to the end of stream marker.
+     * @param consumer Receiver of start and end of each interval in order of appearance
+     * @return Number of intervals read
+     * @throws IllegalArgumentException When a block is malformed
+     * @throws IOException When reading fails or the channel ends before the end of stream marker
+     */
+    public long readAll(BiConsumer<T, T> consumer) throws IOException {
+        long total = 0;
+        int count;
+        while ((count = readBlock(consumer)) != END_OF_INPUT) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Check all remaining blocks up to the end of stream marker without decoding their intervals, for example to
+     * verify that a stream was written completely before handing any of its intervals on.
+     * @return Number of intervals skipped
+     * @throws IllegalArgumentException When a block header is malformed
+     * @throws IOException When reading fails or the input ends before the end of stream marker
+     */
+    public long skipAll() throws IOException {
+        long total = 0;
+        int count;
+        while ((count = readBlockHeader()) != END_OF_INPUT) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Close the underlying channel, if any.
+     * @throws IOException When closing the channel fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Read the header of the next block and the block itself, leaving the block to decode in the buffer.
+     * @return Number of intervals in the block or -1 if the end of stream marker was read
+     */
+    private int readBlockHeader() throws IOException {
+        if (endOfStream) {
+            return END_OF_INPUT;
+        }
+        readFully(BinaryFormat.BLOCK_HEADER_LENGTH);
+        int count = block.getInt();
+        int length = block.getInt();
+        if (count < 0 || length < 0 || length > BinaryFormat.MAX_BLOCK_LENGTH) {
+            throw new IllegalArgumentException("Malformed block of " + count + " intervals in " + length + " bytes");
+        }
+        if (count == 0) {
+            endOfStream = true;
+            return END_OF_INPUT;
+        }
+        readFully(length);
+        return count;
+    }
+
+    private void readFully(int length) throws IOException {
+        if (source != null) {
+            if (source.remaining() < length) {
+                throw new EOFException("Binary interval input ends unexpectedly");
+            }
+            block = source.slice();
+            block.limit(length);
+            source.position(source.position() + length);
+            return;
+        }
+        block.clear().limit(length);
+        while (block.hasRemaining()) {
+            if (channel.read(block) < 0) {
+                throw new EOFException("Binary interval input ends unexpectedly");
+            }
+        }
+        block.flip();
+    }
+
+}
@@ -0,0 +1,129 @@
+package interval.binary;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+public final class BinaryIntervalWriter<T extends Comparable<T>> implements Flushable, Closeable {
+
+    private final WritableByteChannel channel;
+    private final EndpointCodec<T> codec;
+    private final ByteBuffer block;
+    private int blockCount;
+
+    /**
+     * Writer of intervals in the compact binary format. Intervals are collected into blocks of at most 64 KiB in a
+     * direct buffer, which is written to the channel as a whole once full. Integral values are encoded as varint of
+     * their difference to the previous endpoint, so sorted intervals like merged ones take only few bytes each.
+     * @param channel Channel to write to, written to in blocks and closed together with the writer
+     * @param valueClass Type of values, one of Long, Integer, Double, BigInteger and BigDecimal
+     * @throws IllegalArgumentException When values of the type are not supported
+     * @throws IOException When writing the header fails
+     */
+    public BinaryIntervalWriter(WritableByteChannel channel, Class<T> valueClass) throws IOException {
+        BinaryFormat.ValueType valueType = BinaryFormat.ValueType.forClass(valueClass);
+        this.channel = channel;
+        this.codec = valueType.newCodec();
+        this.block = ByteBuffer.allocateDirect(BinaryFormat.BLOCK_HEADER_LENGTH + BinaryFormat.MAX_BLOCK_LENGTH);
+        block.putInt(BinaryFormat.MAGIC)
+                .put(BinaryFormat.VERSION)
+                .put(valueType.getTag())
+                .flip();
+        writeFully(block);
+        startBlock();
+    }
+
+    /**
+     * Whether values of a type can be written in the binary format.
+     * @param valueClass Type of values
+     * @return True for Long, Integer, Double, BigInteger and BigDecimal
+     */
+    public static boolean supports(Class<?> valueClass) {
+        for (BinaryFormat.ValueType type : BinaryFormat.ValueType.values()) {
+            if (type.supports(valueClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Append a single interval [start, end] to the current block, writing the block first should it be full.
+     * @param start Start of interval (including)
+     * @param end End of interval (including)
+     * @throws IllegalArgumentException When an interval doesn't fit into a block on its own
+     * @throws IOException When writing a full block fails
+     */
+    public void write(T start, T end) throws IOException {
+        int maxLength = codec.maxEncodedLength(start) + codec.maxEncodedLength(end);
+        if (maxLength > BinaryFormat.MAX_BLOCK_LENGTH) {
+            throw new IllegalArgumentException("Interval is too large to be written in binary format");
+        }
+        if (maxLength > block.remaining()) {
+            flush();
+        }
+        codec.encode(start, block);
+        codec.encode(end, block);
+        blockCount++;
+    }
+
+    /**
+     * Append intervals in the form [[x0, y0], [x1, y1]] as returned by the mergers.
+     * @param intervals Intervals to write
+     * @throws IOException When writing a full block fails
+     */
+    public void writeAll(List<List<T>> intervals) throws IOException {
+        for (List<T> interval : intervals) {
+            write(interval.get(0), interval.get(1));
+        }
+    }
+
+    /**
+     * Write the current block to the channel, unless it is empty.
+     * @throws IOException When writing to the channel fails
+     */
+    @Override
+    public void flush() throws IOException {
+        if (blockCount == 0) {
+            return;
+        }
+        writeBlock();
+        startBlock();
+    }
+
+    /**
+     * Write the current block and the end of stream marker, then close the channel.
+     * @throws IOException When writing to or closing the channel fails
+     */
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            flush();
+            writeBlock();
+        }
+    }
+
+    private void startBlock() {
+        block.clear();
+        block.position(BinaryFormat.BLOCK_HEADER_LENGTH);
+        blockCount = 0;
+        codec.reset();
+    }
+
+    private void writeBlock() throws IOException {
+        block.putInt(0, blockCount);
+        block.putInt(Integer.BYTES, block.position() - BinaryFormat.BLOCK_HEADER_LENGTH);
+        block.flip();
+        writeFully(block);
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+}
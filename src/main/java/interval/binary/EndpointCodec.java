@@ -0,0 +1,261 @@
+package interval.binary;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * Encoding of the endpoints of intervals within a block. Codecs are stateful: integral values and BigDecimals of
+ * unchanged scale are written as zigzag varint of their difference to the previous endpoint, which stays small for
+ * sorted endpoints. The state is reset at
+ * the start of every block, so that blocks can be decoded independently.
+ */
+abstract class EndpointCodec<T> {
+
+    static final int MAX_VARINT_LENGTH = 10;
+
+    /**
+     * Forget the previous endpoint, called at the start of every block.
+     */
+    abstract void reset();
+
+    /**
+     * Upper bound of the bytes needed to encode a value.
+     * @param value Value to encode
+     * @return Number of bytes encoding the value takes at most
+     */
+    abstract int maxEncodedLength(T value);
+
+    abstract void encode(T value, ByteBuffer buffer);
+
+    abstract T decode(ByteBuffer buffer);
+
+    static void putVarLong(long value, ByteBuffer buffer) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            buffer.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        buffer.put((byte) remaining);
+    }
+
+    static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static final class LongCodec extends EndpointCodec<Long> {
+
+        private long previous;
+
+        @Override
+        void reset() {
+            previous = 0;
+        }
+
+        @Override
+        int maxEncodedLength(Long value) {
+            return MAX_VARINT_LENGTH;
+        }
+
+        @Override
+        void encode(Long value, ByteBuffer buffer) {
+            long current = value;
+            putVarLong(zigzag(current - previous), buffer);
+            previous = current;
+        }
+
+        @Override
+        Long decode(ByteBuffer buffer) {
+            previous += unzigzag(getVarLong(buffer));
+            return previous;
+        }
+
+    }
+
+    static final class IntegerCodec extends EndpointCodec<Integer> {
+
+        private long previous;
+
+        @Override
+        void reset() {
+            previous = 0;
+        }
+
+        @Override
+        int maxEncodedLength(Integer value) {
+            return MAX_VARINT_LENGTH;
+        }
+
+        @Override
+        void encode(Integer value, ByteBuffer buffer) {
+            long current = value;
+            putVarLong(zigzag(current - previous), buffer);
+            previous = current;
+        }
+
+        @Override
+        Integer decode(ByteBuffer buffer) {
+            long current = previous + unzigzag(getVarLong(buffer));
+            if (current != (int) current) {
+                throw new IllegalArgumentException("Value out of range for Integer: " + current);
+            }
+            previous = current;
+            return (int) current;
+        }
+
+    }
+
+    /**
+     * Doubles are written as their 8 IEEE 754 bytes, as differences of floating point values cannot be restored
+     * exactly.
+     */
+    static final class DoubleCodec extends EndpointCodec<Double> {
+
+        @Override
+        void reset() {
+        }
+
+        @Override
+        int maxEncodedLength(Double value) {
+            return Double.BYTES;
+        }
+
+        @Override
+        void encode(Double value, ByteBuffer buffer) {
+            buffer.putDouble(value);
+        }
+
+        @Override
+        Double decode(ByteBuffer buffer) {
+            return buffer.getDouble();
+        }
+
+    }
+
+    /**
+     * BigIntegers are written as varint length followed by their two's complement bytes, avoiding the allocation a
+     * difference would need.
+     */
+    static final class BigIntegerCodec extends EndpointCodec<BigInteger> {
+
+        @Override
+        void reset() {
+        }
+
+        @Override
+        int maxEncodedLength(BigInteger value) {
+            return MAX_VARINT_LENGTH + value.bitLength() / Byte.SIZE + 1;
+        }
+
+        @Override
+        void encode(BigInteger value, ByteBuffer buffer) {
+            putBytes(value.toByteArray(), buffer);
+        }
+
+        @Override
+        BigInteger decode(ByteBuffer buffer) {
+            return new BigInteger(getBytes(buffer));
+        }
+
+    }
+
+    /**
+     * BigDecimals are written as varint tag followed by their unscaled value. Sorted endpoints mostly share the scale of
+     * the previous one, then the tag is 0 and the unscaled value is written like a Long, as zigzag varint of its
+     * difference to the previous one. Otherwise, for another scale or when the unscaled value or its difference doesn't
+     * fit into a long, the tag is the zigzag scale plus 1 followed by the unscaled value written like a BigInteger.
+     */
+    static final class BigDecimalCodec extends EndpointCodec<BigDecimal> {
+
+        private boolean hasPrevious;
+        private int previousScale;
+        private long previousUnscaled;
+
+        @Override
+        void reset() {
+            hasPrevious = false;
+        }
+
+        @Override
+        int maxEncodedLength(BigDecimal value) {
+            return 2 * MAX_VARINT_LENGTH + value.unscaledValue().bitLength() / Byte.SIZE + 1;
+        }
+
+        @Override
+        void encode(BigDecimal value, ByteBuffer buffer) {
+            BigInteger unscaled = value.unscaledValue();
+            boolean fitsLong = unscaled.bitLength() < Long.SIZE;
+            if (fitsLong && hasPrevious && value.scale() == previousScale) {
+                long current = unscaled.longValue();
+                long difference = current - previousUnscaled;
+                if (((current ^ previousUnscaled) & (current ^ difference)) >= 0) {
+                    putVarLong(0, buffer);
+                    putVarLong(zigzag(difference), buffer);
+                    previousUnscaled = current;
+                    return;
+                }
+            }
+            putVarLong(zigzag(value.scale()) + 1, buffer);
+            putBytes(unscaled.toByteArray(), buffer);
+            remember(value.scale(), unscaled, fitsLong);
+        }
+
+        @Override
+        BigDecimal decode(ByteBuffer buffer) {
+            long tag = getVarLong(buffer);
+            if (tag == 0) {
+                if (!hasPrevious) {
+                    throw new IllegalArgumentException("Difference without previous value of same scale");
+                }
+                previousUnscaled += unzigzag(getVarLong(buffer));
+                return BigDecimal.valueOf(previousUnscaled, previousScale);
+            }
+            long scale = unzigzag(tag - 1);
+            if (scale != (int) scale) {
+                throw new IllegalArgumentException("Scale out of range: " + scale);
+            }
+            BigInteger unscaled = new BigInteger(getBytes(buffer));
+            remember((int) scale, unscaled, unscaled.bitLength() < Long.SIZE);
+            return new BigDecimal(unscaled, (int) scale);
+        }
+
+        private void remember(int scale, BigInteger unscaled, boolean fitsLong) {
+            hasPrevious = fitsLong;
+            previousScale = scale;
+            previousUnscaled = unscaled.longValue();
+        }
+
+    }
+
+    private static void putBytes(byte[] bytes, ByteBuffer buffer) {
+        putVarLong(bytes.length, buffer);
+        buffer.put(bytes);
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        long length = getVarLong(buffer);
+        if (length < 1 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid length of value: " + length);
+        }
+        byte[] bytes = new byte[(int) length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+}
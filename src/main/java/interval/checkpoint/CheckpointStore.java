@@ -0,0 +1,251 @@
+package interval.checkpoint;
+
+import interval.binary.BinaryIntervalReader;
+import interval.binary.BinaryIntervalWriter;
+import interval.inplace.IntervalMerger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+public final class CheckpointStore<T extends Comparable<T>> implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointStore.class);
+
+    /**
+     * File holding the merged intervals as of the last compaction, sorted and disjunctive.
+     */
+    static final String SNAPSHOT_FILE = "snapshot.bin";
+
+    /**
+     * File holding the intervals added since the last compaction, one binary stream per committed run.
+     */
+    static final String LOG_FILE = "log.bin";
+
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final Path snapshotFile;
+    private final Path logFile;
+    private final Class<T> valueClass;
+    private FileChannel logChannel;
+    private BinaryIntervalWriter<T> segment;
+    private long segmentStart;
+
+    /**
+     * Persistent state of merged intervals in a directory, so that a run resumes from the state of the previous runs
+     * instead of merging all intervals ever seen again. The state consists of a snapshot of merged intervals and an
+     * append-only log of intervals added since, both in the compact binary format. Each run appends its intervals as
+     * a segment of the log, which only counts once committed. Compaction folds the log into a new snapshot.
+     * @param directory Directory of snapshot and log, created if missing
+     * @param valueClass Type of values, one of Long, Integer, Double, BigInteger and BigDecimal
+     * @throws IOException When creating the directory fails
+     */
+    public CheckpointStore(Path directory, Class<T> valueClass) throws IOException {
+        Files.createDirectories(directory);
+        this.snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        this.logFile = directory.resolve(LOG_FILE);
+        this.valueClass = valueClass;
+    }
+
+    /**
+     * Merge all intervals of the snapshot and of the committed segments of the log into the merger, snapshot first.
+     * Both files are memory mapped and decoded in place. The snapshot is sorted and disjunctive, so it is loaded by a
+     * single linear sweep, while the logged intervals are inserted one by one. A segment which was not committed, for
+     * example as the run writing it crashed, is verified before any of its intervals is inserted and is cut off the
+     * log once the log is replayed.
+     * @param merger Merger to restore the intervals into
+     * @return Number of intervals restored
+     * @throws IllegalArgumentException When the snapshot is malformed or holds values of another type
+     * @throws IOException When reading the files fails or the snapshot is truncated
+     */
+    public long restore(IntervalMerger<T> merger) throws IOException {
+        long restored = 0;
+        if (Files.exists(snapshotFile)) {
+            List<List<T>> snapshot = new ArrayList<>();
+            restored += new BinaryIntervalReader<>(map(snapshotFile), valueClass)
+                    .readAll((start, end) -> snapshot.add(List.of(start, end)));
+            merger.insertAll(snapshot);
+        }
+        if (Files.exists(logFile)) {
+            long committedLength = findCommittedLength();
+            restored += replayLog(merger::insert, committedLength);
+            if (committedLength < sizeOf(logFile)) {
+                truncateLog(committedLength);
+            }
+        }
+        return restored;
+    }
+
+    /**
+     * Verify the segments of the log up to the first one which was not committed.
+     * @return Length of the committed segments
+     */
+    private long findCommittedLength() throws IOException {
+        ByteBuffer log = map(logFile);
+        while (log.hasRemaining()) {
+            int segmentStart = log.position();
+            try {
+                new BinaryIntervalReader<>(log, valueClass).skipAll();
+            } catch (IOException | IllegalArgumentException e) {
+                logger.warn("Dropping segment of {} which was not committed: {}", logFile, e.toString());
+                return segmentStart;
+            }
+        }
+        return log.position();
+    }
+
+    /**
+     * Replay the committed segments of the log. Neither this nor verifying the segments keeps a reference to the
+     * mapping of the log, so that a segment which was not committed is cut off only once the log is replayed.
+     */
+    private long replayLog(BiConsumer<T, T> consumer, long committedLength) throws IOException {
+        ByteBuffer log = map(logFile).limit((int) committedLength);
+        long replayed = 0;
+        while (log.hasRemaining()) {
+            replayed += new BinaryIntervalReader<>(log, valueClass).readAll(consumer);
+        }
+        return replayed;
+    }
+
+    /**
+     * Append an interval to the segment of the current run, starting the segment on the first interval. Intervals are
+     * written in blocks and only count once committed. The log needs to be restored before, which cuts off a segment
+     * left incomplete by an earlier run.
+     * @param start Start of interval (including)
+     * @param end End of interval (including)
+     * @throws IOException When writing to the log fails
+     */
+    public void append(T start, T end) throws IOException {
+        if (segment == null) {
+            logChannel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            segmentStart = logChannel.size();
+            logChannel.position(segmentStart);
+            segment = new BinaryIntervalWriter<>(logChannel, valueClass);
+        }
+        segment.write(start, end);
+    }
+
+    /**
+     * Complete the segment of the current run and force it to disk, so that its intervals are restored by later runs.
+     * Does nothing if no interval was appended.
+     * @throws IOException When writing to the log fails
+     */
+    public void commit() throws IOException {
+        if (segment == null) {
+            return;
+        }
+        segment.close();
+        segment = null;
+        logChannel = null;
+        force(logFile);
+    }
+
+    /**
+     * Discard the segment of the current run, for example as its input turned out to be malformed.
+     * @throws IOException When truncating the log fails
+     */
+    public void abort() throws IOException {
+        if (segment == null) {
+            return;
+        }
+        try (FileChannel channel = logChannel) {
+            channel.truncate(segmentStart);
+        } finally {
+            segment = null;
+            logChannel = null;
+        }
+    }
+
+    /**
+     * Whether the log has grown larger than the snapshot, so that restoring merges more logged intervals than it loads
+     * merged ones. Compacting then keeps the cost of restoring proportional to the number of merged intervals while
+     * the cost of compaction is amortized over the runs appending to the log.
+     * @return true if the log should be folded into a new snapshot
+     * @throws IOException When reading the file sizes fails
+     */
+    public boolean shouldCompact() throws IOException {
+        return sizeOf(logFile) > sizeOf(snapshotFile);
+    }
+
+    /**
+     * Write the merged intervals as new snapshot and empty the log. The snapshot is written to a temporary file which
+     * then replaces the old one atomically, so a crash leaves either the old snapshot and log or the new snapshot.
+     * Should the crash happen before the log is emptied, replaying it onto the new snapshot merges into the same state.
+     * @param merger Merger holding the union of snapshot, committed log and the current run
+     * @throws IllegalStateException When the segment of the current run is neither committed nor aborted
+     * @throws IOException When writing the snapshot or emptying the log fails
+     */
+    public void compact(IntervalMerger<T> merger) throws IOException {
+        if (segment != null) {
+            throw new IllegalStateException("Segment of current run needs to be committed before compaction");
+        }
+        Path temporaryFile = snapshotFile.resolveSibling(SNAPSHOT_FILE + TEMPORARY_SUFFIX);
+        FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try (BinaryIntervalWriter<T> writer = new BinaryIntervalWriter<>(channel, valueClass)) {
+            merger.forEachMergedInterval((start, end) -> {
+                try {
+                    writer.write(start, end);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        force(temporaryFile);
+        Files.move(temporaryFile, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        truncateLog(0);
+    }
+
+    /**
+     * Discard the segment of the current run, unless it was committed.
+     * @throws IOException When truncating the log fails
+     */
+    @Override
+    public void close() throws IOException {
+        abort();
+    }
+
+    private void truncateLog(long length) throws IOException {
+        if (!Files.exists(logFile)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Force all data written to a file to disk. The writers close their channel once done, so the file is opened again
+     * just to force it.
+     */
+    private static void force(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(false);
+        }
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static long sizeOf(Path file) throws IOException {
+        return Files.exists(file) ? Files.size(file) : 0;
+    }
+
+}
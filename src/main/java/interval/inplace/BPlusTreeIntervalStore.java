@@ -0,0 +1,661 @@
+package interval.inplace;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Store keeping the disjunctive intervals in a B+-tree. Leaves hold the starts and ends of up to capacity intervals in
+ * two arrays each and are chained in ascending order, inner nodes hold separating starts and their children. Unlike a
+ * TreeMap, neither an entry nor an interval is allocated per stored interval, and an insert finds the first interval
+ * to merge with in a single descent, absorbing all further overlapping intervals by deleting a range of entries.
+ * <p>
+ * Inner nodes route a value to their last child whose separating key is not larger than the value, keys[0] is unused.
+ * All starts within a child are not smaller than its key and smaller than the key of the next child. Leaves emptied by
+ * deletion are removed, so apart from the root no leaf is empty and the floor of a value is found either in the leaf
+ * it is routed to or as last interval of the leaf before. Underfull nodes are not merged with their siblings, instead
+ * the whole tree is rebuilt once it is filled less than a quarter on average.
+ */
+final class BPlusTreeIntervalStore<T extends Comparable<T>> implements IntervalStore<T> {
+
+    /**
+     * Default number of intervals per leaf and children per inner node. Starts and ends of a leaf then span a few cache
+     * lines each while the tree stays shallow.
+     */
+    static final int DEFAULT_NODE_CAPACITY = 64;
+
+    private static final int MIN_NODE_CAPACITY = 4;
+    private static final int INITIAL_PATH_LENGTH = 8;
+
+    private final int capacity;
+    private final int bulkLoadFill;
+
+    private Node root;
+    private Leaf<T> firstLeaf;
+    private int height;
+    private int size;
+    private int leafCount;
+
+    private Inner<T>[] pathNodes;
+    private int[] pathIndexes;
+    private T runEnd;
+
+    /**
+     * Generate a new, empty B+-tree.
+     * @param capacity Number of intervals per leaf and children per inner node
+     * @throws IllegalArgumentException When capacity is smaller than 4
+     */
+    BPlusTreeIntervalStore(int capacity) {
+        if (capacity < MIN_NODE_CAPACITY) {
+            throw new IllegalArgumentException("Capacity of nodes needs to be at least " + MIN_NODE_CAPACITY);
+        }
+        this.capacity = capacity;
+        this.bulkLoadFill = capacity * 3 / 4;
+        this.pathNodes = newPath(INITIAL_PATH_LENGTH);
+        this.pathIndexes = new int[INITIAL_PATH_LENGTH];
+        reset();
+    }
+
+    BPlusTreeIntervalStore() {
+        this(DEFAULT_NODE_CAPACITY);
+    }
+
+    /**
+     * Insert an interval in a single descent by its start. Either the floor, the last interval starting at or before
+     * the start, overlaps and is extended, or the successor of the floor overlaps and is replaced, or the interval is
+     * added right after the floor. In the first two cases all further intervals starting at or before the end are
+     * deleted as a range. Nothing is allocated unless a leaf needs to be split, in particular not for an interval
+     * contained in the floor.
+     */
+    @Override
+    public int insert(final T start, final T end, final Changes<T> changes) {
+        Leaf<T> leaf = descend(start);
+        int position = upperBound(leaf.starts, 0, leaf.size, start);
+        Leaf<T> floorLeaf = leaf;
+        int floorIndex = position - 1;
+        if (floorIndex < 0 && leaf.prev != null) {
+            floorLeaf = leaf.prev;
+            floorIndex = floorLeaf.size - 1;
+        }
+        int merges;
+        if (floorIndex >= 0 && floorLeaf.ends[floorIndex].compareTo(start) >= 0) {
+            T floorEnd = floorLeaf.ends[floorIndex];
+            merges = 1 + deleteRun(floorLeaf, floorIndex + 1, end, changes);
+            T mergedEnd = max(floorEnd, merges > 1 ? max(end, runEnd) : end);
+            if (mergedEnd != floorEnd) {
+                changes.removed(floorLeaf.starts[floorIndex], floorEnd);
+                changes.added(floorLeaf.starts[floorIndex], mergedEnd);
+                floorLeaf.ends[floorIndex] = mergedEnd;
+            }
+        } else if (position < leaf.size && leaf.starts[position].compareTo(end) <= 0) {
+            T successorEnd = leaf.ends[position];
+            changes.removed(leaf.starts[position], successorEnd);
+            merges = 1 + deleteRun(leaf, position + 1, end, changes);
+            leaf.starts[position] = start;
+            leaf.ends[position] = max(end, merges > 1 ? runEnd : successorEnd);
+            changes.added(start, leaf.ends[position]);
+        } else if (position == leaf.size && leaf.next != null && leaf.next.starts[0].compareTo(end) <= 0) {
+            merges = deleteRun(leaf.next, 0, end, changes);
+            T mergedEnd = max(end, runEnd);
+            leaf = descend(start);
+            insertAt(leaf, leaf.size, start, mergedEnd);
+            changes.added(start, mergedEnd);
+        } else {
+            merges = 0;
+            insertAt(leaf, position, start, end);
+            changes.added(start, end);
+        }
+        runEnd = null;
+        compactIfSparse();
+        return merges;
+    }
+
+    /**
+     * Replace all intervals by loading the tree bottom up in linear time. Nodes are filled to three quarters, leaving
+     * room for later inserts before nodes need to be split.
+     * @param sortedDisjunct Disjunctive intervals sorted ascending by start
+     */
+    @Override
+    public void replaceAll(final List<Interval<T>> sortedDisjunct) {
+        int count = sortedDisjunct.size();
+        T[] starts = newValues(count);
+        T[] ends = newValues(count);
+        int index = 0;
+        for (Interval<T> interval : sortedDisjunct) {
+            starts[index] = interval.getStart();
+            ends[index] = interval.getEnd();
+            index++;
+        }
+        bulkLoad(starts, ends, count);
+    }
+
+    @Override
+    public Interval<T> findCovering(final T point) {
+        Leaf<T> leaf = findLeaf(point);
+        int index = upperBound(leaf.starts, 0, leaf.size, point) - 1;
+        if (index < 0) {
+            leaf = leaf.prev;
+            if (leaf == null) {
+                return null;
+            }
+            index = leaf.size - 1;
+        }
+        if (leaf.ends[index].compareTo(point) < 0) {
+            return null;
+        }
+        return new Interval<>(leaf.starts[index], leaf.ends[index]);
+    }
+
+    /**
+     * The first overlapping interval is the floor of from if it contains from, else its successor. From there on the
+     * leaves are scanned in order until an interval starts after to.
+     */
+    @Override
+    public void forEachOverlapping(final T from, final T to, final Consumer<Interval<T>> consumer) {
+        Leaf<T> leaf = findLeaf(from);
+        int index = upperBound(leaf.starts, 0, leaf.size, from) - 1;
+        if (index < 0) {
+            Leaf<T> prev = leaf.prev;
+            if (prev != null && prev.ends[prev.size - 1].compareTo(from) >= 0) {
+                leaf = prev;
+                index = prev.size - 1;
+            } else {
+                index = 0;
+            }
+        } else if (leaf.ends[index].compareTo(from) < 0) {
+            index++;
+        }
+        for (; leaf != null; leaf = leaf.next, index = 0) {
+            for (; index < leaf.size; index++) {
+                if (leaf.starts[index].compareTo(to) > 0) {
+                    return;
+                }
+                consumer.accept(new Interval<>(leaf.starts[index], leaf.ends[index]));
+            }
+        }
+    }
+
+    /**
+     * As the intervals are disjunctive, their ends are ascending as well. Evicted intervals are thus a prefix of the
+     * leaf chain, whole leaves of it are removed from the tree and the rest is shifted out of the last leaf.
+     */
+    @Override
+    public void evictBefore(final T point, final Consumer<Interval<T>> consumer) {
+        Leaf<T> leaf = firstLeaf;
+        while (leaf != null && leaf.size > 0) {
+            int count = lowerBound(leaf.ends, leaf.size, point);
+            for (int index = 0; index < count; index++) {
+                consumer.accept(new Interval<>(leaf.starts[index], leaf.ends[index]));
+            }
+            Leaf<T> next = leaf.next;
+            size -= count;
+            if (count < leaf.size) {
+                removeRange(leaf, 0, count);
+                break;
+            }
+            removeLeaf(leaf);
+            leaf = next;
+        }
+        compactIfSparse();
+    }
+
+    /**
+     * The raised start stays below the start of the second interval. If both are in the first leaf, it thus stays
+     * below the key separating the first leaf from the next one and is overwritten in place. As keys are not updated
+     * on deletion, this does not hold for a first leaf with a single interval, which is removed and inserted anew.
+     */
+    @Override
+    public void trimBefore(final T point) {
+        if (size == 0 || firstLeaf.starts[0].compareTo(point) >= 0) {
+            return;
+        }
+        if (firstLeaf.size > 1 || firstLeaf.next == null) {
+            firstLeaf.starts[0] = point;
+            return;
+        }
+        T end = firstLeaf.ends[0];
+        removeLeaf(firstLeaf);
+        size--;
+        insert(point, end);
+    }
+
+    @Override
+    public Interval<T> first() {
+        return size == 0 ? null : new Interval<>(firstLeaf.starts[0], firstLeaf.ends[0]);
+    }
+
+    /**
+     * Descends along the last children, as no leaf but an empty root is empty.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Interval<T> last() {
+        if (size == 0) {
+            return null;
+        }
+        Node node = root;
+        for (int level = 0; level < height; level++) {
+            Inner<T> inner = (Inner<T>) node;
+            node = inner.children[inner.size - 1];
+        }
+        Leaf<T> leaf = (Leaf<T>) node;
+        return new Interval<>(leaf.starts[leaf.size - 1], leaf.ends[leaf.size - 1]);
+    }
+
+    @Override
+    public void clear() {
+        reset();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Interval<T>> iterator() {
+        return new Iterator<>() {
+            private Leaf<T> leaf = firstLeaf;
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                while (leaf != null && index == leaf.size) {
+                    leaf = leaf.next;
+                    index = 0;
+                }
+                return leaf != null;
+            }
+
+            @Override
+            public Interval<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Interval<T> interval = new Interval<>(leaf.starts[index], leaf.ends[index]);
+                index++;
+                return interval;
+            }
+        };
+    }
+
+    /**
+     * Number of levels of inner nodes above the leaves.
+     * @return Height of the tree, 0 if the root is a leaf
+     */
+    int height() {
+        return height;
+    }
+
+    /**
+     * Number of leaves in the tree.
+     * @return Number of leaves, at least 1
+     */
+    int leafCount() {
+        return leafCount;
+    }
+
+    /**
+     * Descend to the leaf a value is routed to without recording the path, so that queries do not modify the tree.
+     */
+    @SuppressWarnings("unchecked")
+    private Leaf<T> findLeaf(final T value) {
+        Node node = root;
+        for (int level = 0; level < height; level++) {
+            Inner<T> inner = (Inner<T>) node;
+            node = inner.children[inner.childIndex(value)];
+        }
+        return (Leaf<T>) node;
+    }
+
+    /**
+     * Descend to the leaf a value is routed to and record the inner nodes and child indexes on the path, which a split
+     * or a removal of the leaf then walks up.
+     */
+    @SuppressWarnings("unchecked")
+    private Leaf<T> descend(final T value) {
+        Node node = root;
+        for (int level = 0; level < height; level++) {
+            Inner<T> inner = (Inner<T>) node;
+            int index = inner.childIndex(value);
+            pathNodes[level] = inner;
+            pathIndexes[level] = index;
+            node = inner.children[index];
+        }
+        return (Leaf<T>) node;
+    }
+
+    /**
+     * Delete the run of intervals starting at or before a bound, beginning at an index of a leaf and continuing into
+     * the following leaves, reporting each deleted interval. The end of the last deleted interval is left in runEnd.
+     * Leaves deleted as a whole are removed from the tree, which invalidates the recorded path.
+     * @return Number of deleted intervals
+     */
+    private int deleteRun(Leaf<T> leaf, int from, final T bound, final Changes<T> changes) {
+        int deleted = 0;
+        while (leaf != null) {
+            int to = upperBound(leaf.starts, from, leaf.size, bound);
+            boolean exhausted = to == leaf.size;
+            Leaf<T> next = leaf.next;
+            if (to > from) {
+                for (int index = from; index < to; index++) {
+                    changes.removed(leaf.starts[index], leaf.ends[index]);
+                }
+                runEnd = leaf.ends[to - 1];
+                deleted += to - from;
+                if (from == 0 && exhausted) {
+                    removeLeaf(leaf);
+                } else {
+                    removeRange(leaf, from, to);
+                }
+            }
+            if (!exhausted) {
+                break;
+            }
+            leaf = next;
+            from = 0;
+        }
+        size -= deleted;
+        return deleted;
+    }
+
+    /**
+     * Insert an interval at a position of the leaf reached by the last descent, splitting the leaf and its ancestors
+     * on overflow.
+     */
+    private void insertAt(final Leaf<T> leaf, final int position, final T start, final T end) {
+        size++;
+        if (leaf.size < capacity) {
+            leaf.insert(position, start, end);
+            return;
+        }
+        Leaf<T> right = new Leaf<>(capacity);
+        int mid = capacity / 2;
+        right.size = capacity - mid;
+        System.arraycopy(leaf.starts, mid, right.starts, 0, right.size);
+        System.arraycopy(leaf.ends, mid, right.ends, 0, right.size);
+        Arrays.fill(leaf.starts, mid, capacity, null);
+        Arrays.fill(leaf.ends, mid, capacity, null);
+        leaf.size = mid;
+        right.next = leaf.next;
+        if (right.next != null) {
+            right.next.prev = right;
+        }
+        right.prev = leaf;
+        leaf.next = right;
+        leafCount++;
+        if (position <= mid) {
+            leaf.insert(position, start, end);
+        } else {
+            right.insert(position - mid, start, end);
+        }
+        insertChild(height - 1, right.starts[0], right);
+    }
+
+    /**
+     * Insert a child right after the child on the recorded path at a level, splitting the inner node on overflow and
+     * growing a new root once the old one is split.
+     */
+    private void insertChild(final int level, final T key, final Node child) {
+        if (level < 0) {
+            Inner<T> newRoot = new Inner<>(capacity);
+            newRoot.children[0] = root;
+            newRoot.keys[1] = key;
+            newRoot.children[1] = child;
+            newRoot.size = 2;
+            root = newRoot;
+            height++;
+            ensurePathLength(height);
+            return;
+        }
+        Inner<T> node = pathNodes[level];
+        int index = pathIndexes[level] + 1;
+        if (node.size < capacity) {
+            node.insert(index, key, child);
+            return;
+        }
+        Inner<T> right = new Inner<>(capacity);
+        int mid = capacity / 2;
+        T separator = node.keys[mid];
+        right.size = capacity - mid;
+        System.arraycopy(node.keys, mid, right.keys, 0, right.size);
+        System.arraycopy(node.children, mid, right.children, 0, right.size);
+        right.keys[0] = null;
+        Arrays.fill(node.keys, mid, capacity, null);
+        Arrays.fill(node.children, mid, capacity, null);
+        node.size = mid;
+        if (index <= mid) {
+            node.insert(index, key, child);
+        } else {
+            right.insert(index - mid, key, child);
+        }
+        insertChild(level - 1, separator, right);
+    }
+
+    /**
+     * Remove a leaf which is deleted as a whole from the chain and from its parent, and inner nodes left without
+     * children from theirs. The only leaf of the tree is cleared instead.
+     */
+    private void removeLeaf(final Leaf<T> leaf) {
+        if (leafCount == 1) {
+            removeRange(leaf, 0, leaf.size);
+            return;
+        }
+        descend(leaf.starts[0]);
+        if (leaf.prev != null) {
+            leaf.prev.next = leaf.next;
+        } else {
+            firstLeaf = leaf.next;
+        }
+        if (leaf.next != null) {
+            leaf.next.prev = leaf.prev;
+        }
+        leafCount--;
+        for (int level = height - 1; level >= 0; level--) {
+            Inner<T> node = pathNodes[level];
+            node.remove(pathIndexes[level]);
+            if (node.size > 0) {
+                break;
+            }
+        }
+        while (height > 0 && ((Inner<?>) root).size == 1) {
+            root = ((Inner<?>) root).children[0];
+            height--;
+        }
+    }
+
+    private void removeRange(final Leaf<T> leaf, final int from, final int to) {
+        System.arraycopy(leaf.starts, to, leaf.starts, from, leaf.size - to);
+        System.arraycopy(leaf.ends, to, leaf.ends, from, leaf.size - to);
+        int newSize = leaf.size - (to - from);
+        Arrays.fill(leaf.starts, newSize, leaf.size, null);
+        Arrays.fill(leaf.ends, newSize, leaf.size, null);
+        leaf.size = newSize;
+    }
+
+    /**
+     * Rebuild the tree once deletions left it filled less than a quarter on average. As every rebuild follows at least
+     * as many deletions as it copies intervals, its cost is amortized constant per deletion.
+     */
+    private void compactIfSparse() {
+        if (leafCount > 1 && size < (long) leafCount * capacity / 4) {
+            T[] starts = newValues(size);
+            T[] ends = newValues(size);
+            int index = 0;
+            for (Leaf<T> leaf = firstLeaf; leaf != null; leaf = leaf.next) {
+                System.arraycopy(leaf.starts, 0, starts, index, leaf.size);
+                System.arraycopy(leaf.ends, 0, ends, index, leaf.size);
+                index += leaf.size;
+            }
+            bulkLoad(starts, ends, index);
+        }
+    }
+
+    private void bulkLoad(final T[] starts, final T[] ends, final int count) {
+        reset();
+        if (count == 0) {
+            return;
+        }
+        int nodeCount = (count + bulkLoadFill - 1) / bulkLoadFill;
+        Node[] level = new Node[nodeCount];
+        T[] lowKeys = newValues(nodeCount);
+        Leaf<T> prev = null;
+        for (int node = 0, offset = 0; offset < count; node++, offset += bulkLoadFill) {
+            Leaf<T> leaf = new Leaf<>(capacity);
+            leaf.size = Math.min(bulkLoadFill, count - offset);
+            System.arraycopy(starts, offset, leaf.starts, 0, leaf.size);
+            System.arraycopy(ends, offset, leaf.ends, 0, leaf.size);
+            leaf.prev = prev;
+            if (prev != null) {
+                prev.next = leaf;
+            } else {
+                firstLeaf = leaf;
+            }
+            prev = leaf;
+            level[node] = leaf;
+            lowKeys[node] = starts[offset];
+        }
+        leafCount = nodeCount;
+        size = count;
+        while (nodeCount > 1) {
+            int parentCount = (nodeCount + bulkLoadFill - 1) / bulkLoadFill;
+            for (int parent = 0, offset = 0; offset < nodeCount; parent++, offset += bulkLoadFill) {
+                Inner<T> inner = new Inner<>(capacity);
+                inner.size = Math.min(bulkLoadFill, nodeCount - offset);
+                System.arraycopy(level, offset, inner.children, 0, inner.size);
+                System.arraycopy(lowKeys, offset + 1, inner.keys, 1, inner.size - 1);
+                level[parent] = inner;
+                lowKeys[parent] = lowKeys[offset];
+            }
+            nodeCount = parentCount;
+            height++;
+        }
+        root = level[0];
+        ensurePathLength(height);
+    }
+
+    private void reset() {
+        Leaf<T> leaf = new Leaf<>(capacity);
+        root = leaf;
+        firstLeaf = leaf;
+        height = 0;
+        size = 0;
+        leafCount = 1;
+    }
+
+    private void ensurePathLength(final int length) {
+        if (pathNodes.length < length) {
+            pathNodes = Arrays.copyOf(pathNodes, Math.max(length, 2 * pathNodes.length));
+            pathIndexes = Arrays.copyOf(pathIndexes, pathNodes.length);
+        }
+    }
+
+    /**
+     * Index of the first value within [from, to) larger than the key, or to if there is none.
+     */
+    private static <T extends Comparable<T>> int upperBound(final T[] values, int from, int to, final T key) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (values[mid].compareTo(key) > 0) {
+                to = mid;
+            } else {
+                from = mid + 1;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * Index of the first value within [0, to) not smaller than the key, or to if there is none.
+     */
+    private static <T extends Comparable<T>> int lowerBound(final T[] values, int to, final T key) {
+        int from = 0;
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (values[mid].compareTo(key) >= 0) {
+                to = mid;
+            } else {
+                from = mid + 1;
+            }
+        }
+        return from;
+    }
+
+    private static <T extends Comparable<T>> T max(final T value, final T other) {
+        return value.compareTo(other) >= 0 ? value : other;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T extends Comparable<T>> T[] newValues(final int length) {
+        return (T[]) new Comparable[length];
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T extends Comparable<T>> Inner<T>[] newPath(final int length) {
+        return (Inner<T>[]) new Inner[length];
+    }
+
+    private abstract static class Node {
+
+        int size;
+
+    }
+
+    private static final class Leaf<T extends Comparable<T>> extends Node {
+
+        private final T[] starts;
+        private final T[] ends;
+        private Leaf<T> prev;
+        private Leaf<T> next;
+
+        private Leaf(int capacity) {
+            this.starts = newValues(capacity);
+            this.ends = newValues(capacity);
+        }
+
+        private void insert(int position, T start, T end) {
+            System.arraycopy(starts, position, starts, position + 1, size - position);
+            System.arraycopy(ends, position, ends, position + 1, size - position);
+            starts[position] = start;
+            ends[position] = end;
+            size++;
+        }
+
+    }
+
+    private static final class Inner<T extends Comparable<T>> extends Node {
+
+        private final T[] keys;
+        private final Node[] children;
+
+        private Inner(int capacity) {
+            this.keys = newValues(capacity);
+            this.children = new Node[capacity];
+        }
+
+        private int childIndex(T value) {
+            return upperBound(keys, 1, size, value) - 1;
+        }
+
+        private void insert(int index, T key, Node child) {
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(children, index, children, index + 1, size - index);
+            keys[index] = key;
+            children[index] = child;
+            size++;
+        }
+
+        private void remove(int index) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(children, index + 1, children, index, size - index - 1);
+            size--;
+            keys[0] = null;
+            keys[size] = null;
+            children[size] = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,332 @@
+package interval.inplace;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+public final class ConcurrentIntervalTree<T extends Comparable<T>> {
+
+    /**
+     * Keys at which the key space is split into shards. Shard i covers the keys from boundary i - 1 to boundary i,
+     * both including, the first and the last shard are unbounded below and above respectively.
+     */
+    private final List<T> boundaries;
+
+    /**
+     * The disjunctive intervals of each shard are kept in an immutable treap, a binary search tree ordered by start
+     * which is balanced in expectation by random heap priorities. Inserting copies only the O(log(n)) nodes on the
+     * paths it changes and leaves all other nodes shared with the previous version. A new version is published by a
+     * compare-and-set of the root of the shard, which is retried on a concurrent update of the same shard. Thus
+     * insertions are lock-free, insertions into different shards don't contend, and every version is a consistent,
+     * immutable snapshot which readers can traverse without blocking any writer.
+     */
+    private final AtomicReferenceArray<Node<T>> roots;
+
+    /**
+     * An interval crossing a boundary is clipped to every shard it covers, and the pieces are joined again on reading.
+     * Insertions of such intervals share the read lock while publishing their pieces, so that they don't exclude each
+     * other. Readers take the write lock only to grab the roots of all shards, so that they see either all pieces of
+     * an interval or none. Insertions into a single shard never touch the lock.
+     */
+    private final ReadWriteLock spanningInserts = new ReentrantReadWriteLock();
+
+    /**
+     * Create a tree keeping all intervals in a single shard.
+     */
+    public ConcurrentIntervalTree() {
+        this(List.of());
+    }
+
+    /**
+     * Create a tree which splits the key space into shards at the given boundaries. Insertions into different shards
+     * don't contend, so that boundaries splitting the expected keys into evenly used ranges let insertions from many
+     * threads scale.
+     * @param boundaries Strictly ascending keys to split at, resulting in boundaries.size() + 1 shards
+     * @throws IllegalArgumentException When the boundaries are not strictly ascending
+     */
+    public ConcurrentIntervalTree(final List<T> boundaries) {
+        for (int i = 1; i < boundaries.size(); i++) {
+            if (boundaries.get(i - 1).compareTo(boundaries.get(i)) >= 0) {
+                throw new IllegalArgumentException("Boundaries must be strictly ascending: " + boundaries);
+            }
+        }
+        this.boundaries = List.copyOf(boundaries);
+        this.roots = new AtomicReferenceArray<>(boundaries.size() + 1);
+    }
+
+    /**
+     * Insert single interval into the tree. This method ensures that at the end no overlapping intervals exist by
+     * merging those that overlap during insertion. Safe to call from many threads concurrently.
+     * @param start Start of interval (including)
+     * @param end End of interval (including)
+     * @throws IllegalArgumentException When start > end
+     */
+    public void insert(final T start, final T end) {
+        final Interval<T> interval = new Interval<>(start, end);
+        final int first = countBoundaries(start, true);
+        final int last = Math.max(first, countBoundaries(end, false));
+        if (first == last) {
+            insert(first, interval);
+            return;
+        }
+        final Lock lock = spanningInserts.readLock();
+        lock.lock();
+        try {
+            for (int shard = first; shard <= last; shard++) {
+                insert(shard, new Interval<>(shard == first ? start : boundaries.get(shard - 1),
+                        shard == last ? end : boundaries.get(shard)));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get a consistent snapshot of the disjunctive intervals, reflecting all insertions completed before this call.
+     * Every insertion is reflected either completely or not at all. Never blocks insertions into a single shard.
+     * @return List of disjunctive intervals, ordered by their start point.
+     */
+    public List<List<T>> getIntervals() {
+        final List<Node<T>> snapshot = snapshot();
+        final List<List<T>> intervals = new ArrayList<>(snapshot.stream().mapToInt(ConcurrentIntervalTree::size).sum());
+        forEachJoined(snapshot, interval -> intervals.add(interval.asList()));
+        return intervals;
+    }
+
+    /**
+     * Number of disjunctive intervals in the current version of the tree.
+     * @return Number of intervals
+     */
+    public int size() {
+        final List<Node<T>> snapshot = snapshot();
+        int size = 0;
+        T previousEnd = null;
+        for (final Node<T> root : snapshot) {
+            if (root == null) {
+                continue;
+            }
+            size += root.size;
+            if (previousEnd != null && previousEnd.compareTo(leftmost(root).interval.getStart()) >= 0) {
+                size--;
+            }
+            previousEnd = rightmost(root).interval.getEnd();
+        }
+        return size;
+    }
+
+    /**
+     * Number of boundaries before key, counting a boundary equal to key if inclusive.
+     */
+    private int countBoundaries(final T key, final boolean inclusive) {
+        int low = 0;
+        int high = boundaries.size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            final int comparison = boundaries.get(middle).compareTo(key);
+            if (comparison < 0 || inclusive && comparison == 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void insert(final int shard, final Interval<T> interval) {
+        while (true) {
+            final Node<T> current = roots.get(shard);
+            final Node<T> updated = insert(current, interval);
+            if (updated == current || roots.compareAndSet(shard, current, updated)) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private List<Node<T>> snapshot() {
+        final List<Node<T>> snapshot = new ArrayList<>(roots.length());
+        if (roots.length() == 1) {
+            snapshot.add(roots.get(0));
+            return snapshot;
+        }
+        final Lock lock = spanningInserts.writeLock();
+        lock.lock();
+        try {
+            for (int shard = 0; shard < roots.length(); shard++) {
+                snapshot.add(roots.get(shard));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Hand the intervals of all shards to the consumer in order, joining the pieces meeting at a boundary.
+     */
+    private static <T extends Comparable<T>> void forEachJoined(final List<Node<T>> snapshot,
+                                                                final Consumer<Interval<T>> consumer) {
+        final Deque<Node<T>> path = new ArrayDeque<>();
+        Interval<T> pending = null;
+        for (final Node<T> root : snapshot) {
+            Node<T> node = root;
+            while (node != null || !path.isEmpty()) {
+                while (node != null) {
+                    path.push(node);
+                    node = node.left;
+                }
+                node = path.pop();
+                if (pending == null) {
+                    pending = node.interval;
+                } else if (pending.getEnd().compareTo(node.interval.getStart()) >= 0) {
+                    pending = Interval.merge(pending, node.interval);
+                } else {
+                    consumer.accept(pending);
+                    pending = node.interval;
+                }
+                node = node.right;
+            }
+        }
+        if (pending != null) {
+            consumer.accept(pending);
+        }
+    }
+
+    private static <T extends Comparable<T>> Node<T> insert(final Node<T> root, final Interval<T> interval) {
+        if (isCovered(root, interval)) {
+            return root;
+        }
+        final Split<T> before = splitBefore(root, interval.getStart());
+        final Split<T> overlapping = splitOverlapping(before.right, interval.getEnd());
+        Interval<T> merged = interval;
+        if (overlapping.left != null) {
+            merged = Interval.merge(merged, leftmost(overlapping.left).interval);
+            merged = Interval.merge(merged, rightmost(overlapping.left).interval);
+        }
+        final Node<T> node = new Node<>(merged, ThreadLocalRandom.current().nextInt(), null, null);
+        return join(before.left, join(node, overlapping.right));
+    }
+
+    private static <T extends Comparable<T>> boolean isCovered(Node<T> node, final Interval<T> interval) {
+        while (node != null) {
+            if (node.interval.getEnd().compareTo(interval.getStart()) < 0) {
+                node = node.right;
+            } else if (node.interval.getStart().compareTo(interval.getStart()) > 0) {
+                node = node.left;
+            } else {
+                return node.interval.getEnd().compareTo(interval.getEnd()) >= 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Split into the intervals ending before start and all others.
+     */
+    private static <T extends Comparable<T>> Split<T> splitBefore(final Node<T> node, final T start) {
+        if (node == null) {
+            return new Split<>(null, null);
+        }
+        if (node.interval.getEnd().compareTo(start) < 0) {
+            final Split<T> split = splitBefore(node.right, start);
+            return new Split<>(node.withChildren(node.left, split.left), split.right);
+        }
+        final Split<T> split = splitBefore(node.left, start);
+        return new Split<>(split.left, node.withChildren(split.right, node.right));
+    }
+
+    /**
+     * Split intervals not ending before the inserted one into the intervals starting until end, i.e. overlapping the
+     * inserted interval, and the intervals starting after end.
+     */
+    private static <T extends Comparable<T>> Split<T> splitOverlapping(final Node<T> node, final T end) {
+        if (node == null) {
+            return new Split<>(null, null);
+        }
+        if (node.interval.getStart().compareTo(end) <= 0) {
+            final Split<T> split = splitOverlapping(node.right, end);
+            return new Split<>(node.withChildren(node.left, split.left), split.right);
+        }
+        final Split<T> split = splitOverlapping(node.left, end);
+        return new Split<>(split.left, node.withChildren(split.right, node.right));
+    }
+
+    /**
+     * Join two treaps where all intervals of left start before all intervals of right.
+     */
+    private static <T extends Comparable<T>> Node<T> join(final Node<T> left, final Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            return left.withChildren(left.left, join(left.right, right));
+        }
+        return right.withChildren(join(left, right.left), right.right);
+    }
+
+    private static <T extends Comparable<T>> Node<T> leftmost(Node<T> node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private static <T extends Comparable<T>> Node<T> rightmost(Node<T> node) {
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node;
+    }
+
+    private static int size(final Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<T extends Comparable<T>> {
+
+        private final Interval<T> interval;
+        private final int priority;
+        private final Node<T> left;
+        private final Node<T> right;
+        private final int size;
+
+        private Node(Interval<T> interval, int priority, Node<T> left, Node<T> right) {
+            this.interval = interval;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = 1 + size(left) + size(right);
+        }
+
+        private Node<T> withChildren(Node<T> left, Node<T> right) {
+            if (left == this.left && right == this.right) {
+                return this;
+            }
+            return new Node<>(interval, priority, left, right);
+        }
+
+    }
+
+    private static final class Split<T extends Comparable<T>> {
+
+        private final Node<T> left;
+        private final Node<T> right;
+
+        private Split(Node<T> left, Node<T> right) {
+            this.left = left;
+            this.right = right;
+        }
+
+    }
+
+}
@@ -0,0 +1,78 @@
+package interval.inplace;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Neighbours of values in an ordered domain. Required to express differences and complements of closed intervals as
+ * closed intervals again, e.g. [1, 10] without [4, 6] is [1, 3] and [7, 10] for longs.
+ * @param <T> Type of values
+ */
+public interface DiscreteDomain<T extends Comparable<T>> {
+
+    /**
+     * Largest value smaller than the given one. Only called for values which have a predecessor.
+     * @param value Value to get the predecessor of
+     * @return Predecessor of value
+     */
+    T previous(T value);
+
+    /**
+     * Smallest value larger than the given one. Only called for values which have a successor.
+     * @param value Value to get the successor of
+     * @return Successor of value
+     */
+    T next(T value);
+
+    /**
+     * Domain defined by the given functions.
+     * @param previous Function returning the predecessor of a value
+     * @param next Function returning the successor of a value
+     * @param <T> Type of values
+     * @return Domain using the functions
+     */
+    static <T extends Comparable<T>> DiscreteDomain<T> of(UnaryOperator<T> previous, UnaryOperator<T> next) {
+        return new DiscreteDomain<>() {
+            @Override
+            public T previous(T value) {
+                return previous.apply(value);
+            }
+
+            @Override
+            public T next(T value) {
+                return next.apply(value);
+            }
+        };
+    }
+
+    static DiscreteDomain<Long> longs() {
+        return of(value -> value - 1, value -> value + 1);
+    }
+
+    static DiscreteDomain<Integer> integers() {
+        return of(value -> value - 1, value -> value + 1);
+    }
+
+    static DiscreteDomain<BigInteger> bigIntegers() {
+        return of(value -> value.subtract(BigInteger.ONE), value -> value.add(BigInteger.ONE));
+    }
+
+    /**
+     * Doubles with their adjacent representable values as neighbours.
+     * @return Domain of doubles
+     */
+    static DiscreteDomain<Double> doubles() {
+        return of(Math::nextDown, Math::nextUp);
+    }
+
+    /**
+     * Decimals with a fixed resolution, e.g. 0.01 for values given in cents.
+     * @param resolution Distance between neighbouring values
+     * @return Domain of decimals
+     */
+    static DiscreteDomain<BigDecimal> bigDecimals(BigDecimal resolution) {
+        return of(value -> value.subtract(resolution), value -> value.add(resolution));
+    }
+
+}
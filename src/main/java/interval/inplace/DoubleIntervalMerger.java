@@ -0,0 +1,109 @@
+package interval.inplace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class DoubleIntervalMerger extends PrimitiveIntervalMerger {
+
+    private double[] starts;
+    private double[] ends;
+
+    /**
+     * Service to merge intervals of primitive doubles without boxing. Merge semantics are the same as for
+     * {@link IntervalMerger}.
+     */
+    public DoubleIntervalMerger() {
+        starts = new double[INITIAL_CAPACITY];
+        ends = new double[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Method to merge an unsorted list of intervals and return them merged in ascending order by start of interval.
+     * @param intervals Unordered list of intervals
+     * @return Sorted list of merged intervals (ascending by start of interval)
+     */
+    public List<List<Double>> merge(List<List<Double>> intervals) {
+        intervals.forEach(interval -> insert(interval.get(0), interval.get(1)));
+        return getMergedIntervals();
+    }
+
+    /**
+     * Method to merge a single interval into the intervals merged so far.
+     * @param start Start of interval (including)
+     * @param end End of interval (including)
+     * @throws IllegalArgumentException When start > end or either of them is NaN
+     */
+    public void insert(double start, double end) {
+        if (!(start <= end)) {
+            throw new IllegalArgumentException("Start of interval cannot be larger than end of interval");
+        }
+        int index = append();
+        starts[index] = start;
+        ends[index] = end;
+    }
+
+    /**
+     * Start of the merged interval at the given position in ascending order.
+     * @param index Position of merged interval, 0 <= index < size()
+     * @return Start of interval (including)
+     */
+    public double getStart(int index) {
+        checkIndex(index);
+        return starts[index];
+    }
+
+    /**
+     * End of the merged interval at the given position in ascending order.
+     * @param index Position of merged interval, 0 <= index < size()
+     * @return End of interval (including)
+     */
+    public double getEnd(int index) {
+        checkIndex(index);
+        return ends[index];
+    }
+
+    /**
+     * Method to return all intervals merged so far.
+     * @return Sorted list of merged intervals (ascending by start of interval)
+     */
+    public List<List<Double>> getMergedIntervals() {
+        int size = size();
+        List<List<Double>> intervals = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            intervals.add(List.of(starts[i], ends[i]));
+        }
+        return intervals;
+    }
+
+    @Override
+    int capacity() {
+        return starts.length;
+    }
+
+    @Override
+    void grow(int capacity) {
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+    }
+
+    @Override
+    int sortAndSweep(int size) {
+        Arrays.sort(starts, 0, size);
+        Arrays.sort(ends, 0, size);
+        int disjunct = 0;
+        double start = starts[0];
+        for (int i = 1; i < size; i++) {
+            if (starts[i] > ends[i - 1]) {
+                starts[disjunct] = start;
+                ends[disjunct] = ends[i - 1];
+                disjunct++;
+                start = starts[i];
+            }
+        }
+        starts[disjunct] = start;
+        ends[disjunct] = ends[size - 1];
+        return disjunct + 1;
+    }
+
+}
@@ -0,0 +1,282 @@
+package interval.inplace;
+
+import interval.binary.BinaryIntervalReader;
+import interval.binary.BinaryIntervalWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+public final class ExternalIntervalMerger<T extends Comparable<T>> implements Closeable {
+
+    /**
+     * Largest number of runs merged at once. With more runs, groups of runs are merged into larger runs first, so that
+     * the number of open files stays bounded.
+     */
+    static final int MAX_RUNS_PER_MERGE = 64;
+
+    private static final String RUN_PREFIX = "intervals-";
+    private static final String RUN_SUFFIX = ".run";
+
+    private final IntervalTree<T> intervalTree;
+    private final int maxIntervalsInMemory;
+    private final Path temporaryDirectory;
+    private final Class<T> valueClass;
+    private final List<Path> runs = new ArrayList<>();
+
+    ExternalIntervalMerger(IntervalTree<T> intervalTree, int maxIntervalsInMemory, Path temporaryDirectory, Class<T> valueClass) {
+        if (maxIntervalsInMemory < 1) {
+            throw new IllegalArgumentException("At least one interval needs to fit into memory");
+        }
+        if (!BinaryIntervalWriter.supports(valueClass)) {
+            throw new IllegalArgumentException("Runs cannot hold values of " + valueClass.getName());
+        }
+        this.intervalTree = intervalTree;
+        this.maxIntervalsInMemory = maxIntervalsInMemory;
+        this.temporaryDirectory = temporaryDirectory;
+        this.valueClass = valueClass;
+    }
+
+    /**
+     * Service to merge more disjunctive intervals than fit into memory. As soon as the number of disjunctive intervals
+     * held in memory reaches the budget, they are written to a temporary file as a sorted and merged run and memory
+     * is cleared. The result is produced by a streaming k-way merge of all runs. Runs are written in the binary
+     * interval format, so that values are read back exactly as they were written.
+     * @param maxIntervalsInMemory Budget of disjunctive intervals held in memory at once
+     * @param temporaryDirectory Directory to write runs into
+     * @param valueClass Type of values, one of Long, Integer, Double, BigInteger and BigDecimal
+     * @throws IllegalArgumentException When the budget is smaller than 1 or values of the type are not supported
+     */
+    public ExternalIntervalMerger(int maxIntervalsInMemory, Path temporaryDirectory, Class<T> valueClass) {
+        this(new IntervalTree<>(), maxIntervalsInMemory, temporaryDirectory, valueClass);
+    }
+
+    /**
+     * Method to merge a single interval into the intervals merged so far, writing a run when the memory budget is
+     * reached.
+     * @param start Start of interval (including)
+     * @param end End of interval (including)
+     * @throws IllegalArgumentException When start > end
+     * @throws UncheckedIOException When writing a run fails
+     */
+    public void insert(T start, T end) {
+        intervalTree.insert(start, end);
+        if (intervalTree.size() >= maxIntervalsInMemory) {
+            try {
+                runs.add(writeRun(intervalTree.iterator()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            intervalTree.clear();
+        }
+    }
+
+    /**
+     * Merge all intervals inserted so far and hand them to the consumer in ascending order by start. Only one block of
+     * intervals per run is held in memory while merging.
+     * @param consumer Receiver of start and end of each merged interval
+     * @throws IOException When reading or writing runs fails
+     */
+    public void mergeTo(BiConsumer<T, T> consumer) throws IOException {
+        while (runs.size() > MAX_RUNS_PER_MERGE) {
+            List<Path> group = new ArrayList<>(runs.subList(0, MAX_RUNS_PER_MERGE));
+            runs.add(mergeRuns(group));
+            runs.removeAll(group);
+            deleteAll(group);
+        }
+        List<RunReader> readers = openAll(runs);
+        try {
+            List<Iterator<Interval<T>>> sequences = new ArrayList<>(readers);
+            sequences.add(intervalTree.iterator());
+            SortedIntervals.coalesce(SortedIntervals.mergeByStart(sequences),
+                    interval -> consumer.accept(interval.getStart(), interval.getEnd()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            closeAll(readers);
+        }
+    }
+
+    /**
+     * Number of runs written to disk so far.
+     * @return Number of runs
+     */
+    int getRunCount() {
+        return runs.size();
+    }
+
+    /**
+     * Delete all runs written so far.
+     * @throws IOException When deleting a run fails
+     */
+    @Override
+    public void close() throws IOException {
+        deleteAll(runs);
+        runs.clear();
+    }
+
+    private Path mergeRuns(List<Path> group) throws IOException {
+        Path run = Files.createTempFile(temporaryDirectory, RUN_PREFIX, RUN_SUFFIX);
+        try {
+            List<RunReader> readers = openAll(group);
+            try (RunWriter writer = new RunWriter(run)) {
+                List<Iterator<Interval<T>>> sequences = new ArrayList<>(readers);
+                SortedIntervals.coalesce(SortedIntervals.mergeByStart(sequences), writer::write);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                closeAll(readers);
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteAfterFailure(run, e);
+            throw e;
+        }
+        return run;
+    }
+
+    private Path writeRun(Iterator<Interval<T>> sortedDisjunct) throws IOException {
+        Path run = Files.createTempFile(temporaryDirectory, RUN_PREFIX, RUN_SUFFIX);
+        try (RunWriter writer = new RunWriter(run)) {
+            sortedDisjunct.forEachRemaining(writer::write);
+        } catch (UncheckedIOException e) {
+            deleteAfterFailure(run, e);
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            deleteAfterFailure(run, e);
+            throw e;
+        }
+        return run;
+    }
+
+    /**
+     * Delete a run which couldn't be written completely, so that it doesn't remain in the temporary directory.
+     * Failing to delete it is recorded on the failure of writing it, which is the one to report.
+     */
+    private static void deleteAfterFailure(Path run, Exception failure) {
+        try {
+            Files.deleteIfExists(run);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private List<RunReader> openAll(List<Path> paths) throws IOException {
+        List<RunReader> readers = new ArrayList<>(paths.size());
+        try {
+            for (Path path : paths) {
+                readers.add(new RunReader(path));
+            }
+        } catch (IOException e) {
+            closeAll(readers);
+            throw e;
+        }
+        return readers;
+    }
+
+    private void closeAll(List<RunReader> readers) throws IOException {
+        IOException failure = null;
+        for (RunReader reader : readers) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static void deleteAll(List<Path> paths) throws IOException {
+        for (Path path : paths) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Sequence of the intervals of a run, decoded block by block.
+     */
+    private final class RunReader implements Iterator<Interval<T>>, Closeable {
+
+        private final BinaryIntervalReader<T> reader;
+        private final Deque<Interval<T>> block = new ArrayDeque<>();
+        private boolean endOfRun;
+
+        private RunReader(Path run) throws IOException {
+            FileChannel channel = FileChannel.open(run, StandardOpenOption.READ);
+            try {
+                this.reader = new BinaryIntervalReader<>(channel, valueClass);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (block.isEmpty() && !endOfRun) {
+                try {
+                    endOfRun = reader.readBlock((start, end) -> block.add(new Interval<>(start, end))) < 0;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return !block.isEmpty();
+        }
+
+        @Override
+        public Interval<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return block.poll();
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+
+    }
+
+    private final class RunWriter implements Closeable {
+
+        private final BinaryIntervalWriter<T> writer;
+
+        private RunWriter(Path run) throws IOException {
+            FileChannel channel = FileChannel.open(run, StandardOpenOption.WRITE);
+            try {
+                this.writer = new BinaryIntervalWriter<>(channel, valueClass);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        private void write(Interval<T> interval) {
+            try {
+                writer.write(interval.getStart(), interval.getEnd());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+    }
+
+}
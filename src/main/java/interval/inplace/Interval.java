@@ -23,6 +23,14 @@ final class Interval<T extends Comparable<T>> implements Comparable<Interval<T>>
     }
 
 
+    T getStart() {
+        return start;
+    }
+
+    T getEnd() {
+        return end;
+    }
+
     /**
      * Return interval in list representation.
      * @return Returns List.of(start, end)
@@ -60,6 +68,18 @@ final class Interval<T extends Comparable<T>> implements Comparable<Interval<T>>
         }
     }
 
+    /**
+     * Total order of intervals by their start only, unlike {@link #compareTo(Interval)} also well-behaved for
+     * overlapping intervals and thus usable for sorting.
+     * @param interval Interval to compare
+     * @param other Other interval to compare to
+     * @param <T> Type for intervals
+     * @return Comparison of interval.start with other.start
+     */
+    static <T extends Comparable<T>> int compareByStart(Interval<T> interval, Interval<T> other) {
+        return interval.start.compareTo(other.start);
+    }
+
     /**
      * Method to compare intervals during merging for an intersection.
      * For disjunctive intervals this returns the natural order based on the start of the intervals.
@@ -0,0 +1,64 @@
+package interval.inplace;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Difference between the merged intervals before and after a batch, as returned by
+ * {@link IntervalMerger#mergeDelta(List)}. Applying it to the merged intervals before the batch, removing the removed
+ * and adding the added intervals, gives the merged intervals after the batch.
+ * @param <T> Type of values
+ */
+public final class IntervalDelta<T extends Comparable<T>> {
+
+    private final List<List<T>> added;
+    private final List<List<T>> removed;
+
+    IntervalDelta(List<List<T>> added, List<List<T>> removed) {
+        this.added = List.copyOf(added);
+        this.removed = List.copyOf(removed);
+    }
+
+    /**
+     * Merged intervals which did not exist before the batch.
+     * @return Added intervals, sorted ascending by start
+     */
+    public List<List<T>> getAdded() {
+        return added;
+    }
+
+    /**
+     * Merged intervals which existed before the batch but were merged into others.
+     * @return Removed intervals, sorted ascending by start
+     */
+    public List<List<T>> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Whether the batch left the merged intervals unchanged.
+     * @return True when no interval was added or removed
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IntervalDelta<?> that = (IntervalDelta<?>) o;
+        return added.equals(that.added) && removed.equals(that.removed);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(added, removed);
+    }
+
+    @Override
+    public String toString() {
+        return "+" + added + " -" + removed;
+    }
+
+}
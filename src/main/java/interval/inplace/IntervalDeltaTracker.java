@@ -0,0 +1,54 @@
+package interval.inplace;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collector of the changes made to the merged intervals of a tree while they are tracked. A change undone by a later
+ * one cancels out: an interval added and removed again is forgotten, just like one removed and added again. What is
+ * left are the intervals that were merged before and are no more, and those that were not merged before and are now.
+ * @param <T> Type of values
+ */
+final class IntervalDeltaTracker<T extends Comparable<T>> implements IntervalStore.Changes<T> {
+
+    private final Set<Interval<T>> added = new HashSet<>();
+    private final Set<Interval<T>> removed = new HashSet<>();
+
+    @Override
+    public void removed(T start, T end) {
+        Interval<T> interval = new Interval<>(start, end);
+        if (!added.remove(interval)) {
+            removed.add(interval);
+        }
+    }
+
+    @Override
+    public void added(T start, T end) {
+        Interval<T> interval = new Interval<>(start, end);
+        if (!removed.remove(interval)) {
+            added.add(interval);
+        }
+    }
+
+    /**
+     * Return the changes tracked so far.
+     * @return Merged intervals removed and added, each sorted ascending by start
+     */
+    IntervalDelta<T> toDelta() {
+        return new IntervalDelta<>(sorted(added), sorted(removed));
+    }
+
+    private static <T extends Comparable<T>> List<List<T>> sorted(Collection<Interval<T>> intervals) {
+        List<Interval<T>> sorted = new ArrayList<>(intervals);
+        sorted.sort(Interval::compareByStart);
+        List<List<T>> lists = new ArrayList<>(sorted.size());
+        for (Interval<T> interval : sorted) {
+            lists.add(interval.asList());
+        }
+        return lists;
+    }
+
+}
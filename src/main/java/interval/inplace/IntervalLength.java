@@ -0,0 +1,97 @@
+package interval.inplace;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Length of intervals of numeric values, the distance between start and end, so that a single point has length 0.
+ * Trees maintaining the covered length sum up the exact lengths, so that the covered length is rounded only once when
+ * read instead of drifting with every insertion and removal.
+ * @param <T> Type of values
+ */
+@FunctionalInterface
+public interface IntervalLength<T extends Comparable<T>> {
+
+    /**
+     * Length of the interval [start, end].
+     * @param start Start of interval (including)
+     * @param end End of interval (including), not smaller than start
+     * @return Non-negative length of the interval
+     */
+    double of(T start, T end);
+
+    /**
+     * Exact length of the interval [start, end], as summed up by trees maintaining the covered length. Defaults to the
+     * exact value of {@link #of(Comparable, Comparable)}.
+     * @param start Start of interval (including)
+     * @param end End of interval (including), not smaller than start
+     * @return Non-negative length of the interval, or null if it is infinite
+     */
+    default BigDecimal exactOf(T start, T end) {
+        double length = of(start, end);
+        return Double.isFinite(length) ? new BigDecimal(length) : null;
+    }
+
+    /**
+     * Longs, whose distance may exceed the range of a long and is then computed in doubles.
+     * @return Length of long intervals
+     */
+    static IntervalLength<Long> longs() {
+        return withExact((start, end) -> {
+            long length = end - start;
+            return length >= 0 ? length : (double) end - (double) start;
+        }, (start, end) -> {
+            long length = end - start;
+            return length >= 0
+                    ? BigDecimal.valueOf(length)
+                    : BigDecimal.valueOf(end).subtract(BigDecimal.valueOf(start));
+        });
+    }
+
+    static IntervalLength<Integer> integers() {
+        return withExact((start, end) -> (double) ((long) end - start),
+                (start, end) -> BigDecimal.valueOf((long) end - start));
+    }
+
+    /**
+     * Doubles, whose exact length is the difference of the exact values of start and end, infinite if either is.
+     * @return Length of double intervals
+     */
+    static IntervalLength<Double> doubles() {
+        return withExact((start, end) -> end - start, (start, end) -> {
+            if (start.equals(end)) {
+                return BigDecimal.ZERO;
+            }
+            if (Double.isInfinite(start) || Double.isInfinite(end)) {
+                return null;
+            }
+            return new BigDecimal(end).subtract(new BigDecimal(start));
+        });
+    }
+
+    static IntervalLength<BigInteger> bigIntegers() {
+        return withExact((start, end) -> end.subtract(start).doubleValue(),
+                (start, end) -> new BigDecimal(end.subtract(start)));
+    }
+
+    static IntervalLength<BigDecimal> bigDecimals() {
+        return withExact((start, end) -> end.subtract(start).doubleValue(), (start, end) -> end.subtract(start));
+    }
+
+    private static <T extends Comparable<T>> IntervalLength<T> withExact(IntervalLength<T> length,
+                                                                        BiFunction<T, T, BigDecimal> exactLength) {
+        return new IntervalLength<>() {
+            @Override
+            public double of(T start, T end) {
+                return length.of(start, end);
+            }
+
+            @Override
+            public BigDecimal exactOf(T start, T end) {
+                return exactLength.apply(start, end);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,303 @@
+package interval.inplace;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+public final class IntervalMergeProcessor<T extends Comparable<T>> implements Flow.Processor<List<T>, List<T>> {
+
+    /**
+     * Default number of intervals requested from the publisher ahead of being merged.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = Flow.defaultBufferSize();
+
+    /**
+     * Signals only record what they carry in the fields below and call {@link #drain()}. Whichever thread raises the
+     * work in progress from 0 runs the drain loop, which alone merges, publishes and requests, and loops once more for
+     * every signal arriving meanwhile. Thus no lock is held while calling the subscriber or the publisher, and a
+     * signal from within such a call only adds to what the running loop handles next, instead of recursing.
+     */
+    private final AtomicInteger workInProgress = new AtomicInteger();
+    private final Queue<Interval<T>> received = new ConcurrentLinkedQueue<>();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+    private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private volatile Flow.Subscriber<? super List<T>> downstream;
+    private volatile boolean upstreamTerminated;
+    private volatile boolean completed;
+    private volatile boolean cancelled;
+    private volatile boolean terminated;
+
+    /**
+     * State of the drain loop, only accessed by the thread running it.
+     */
+    private final int bufferSize;
+    private final IntervalTree<T> intervalTree;
+    private final StreamingIntervalMerger<T> streamingMerger;
+    private final Deque<List<T>> ready = new ArrayDeque<>();
+    private Iterator<Interval<T>> remaining;
+    private long demand;
+    private long outstanding;
+    private boolean upstreamCancelled;
+
+    /**
+     * Processor merging the intervals of a publisher, each in the form [start, end], and publishing the merged
+     * intervals in ascending order once the publisher completes. At most bufferSize intervals are requested ahead of
+     * being merged, so only the disjunctive intervals are held in memory no matter how fast the publisher is. The
+     * merged intervals are published as demanded, straight from the tree.
+     * Signals to the subscriber are delivered on the thread of the publisher or of the subscriber requesting more.
+     * @param bufferSize Number of intervals requested ahead of being merged
+     * @throws IllegalArgumentException When bufferSize is not positive
+     */
+    public IntervalMergeProcessor(int bufferSize) {
+        this(bufferSize, null, false);
+    }
+
+    /**
+     * Processor merging the intervals of a publisher which is nearly sorted by start, with disorder bounded by a
+     * known amount, publishing each merged interval as soon as it is final, as {@link StreamingIntervalMerger} does.
+     * Final intervals the subscriber has not demanded yet are buffered, and no further intervals are requested from
+     * the publisher while bufferSize of them are waiting, so a slow subscriber slows down the publisher.
+     * @param bufferSize Number of intervals requested ahead of being merged and of final intervals buffered
+     * @param watermarkForStart Function returning the watermark for the largest start seen so far, e.g.
+     *                          {@code start -> start - maxDisorder}
+     * @throws IllegalArgumentException When bufferSize is not positive
+     */
+    public IntervalMergeProcessor(int bufferSize, UnaryOperator<T> watermarkForStart) {
+        this(bufferSize, Objects.requireNonNull(watermarkForStart), true);
+    }
+
+    private IntervalMergeProcessor(int bufferSize, UnaryOperator<T> watermarkForStart, boolean incremental) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size needs to be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.intervalTree = new IntervalTree<>();
+        this.streamingMerger = incremental
+                ? new StreamingIntervalMerger<>(intervalTree, (start, end) -> ready.addLast(List.of(start, end)),
+                        watermarkForStart)
+                : null;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<T>> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Processor supports only a single subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                requestDownstream(n);
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                drain();
+            }
+        });
+        downstream = subscriber;
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (!upstream.compareAndSet(null, subscription) || terminated || error.get() != null) {
+            subscription.cancel();
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(List<T> interval) {
+        if (isDone()) {
+            return;
+        }
+        try {
+            requireStartAndEnd(interval);
+            received.offer(new Interval<>(interval.get(0), interval.get(1)));
+        } catch (IllegalArgumentException e) {
+            error.compareAndSet(null, e);
+        }
+        drain();
+    }
+
+    /**
+     * Check the shape of a published interval, so that a malformed one fails the stream like start > end does,
+     * instead of throwing back into the publisher.
+     */
+    private static void requireStartAndEnd(List<?> interval) {
+        if (interval == null || interval.size() != 2 || interval.get(0) == null || interval.get(1) == null) {
+            throw new IllegalArgumentException("Interval needs to be a list of start and end, but was " + interval);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (isDone()) {
+            return;
+        }
+        upstreamTerminated = true;
+        error.compareAndSet(null, throwable);
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        if (isDone()) {
+            return;
+        }
+        upstreamTerminated = true;
+        completed = true;
+        drain();
+    }
+
+    private void requestDownstream(long n) {
+        if (n <= 0) {
+            error.compareAndSet(null,
+                    new IllegalArgumentException("Number of requested intervals needs to be positive but was " + n));
+        } else {
+            requested.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+        }
+        drain();
+    }
+
+    private boolean isDone() {
+        return terminated || upstreamTerminated || error.get() != null;
+    }
+
+    /**
+     * Run the drain loop unless another thread is running it already, which then loops once more instead. Once the
+     * subscriber got its terminal signal, the work in progress is never released again, so that no loop runs anymore.
+     */
+    private void drain() {
+        if (workInProgress.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            if (drainOnce()) {
+                return;
+            }
+            missed = workInProgress.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Merge the received intervals, hand buffered intervals to the subscriber as long as it demands them, followed by
+     * the terminal signal once everything is handed over, and request more intervals from the publisher.
+     * @return Whether the subscriber got its terminal signal or cancelled
+     */
+    private boolean drainOnce() {
+        if (cancelled) {
+            terminate();
+            return true;
+        }
+        boolean upstreamCompleted = completed;
+        Throwable failure = error.get();
+        Interval<T> interval;
+        while (failure == null && (interval = received.poll()) != null) {
+            outstanding--;
+            try {
+                if (streamingMerger == null) {
+                    intervalTree.insert(interval.getStart(), interval.getEnd());
+                } else {
+                    streamingMerger.insert(interval.getStart(), interval.getEnd());
+                }
+            } catch (IllegalArgumentException e) {
+                error.compareAndSet(null, e);
+                failure = error.get();
+            }
+        }
+        Flow.Subscriber<? super List<T>> subscriber = downstream;
+        if (failure != null) {
+            cancelUpstream();
+            received.clear();
+            ready.clear();
+            remaining = null;
+            if (subscriber == null) {
+                return false;
+            }
+            terminated = true;
+            subscriber.onError(failure);
+            return true;
+        }
+        if (upstreamCompleted && remaining == null) {
+            remaining = intervalTree.iterator();
+        }
+        if (subscriber == null) {
+            requestUpstream();
+            return false;
+        }
+        long added = requested.getAndSet(0);
+        demand = demand + added < 0 ? Long.MAX_VALUE : demand + added;
+        while (demand > 0 && !cancelled && error.get() == null
+                && (!ready.isEmpty() || remaining != null && remaining.hasNext())) {
+            demand--;
+            subscriber.onNext(ready.isEmpty() ? remaining.next().asList() : ready.pollFirst());
+        }
+        if (upstreamCompleted && ready.isEmpty() && !remaining.hasNext() && !cancelled && error.get() == null) {
+            terminated = true;
+            subscriber.onComplete();
+            return true;
+        }
+        requestUpstream();
+        return false;
+    }
+
+    private void terminate() {
+        terminated = true;
+        cancelUpstream();
+        received.clear();
+        ready.clear();
+        remaining = null;
+    }
+
+    private void cancelUpstream() {
+        Flow.Subscription subscription = upstream.get();
+        if (subscription != null && !upstreamTerminated && !upstreamCancelled) {
+            upstreamCancelled = true;
+            subscription.cancel();
+        }
+    }
+
+    /**
+     * Request as many intervals from the publisher as fit into the buffer besides those already requested and the
+     * final intervals waiting for the subscriber. Requests are made once half of the buffer is free, and a publisher
+     * delivering from within request only adds to what the drain loop merges next.
+     */
+    private void requestUpstream() {
+        Flow.Subscription subscription = upstream.get();
+        if (subscription == null || upstreamTerminated || upstreamCancelled) {
+            return;
+        }
+        long wanted = bufferSize - outstanding - ready.size();
+        if (wanted > 0 && (outstanding == 0 || wanted >= (bufferSize + 1) / 2)) {
+            outstanding += wanted;
+            subscription.request(wanted);
+        }
+    }
+
+}
@@ -1,22 +1,98 @@
 package interval.inplace;
 
+import interval.metrics.MergerMetrics;
+
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public final class IntervalMerger<T extends Comparable<T>> {
 
+    /**
+     * Smallest batch for which {@link MergeStrategy#AUTOMATIC} sorts and sweeps instead of inserting one by one. Below,
+     * the constant overhead of copying and sorting the batch outweighs its better complexity.
+     */
+    static final int SORT_AND_SWEEP_THRESHOLD = 1024;
+
+    /**
+     * Default smallest batch which is merged in parallel. Below, forking tasks and combining their results costs more
+     * than it saves.
+     */
+    public static final int DEFAULT_PARALLELISM_THRESHOLD = 1 << 16;
+
+    /**
+     * Number of chunks per worker thread a parallel merge is split into, allowing work stealing to even out chunks
+     * which take longer to merge than others.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
     private final IntervalTree<T> intervalTree;
+    private final MergeStrategy mergeStrategy;
+    private final int parallelismThreshold;
+    private final ForkJoinPool pool;
 
-    IntervalMerger(IntervalTree<T> intervalTree) {
+    IntervalMerger(IntervalTree<T> intervalTree, MergeStrategy mergeStrategy, int parallelismThreshold, ForkJoinPool pool) {
         this.intervalTree = intervalTree;
+        this.mergeStrategy = mergeStrategy;
+        this.parallelismThreshold = parallelismThreshold;
+        this.pool = pool;
     }
 
     /**
      * Service to merge a list of intervals and return them merged and in order.
      */
     public IntervalMerger() {
-        this(new IntervalTree<>());
+        this(MergeStrategy.AUTOMATIC);
+    }
+
+    /**
+     * Service to merge a list of intervals and return them merged and in order.
+     * @param mergeStrategy Strategy used for merging lists of intervals
+     */
+    public IntervalMerger(MergeStrategy mergeStrategy) {
+        this(mergeStrategy, DEFAULT_PARALLELISM_THRESHOLD);
+    }
+
+    /**
+     * Service to merge a list of intervals and return them merged and in order.
+     * @param mergeStrategy Strategy used for merging lists of intervals
+     * @param parallelismThreshold Smallest list of intervals which is merged in parallel by
+     *                             {@link MergeStrategy#PARALLEL} and {@link MergeStrategy#AUTOMATIC}
+     */
+    public IntervalMerger(MergeStrategy mergeStrategy, int parallelismThreshold) {
+        this(mergeStrategy, parallelismThreshold, MergerMetrics.disabled());
+    }
+
+    /**
+     * Service to merge a list of intervals and return them merged and in order, recording insertions, merges and the
+     * number of merged intervals. Intervals derived by set operations are not recorded.
+     * @param mergeStrategy Strategy used for merging lists of intervals
+     * @param parallelismThreshold Smallest list of intervals which is merged in parallel by
+     *                             {@link MergeStrategy#PARALLEL} and {@link MergeStrategy#AUTOMATIC}
+     * @param metrics Metrics to record into
+     */
+    public IntervalMerger(MergeStrategy mergeStrategy, int parallelismThreshold, MergerMetrics metrics) {
+        this(new IntervalTree<>(metrics), mergeStrategy, parallelismThreshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Service to merge a list of intervals and return them merged and in order, maintaining the total length covered
+     * by the merged intervals while merging, so that {@link #getCoveredLength()} does not visit them.
+     * @param mergeStrategy Strategy used for merging lists of intervals
+     * @param parallelismThreshold Smallest list of intervals which is merged in parallel by
+     *                             {@link MergeStrategy#PARALLEL} and {@link MergeStrategy#AUTOMATIC}
+     * @param metrics Metrics to record into
+     * @param length Length of intervals, e.g. {@link IntervalLength#longs()}
+     */
+    public IntervalMerger(MergeStrategy mergeStrategy, int parallelismThreshold, MergerMetrics metrics,
+                          IntervalLength<T> length) {
+        this(new IntervalTree<>(new BPlusTreeIntervalStore<>(), metrics, Objects.requireNonNull(length)),
+                mergeStrategy, parallelismThreshold, ForkJoinPool.commonPool());
     }
 
     /**
@@ -25,13 +101,243 @@ public final class IntervalMerger<T extends Comparable<T>> {
      * @return Sorted list of merged intervals (ascending by start of interval)
      */
     public List<List<T>> merge(List<List<T>> intervals) {
-        return merge(intervals.stream())
-                .collect(Collectors.toList());
+        insertBatch(intervals);
+        return intervalTree.getIntervals();
+    }
+
+    /**
+     * Method to merge an unsorted list of intervals like {@link #merge(List)}, but return only how the merged
+     * intervals changed by the batch instead of all of them. Merged intervals a batch doesn't touch are not part of
+     * the delta, so its size depends on the batch only, however many intervals were merged before.
+     * @param intervals Unordered list of intervals
+     * @return Merged intervals removed and added by the batch
+     * @throws IllegalArgumentException When an interval has start > end, the intervals before it may be merged then
+     */
+    public IntervalDelta<T> mergeDelta(List<List<T>> intervals) {
+        intervalTree.startTracking();
+        try {
+            insertBatch(intervals);
+        } catch (RuntimeException e) {
+            intervalTree.stopTracking();
+            throw e;
+        }
+        return intervalTree.stopTracking();
+    }
+
+    private void insertBatch(List<List<T>> intervals) {
+        if (mergeInParallel(intervals.size())) {
+            int chunks = CHUNKS_PER_THREAD * pool.getParallelism();
+            int chunkSize = Math.max(SORT_AND_SWEEP_THRESHOLD, intervals.size() / chunks);
+            intervalTree.insertAll(intervals, pool, chunkSize);
+        } else if (sortAndSweep(intervals.size())) {
+            intervalTree.insertAll(intervals);
+        } else {
+            intervals.forEach(intervalTree::insert);
+        }
+    }
+
+    private boolean mergeInParallel(int batchSize) {
+        switch (mergeStrategy) {
+            case PARALLEL:
+                return batchSize >= parallelismThreshold;
+            case AUTOMATIC:
+                return batchSize >= Math.max(parallelismThreshold, intervalTree.size());
+            default:
+                return false;
+        }
+    }
+
+    private boolean sortAndSweep(int batchSize) {
+        switch (mergeStrategy) {
+            case SORT_AND_SWEEP:
+            case PARALLEL:
+                return true;
+            case AUTOMATIC:
+                return batchSize >= Math.max(SORT_AND_SWEEP_THRESHOLD, intervalTree.size());
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Method to merge a single interval into the intervals merged so far. Allows feeding intervals one by one while
+     * they are being read, so that only the disjunctive intervals need to be kept in memory.
+     * @param start Start of interval (including)
+     * @param end End of interval (including)
+     * @throws IllegalArgumentException When start > end
+     */
+    public void insert(T start, T end) {
+        intervalTree.insert(start, end);
+    }
+
+    /**
+     * Method to merge a list of intervals into the intervals merged so far in a single linear sweep over both, after
+     * sorting the list unless it already is. Allows loading intervals merged before, like a snapshot of sorted
+     * disjunctive intervals, in O(n + k) for n intervals in the list and k merged so far, instead of inserting them
+     * one by one.
+     * @param intervals Intervals to merge, preferably sorted ascending by start
+     * @throws IllegalArgumentException When an interval has start > end
+     */
+    public void insertAll(List<List<T>> intervals) {
+        intervalTree.insertAll(intervals);
+    }
+
+    /**
+     * Method to merge all intervals merged by another merger into the intervals merged so far, in a single linear
+     * sweep over both. Allows parts of the input to be merged on their own, e.g. in parallel, and combined afterwards.
+     * The intervals of the other merger are not counted as inserted once more, only the merges of the sweep are
+     * recorded, so that the parts and the combination together count every input interval once.
+     * @param other Merger whose merged intervals to add
+     */
+    public void insertAll(IntervalMerger<T> other) {
+        intervalTree.insertAll(other.intervalTree);
+    }
+
+    /**
+     * Method to return all intervals merged so far.
+     * @return Sorted list of merged intervals (ascending by start of interval)
+     */
+    public List<List<T>> getMergedIntervals() {
+        return intervalTree.getIntervals();
+    }
+
+    /**
+     * Lazy view of the intervals merged so far in ascending order by start. Intervals are read straight from the tree
+     * while the stream is consumed, which may be done in parallel. The merger must not be modified until the stream
+     * is consumed.
+     * @return Stream of merged intervals (ascending by start of interval)
+     */
+    public Stream<List<T>> streamMergedIntervals() {
+        return StreamSupport.stream(intervalTree.spliterator(), false).map(Interval::asList);
+    }
+
+    /**
+     * Number of intervals merged so far, in O(1).
+     * @return Number of disjunctive merged intervals
+     */
+    public int size() {
+        return intervalTree.size();
+    }
+
+    /**
+     * Smallest start and largest end of the intervals merged so far, in O(log(n)).
+     * @return Optional of [smallest start, largest end], else empty Optional if nothing was merged
+     */
+    public Optional<List<T>> getBounds() {
+        return intervalTree.bounds().map(Interval::asList);
+    }
+
+    /**
+     * Total length covered by the intervals merged so far, in O(1) as it is maintained while merging.
+     * @return Sum of the lengths of the merged intervals
+     * @throws IllegalStateException When the merger was not configured with the length of intervals
+     */
+    public double getCoveredLength() {
+        return intervalTree.coveredLength();
+    }
+
+    /**
+     * Hand all intervals merged so far to the consumer in ascending order by start, straight from the tree without
+     * copying them into lists first.
+     * @param consumer Receiver of start and end of each merged interval
+     */
+    public void forEachMergedInterval(BiConsumer<T, T> consumer) {
+        intervalTree.iterator().forEachRemaining(interval -> consumer.accept(interval.getStart(), interval.getEnd()));
+    }
+
+    /**
+     * Check whether a point is covered by any of the intervals merged so far, in O(log(n)).
+     * @param point Point to look up
+     * @return true if a merged interval contains the point
+     */
+    public boolean covers(T point) {
+        return intervalTree.findCovering(point).isPresent();
+    }
+
+    /**
+     * Return the merged interval containing a point, in O(log(n)).
+     * @param point Point to look up
+     * @return Optional of merged interval containing the point, else empty Optional
+     */
+    public Optional<List<T>> getCoveringInterval(T point) {
+        return intervalTree.findCovering(point).map(Interval::asList);
+    }
+
+    /**
+     * Return all merged intervals overlapping the range [from, to], in O(log(n) + k) for k overlapping intervals and
+     * without materializing the other merged intervals.
+     * @param from Start of range (including)
+     * @param to End of range (including)
+     * @return Sorted list of overlapping merged intervals (ascending by start of interval)
+     * @throws IllegalArgumentException When from > to
+     */
+    public List<List<T>> getOverlappingIntervals(T from, T to) {
+        List<List<T>> overlapping = new ArrayList<>();
+        intervalTree.forEachOverlapping(from, to, interval -> overlapping.add(interval.asList()));
+        return overlapping;
+    }
+
+    /**
+     * Return a new merger holding the union of the intervals merged by this and the other merger, computed in a single
+     * linear sweep over both.
+     * @param other Merger to unite with
+     * @return New merger with the same configuration as this one
+     */
+    public IntervalMerger<T> union(IntervalMerger<T> other) {
+        return withIntervals(SortedIntervals.coalesce(
+                SortedIntervals.mergeByStart(intervalTree.iterator(), other.intervalTree.iterator())));
+    }
+
+    /**
+     * Return a new merger holding the intersection of the intervals merged by this and the other merger, computed in a
+     * single linear sweep over both.
+     * @param other Merger to intersect with
+     * @return New merger with the same configuration as this one
+     */
+    public IntervalMerger<T> intersection(IntervalMerger<T> other) {
+        List<Interval<T>> intersection = new ArrayList<>();
+        SortedIntervals.intersect(intervalTree.iterator(), other.intervalTree.iterator(), intersection::add);
+        return withIntervals(intersection);
+    }
+
+    /**
+     * Return a new merger holding the intervals merged by this merger without those of the other merger, computed in
+     * a single linear sweep over both.
+     * @param other Merger whose intervals to subtract
+     * @param domain Neighbours of values, to close the remaining parts of intervals
+     * @return New merger with the same configuration as this one
+     */
+    public IntervalMerger<T> difference(IntervalMerger<T> other, DiscreteDomain<T> domain) {
+        List<Interval<T>> difference = new ArrayList<>();
+        SortedIntervals.subtract(intervalTree.iterator(), other.intervalTree.iterator(), domain, difference::add);
+        return withIntervals(difference);
+    }
+
+    /**
+     * Return a new merger holding the gaps between the intervals merged by this merger within [lower, upper], in
+     * O(log(n) + k) for k merged intervals overlapping the bounds.
+     * @param lower Lower bound of the complement (including)
+     * @param upper Upper bound of the complement (including)
+     * @param domain Neighbours of values, to close the gaps
+     * @return New merger with the same configuration as this one
+     * @throws IllegalArgumentException When lower > upper
+     */
+    public IntervalMerger<T> complement(T lower, T upper, DiscreteDomain<T> domain) {
+        List<Interval<T>> overlapping = new ArrayList<>();
+        intervalTree.forEachOverlapping(lower, upper, overlapping::add);
+        List<Interval<T>> bounds = List.of(new Interval<>(lower, upper));
+        List<Interval<T>> complement = new ArrayList<>();
+        SortedIntervals.subtract(bounds.iterator(), overlapping.iterator(), domain, complement::add);
+        return withIntervals(complement);
+    }
+
+    private IntervalMerger<T> withIntervals(List<Interval<T>> sortedDisjunct) {
+        return new IntervalMerger<>(intervalTree.derive(sortedDisjunct), mergeStrategy, parallelismThreshold, pool);
     }
 
     Stream<List<T>> merge(Stream<List<T>> intervals) {
         intervals.forEach(intervalTree::insert);
-        return intervalTree.getIntervals().stream();
+        return streamMergedIntervals();
     }
 
 }
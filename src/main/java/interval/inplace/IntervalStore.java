@@ -0,0 +1,134 @@
+package interval.inplace;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Sorted storage of disjunctive intervals backing an {@link IntervalTree}.
+ */
+interface IntervalStore<T extends Comparable<T>> extends Iterable<Interval<T>> {
+
+    /**
+     * Insert an interval, merging it with all stored intervals it overlaps.
+     * @param start Start of interval (including), not larger than end
+     * @param end End of interval (including)
+     * @return Number of stored intervals the interval was merged with
+     */
+    default int insert(T start, T end) {
+        return insert(start, end, Changes.ignored());
+    }
+
+    /**
+     * Insert an interval, merging it with all stored intervals it overlaps, and report the stored intervals removed
+     * and the merged interval added. A stored interval containing the inserted one may be reported as removed and added
+     * again.
+     * @param start Start of interval (including), not larger than end
+     * @param end End of interval (including)
+     * @param changes Receiver of removed and added intervals
+     * @return Number of stored intervals the interval was merged with
+     */
+    int insert(T start, T end, Changes<T> changes);
+
+    /**
+     * Replace all stored intervals.
+     * @param sortedDisjunct Disjunctive intervals sorted ascending by start
+     */
+    void replaceAll(List<Interval<T>> sortedDisjunct);
+
+    /**
+     * Find the interval containing a point.
+     * @param point Point to look up
+     * @return Interval containing the point or null
+     */
+    Interval<T> findCovering(T point);
+
+    /**
+     * Hand all intervals overlapping [from, to] to the consumer in ascending order.
+     * @param from Start of range (including), not larger than to
+     * @param to End of range (including)
+     * @param consumer Receiver of overlapping intervals
+     */
+    void forEachOverlapping(T from, T to, Consumer<Interval<T>> consumer);
+
+    /**
+     * Remove all intervals ending strictly before a point and hand them to the consumer in ascending order.
+     * @param point Point to evict before
+     * @param consumer Receiver of removed intervals
+     */
+    void evictBefore(T point, Consumer<Interval<T>> consumer);
+
+    /**
+     * Cut the part before a point off the first interval, if it starts before the point. Only called once no interval
+     * ends before the point, so the first interval is the only one which may start before it.
+     * @param point New smallest start of all intervals
+     */
+    void trimBefore(T point);
+
+    /**
+     * Find the interval with the smallest start.
+     * @return First interval or null if the store is empty
+     */
+    Interval<T> first();
+
+    /**
+     * Find the interval with the largest end.
+     * @return Last interval or null if the store is empty
+     */
+    Interval<T> last();
+
+    void clear();
+
+    int size();
+
+    /**
+     * Iterate over the stored intervals in ascending order. The store must not be modified while iterating.
+     * @return Iterator over stored intervals
+     */
+    @Override
+    Iterator<Interval<T>> iterator();
+
+    /**
+     * Traverse the stored intervals in ascending order, in parallel if split. Splitting hands batches of the
+     * iterator on, stores with a splittable structure may split along it instead. The store must not be modified
+     * while traversing.
+     * @return Spliterator over stored intervals
+     */
+    @Override
+    default Spliterator<Interval<T>> spliterator() {
+        return Spliterators.spliterator(iterator(), size(),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+
+    /**
+     * Receiver of the intervals an insert removes from and adds to a store, e.g. to maintain aggregates over them.
+     * @param <T> Type of values
+     */
+    interface Changes<T> {
+
+        void removed(T start, T end);
+
+        void added(T start, T end);
+
+        @SuppressWarnings("unchecked")
+        static <T> Changes<T> ignored() {
+            return (Changes<T>) Ignored.INSTANCE;
+        }
+
+    }
+
+    enum Ignored implements Changes<Object> {
+        INSTANCE;
+
+        @Override
+        public void removed(Object start, Object end) {
+        }
+
+        @Override
+        public void added(Object start, Object end) {
+        }
+    }
+
+}
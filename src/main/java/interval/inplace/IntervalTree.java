@@ -1,29 +1,70 @@
 package interval.inplace;
 
+import interval.metrics.MergerMetrics;
+
+import java.math.BigDecimal;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 final class IntervalTree<T extends Comparable<T>> {
 
+    private final IntervalStore<T> intervalStore;
+    private final MergerMetrics metrics;
+    private final IntervalLength<T> length;
+    private final IntervalStore.Changes<T> listener = new ChangeListener();
+    private IntervalStore.Changes<T> changes;
+    private IntervalDeltaTracker<T> tracker;
+    private BigDecimal coveredLength = BigDecimal.ZERO;
+    private int infiniteLengths;
+
     /**
-     * A SortedMap<T, T> is used here as it allows efficient querying, insertion and deletion while also returning the
-     * element in question. A SortedSet<T> would be sufficient but makes the implementation a bit more awkward as one
-     * cannot get the element queried elegantly. Both approaches are viable. The Map is used for sake of convenience.
-     * Important is the requirement of sorting the elements as otherwise the behaviour of Interval<T> is not guaranteed
-     * to be well-behaved.
+     * Generate a new interval tree which ensures minimal space usage.
+     * @param intervalStore Sorted storage of the disjunctive intervals
+     * @param metrics Metrics recording insertions, merges and size of the tree
      */
-    private final SortedMap<Interval<T>, Interval<T>> intervalTree;
+    IntervalTree(IntervalStore<T> intervalStore, MergerMetrics metrics) {
+        this(intervalStore, metrics, null);
+    }
 
     /**
-     * Generate a new interval tree which ensures minimal space usage.
-     * @param intervalTree IntervallTree to use for insertion.
+     * Generate a new interval tree maintaining the total length covered by its intervals. Every insert adds the length
+     * of the merged interval and subtracts those of the intervals it replaces, as reported by the store, so that the
+     * covered length is available in O(1) without visiting the intervals. The exact lengths are summed up, so that no
+     * rounding error accumulates however many intervals are merged.
+     * @param intervalStore Sorted storage of the disjunctive intervals
+     * @param metrics Metrics recording insertions, merges and size of the tree
+     * @param length Length of intervals, or null to not maintain the covered length
      */
-    IntervalTree(SortedMap<Interval<T>, Interval<T>> intervalTree) {
-        this.intervalTree = intervalTree;
+    IntervalTree(IntervalStore<T> intervalStore, MergerMetrics metrics, IntervalLength<T> length) {
+        this.intervalStore = intervalStore;
+        this.metrics = metrics;
+        this.length = length;
+        updateChanges();
+    }
+
+    IntervalTree(NavigableMap<Interval<T>, Interval<T>> intervalTree) {
+        this(new TreeMapIntervalStore<>(intervalTree), MergerMetrics.disabled());
+    }
+
+    IntervalTree(MergerMetrics metrics) {
+        this(new BPlusTreeIntervalStore<>(), metrics);
     }
 
     IntervalTree() {
-        this(new TreeMap<>());
+        this(MergerMetrics.disabled());
+    }
+
+    /**
+     * Generate a new interval tree from disjunctive intervals in linear time, maintaining the covered length if this
+     * tree does. Insertions into the new tree are not recorded.
+     * @param sortedDisjunct Disjunctive intervals sorted ascending by start
+     * @return Tree containing the intervals
+     */
+    IntervalTree<T> derive(final List<Interval<T>> sortedDisjunct) {
+        IntervalTree<T> tree = new IntervalTree<>(new BPlusTreeIntervalStore<>(), MergerMetrics.disabled(), length);
+        tree.replaceAll(sortedDisjunct);
+        return tree;
     }
 
     /**
@@ -32,17 +73,296 @@ final class IntervalTree<T extends Comparable<T>> {
      * @param interval Interval to add into the tree
      */
     void insert(final List<T> interval) {
-        Interval<T> toInsert = new Interval<>(interval.get(0), interval.get(1));
-        insert(toInsert);
+        insert(interval.get(0), interval.get(1));
+    }
+
+    /**
+     * Insert single interval [start, end] into the tree. Same as {@link #insert(List)} without requiring a list. The
+     * interval is handed to the store as its bounds, so the store decides whether anything needs to be allocated.
+     * @param start Start of interval (including)
+     * @param end End of interval (including)
+     * @throws IllegalArgumentException When start > end
+     */
+    void insert(final T start, final T end) {
+        if (start.compareTo(end) > 0) {
+            throw new IllegalArgumentException("Start of interval cannot be larger than end of interval");
+        }
+        int merges = intervalStore.insert(start, end, changes);
+        metrics.intervalInserted(merges, intervalStore.size());
     }
 
-    private void insert(final Interval<T> interval) {
-        Interval<T> toInsert = interval;
-        while (intervalTree.containsKey(toInsert)) {
-            final Interval<T> other = intervalTree.remove(toInsert);
-            toInsert = Interval.merge(toInsert, other);
+    /**
+     * Insert a batch of intervals at once. Instead of inserting one by one, the batch is sorted by start, unless it
+     * already is, and merged with the current disjunctive intervals in a single linear sweep. The store is then bulk
+     * loaded from the sorted result by {@link IntervalStore#replaceAll(List)}, which fills the leaves of the B+-tree
+     * in linear time. Total cost is O(n * log(n) + k) for n intervals in the batch and k intervals in the tree,
+     * O(n + k) for a batch that is already sorted.
+     * @param intervals Intervals to add into the tree
+     */
+    void insertAll(final Collection<List<T>> intervals) {
+        List<Interval<T>> batch = new ArrayList<>(intervals.size());
+        for (List<T> interval : intervals) {
+            batch.add(new Interval<>(interval.get(0), interval.get(1)));
+        }
+        if (!SortedIntervals.isSortedByStart(batch)) {
+            batch.sort(Interval::compareByStart);
         }
-        intervalTree.put(toInsert, toInsert);
+        replaceWithUnion(batch, batch.size(), batch.size());
+    }
+
+    /**
+     * Insert a batch of intervals at once, merging chunks of the batch in parallel. Each chunk is sorted and swept on
+     * its own, the sorted disjunctive results of the chunks are combined pairwise by linear merges. The result is the
+     * same as inserting the intervals one by one.
+     * @param intervals Intervals to add into the tree
+     * @param pool Pool to merge the chunks on
+     * @param chunkSize Largest number of intervals merged as one chunk
+     */
+    void insertAll(final List<List<T>> intervals, final ForkJoinPool pool, final int chunkSize) {
+        List<List<T>> batch = intervals instanceof RandomAccess ? intervals : new ArrayList<>(intervals);
+        replaceWithUnion(pool.invoke(new ParallelMergeTask<>(batch, 0, batch.size(), chunkSize)), batch.size(),
+                batch.size());
+    }
+
+    /**
+     * Insert all intervals of another tree in a single linear sweep over both, in O(n + k) for n intervals in the
+     * other tree and k intervals in this one. The intervals of the other tree were counted as inserted when they were
+     * inserted there, so only the merges of the sweep are recorded.
+     * @param other Tree whose intervals to add into this tree
+     */
+    void insertAll(final IntervalTree<T> other) {
+        List<Interval<T>> sortedDisjunct = new ArrayList<>(other.size());
+        other.iterator().forEachRemaining(sortedDisjunct::add);
+        replaceWithUnion(sortedDisjunct, 0, sortedDisjunct.size());
+    }
+
+    /**
+     * Merge intervals sorted by start into the tree.
+     * @param inserted Number of intervals to record as inserted
+     * @param candidates Number of intervals the sorted ones were merged from, each of which is either kept or merged
+     */
+    private void replaceWithUnion(final List<Interval<T>> sortedByStart, final int inserted, final int candidates) {
+        int previousSize = intervalStore.size();
+        List<Interval<T>> merged = SortedIntervals.coalesce(
+                SortedIntervals.mergeByStart(intervalStore.iterator(), sortedByStart.iterator()));
+        replaceAll(merged);
+        metrics.intervalsInserted(inserted, candidates + previousSize - merged.size(), merged.size());
+    }
+
+    private void replaceAll(final List<Interval<T>> sortedDisjunct) {
+        if (tracker != null) {
+            reportDifference(intervalStore.iterator(), sortedDisjunct.iterator());
+        }
+        intervalStore.replaceAll(sortedDisjunct);
+        if (length != null) {
+            coveredLength = BigDecimal.ZERO;
+            infiniteLengths = 0;
+            for (Interval<T> interval : sortedDisjunct) {
+                addLength(interval.getStart(), interval.getEnd(), 1);
+            }
+        }
+    }
+
+    /**
+     * Report the intervals replaced by a rebuild to the tracker. As both the old and the new intervals are sorted and
+     * disjunctive, a single sweep pairs up the intervals kept, so only the differing ones are reported.
+     */
+    private void reportDifference(final Iterator<Interval<T>> before, final Iterator<Interval<T>> after) {
+        Interval<T> removed = before.hasNext() ? before.next() : null;
+        Interval<T> added = after.hasNext() ? after.next() : null;
+        while (removed != null || added != null) {
+            int order = removed == null ? 1 : added == null ? -1 : compareBounds(removed, added);
+            if (order <= 0 && removed != null) {
+                if (order < 0) {
+                    tracker.removed(removed.getStart(), removed.getEnd());
+                }
+                removed = before.hasNext() ? before.next() : null;
+            }
+            if (order >= 0 && added != null) {
+                if (order > 0) {
+                    tracker.added(added.getStart(), added.getEnd());
+                }
+                added = after.hasNext() ? after.next() : null;
+            }
+        }
+    }
+
+    private static <T extends Comparable<T>> int compareBounds(final Interval<T> interval, final Interval<T> other) {
+        int order = interval.getStart().compareTo(other.getStart());
+        return order != 0 ? order : interval.getEnd().compareTo(other.getEnd());
+    }
+
+    /**
+     * Number of disjunctive intervals currently in the tree.
+     * @return Number of intervals
+     */
+    int size() {
+        return intervalStore.size();
+    }
+
+    /**
+     * Find the interval containing a point in O(log(n)). As the intervals are disjunctive, there is at most one.
+     * @param point Point to look up
+     * @return Interval containing the point, else empty Optional
+     */
+    Optional<Interval<T>> findCovering(final T point) {
+        return Optional.ofNullable(intervalStore.findCovering(point));
+    }
+
+    /**
+     * Hand all intervals overlapping [from, to] to the consumer in ascending order in O(log(n) + k) for k overlapping
+     * intervals.
+     * @param from Start of range (including)
+     * @param to End of range (including)
+     * @param consumer Receiver of overlapping intervals
+     * @throws IllegalArgumentException When from > to
+     */
+    void forEachOverlapping(final T from, final T to, final Consumer<Interval<T>> consumer) {
+        if (from.compareTo(to) > 0) {
+            throw new IllegalArgumentException("Start of range cannot be larger than end of range");
+        }
+        intervalStore.forEachOverlapping(from, to, consumer);
+    }
+
+    /**
+     * Remove all intervals ending before a point from the tree and hand them to the consumer in ascending order. Only
+     * the O(log(n)) path to the point and the k removed intervals are visited.
+     * @param point Intervals ending strictly before the point are removed
+     * @param consumer Receiver of removed intervals
+     */
+    void evictBefore(final T point, final Consumer<Interval<T>> consumer) {
+        intervalStore.evictBefore(point, reported(consumer));
+        metrics.treeResized(intervalStore.size());
+    }
+
+    /**
+     * Remove all intervals ending before a point, as {@link #evictBefore(Comparable, Consumer)} does, and cut the part
+     * before the point off the interval containing it, so that no interval reaches before the point anymore.
+     * @param point Smallest point to keep
+     * @param consumer Receiver of removed intervals, not of the part cut off
+     */
+    void truncateBefore(final T point, final Consumer<Interval<T>> consumer) {
+        intervalStore.evictBefore(point, reported(consumer));
+        Interval<T> first = intervalStore.first();
+        if (first != null && first.getStart().compareTo(point) < 0) {
+            changes.removed(first.getStart(), first.getEnd());
+            changes.added(point, first.getEnd());
+        }
+        intervalStore.trimBefore(point);
+        metrics.treeResized(intervalStore.size());
+    }
+
+    private Consumer<Interval<T>> reported(final Consumer<Interval<T>> consumer) {
+        if (changes == listener) {
+            return interval -> {
+                listener.removed(interval.getStart(), interval.getEnd());
+                consumer.accept(interval);
+            };
+        }
+        return consumer;
+    }
+
+    /**
+     * Smallest start and largest end of all intervals in the tree, in O(log(n)) as only the first and the last
+     * interval are looked up.
+     * @return Interval spanning all intervals, else empty Optional
+     */
+    Optional<Interval<T>> bounds() {
+        Interval<T> first = intervalStore.first();
+        if (first == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Interval<>(first.getStart(), intervalStore.last().getEnd()));
+    }
+
+    /**
+     * Total length covered by the intervals in the tree, maintained during insertion and thus available in O(1).
+     * @return Sum of the lengths of all intervals
+     * @throws IllegalStateException When the tree does not maintain the covered length
+     */
+    double coveredLength() {
+        if (length == null) {
+            throw new IllegalStateException("Covered length requires the length of intervals to be configured");
+        }
+        return infiniteLengths > 0 ? Double.POSITIVE_INFINITY : coveredLength.doubleValue();
+    }
+
+    private void addLength(final T start, final T end, final int sign) {
+        BigDecimal exactLength = length.exactOf(start, end);
+        if (exactLength == null) {
+            infiniteLengths += sign;
+        } else {
+            coveredLength = sign > 0 ? coveredLength.add(exactLength) : coveredLength.subtract(exactLength);
+        }
+    }
+
+    /**
+     * Start tracking the changes made to the intervals of the tree, so that they can be taken as delta later on. Every
+     * insert reports the intervals it removes and the merged interval it adds, a rebuild by a batch reports the
+     * difference found in its sweep. Changes which cancel each other out, like an interval added and absorbed again,
+     * are not tracked.
+     * @throws IllegalStateException When changes are tracked already
+     */
+    void startTracking() {
+        if (tracker != null) {
+            throw new IllegalStateException("Changes are tracked already");
+        }
+        tracker = new IntervalDeltaTracker<>();
+        updateChanges();
+    }
+
+    /**
+     * Stop tracking changes and return those made since tracking was started.
+     * @return Merged intervals removed and added since tracking was started
+     * @throws IllegalStateException When changes are not tracked
+     */
+    IntervalDelta<T> stopTracking() {
+        if (tracker == null) {
+            throw new IllegalStateException("Changes are not tracked");
+        }
+        IntervalDelta<T> delta = tracker.toDelta();
+        tracker = null;
+        updateChanges();
+        return delta;
+    }
+
+    /**
+     * Hand the changes of inserts to the listener only if anything is interested in them, so that inserts without
+     * covered length and tracking call nothing but a no-op.
+     */
+    private void updateChanges() {
+        changes = length == null && tracker == null ? IntervalStore.Changes.ignored() : listener;
+    }
+
+    /**
+     * Remove all intervals from the tree.
+     */
+    void clear() {
+        if (tracker != null) {
+            intervalStore.forEach(interval -> tracker.removed(interval.getStart(), interval.getEnd()));
+        }
+        intervalStore.clear();
+        coveredLength = BigDecimal.ZERO;
+        infiniteLengths = 0;
+        metrics.treeResized(0);
+    }
+
+    /**
+     * Iterate over the current disjunctive intervals without copying them. The tree must not be modified while
+     * iterating.
+     * @return Iterator over disjunctive intervals, ordered by their start point.
+     */
+    Iterator<Interval<T>> iterator() {
+        return intervalStore.iterator();
+    }
+
+    /**
+     * Traverse the current disjunctive intervals without copying them, in parallel if split. The tree must not be
+     * modified while traversing.
+     * @return Spliterator over disjunctive intervals, ordered by their start point.
+     */
+    Spliterator<Interval<T>> spliterator() {
+        return intervalStore.spliterator();
     }
 
     /**
@@ -50,13 +370,38 @@ final class IntervalTree<T extends Comparable<T>> {
      * @return List of disjunctive intervals, ordered by their start point.
      */
     List<List<T>> getIntervals() {
-        return getIntervalList().stream()
-                .map(Interval::asList)
-                .collect(Collectors.toList());
+        List<List<T>> intervals = new ArrayList<>(intervalStore.size());
+        for (Interval<T> interval : intervalStore) {
+            intervals.add(interval.asList());
+        }
+        return intervals;
     }
 
-    private List<Interval<T>> getIntervalList() {
-        return new ArrayList<>(intervalTree.keySet());
+    /**
+     * Receiver of the changes of the store, maintaining the covered length and handing them on to the tracker.
+     */
+    private final class ChangeListener implements IntervalStore.Changes<T> {
+
+        @Override
+        public void removed(T start, T end) {
+            if (length != null) {
+                addLength(start, end, -1);
+            }
+            if (tracker != null) {
+                tracker.removed(start, end);
+            }
+        }
+
+        @Override
+        public void added(T start, T end) {
+            if (length != null) {
+                addLength(start, end, 1);
+            }
+            if (tracker != null) {
+                tracker.added(start, end);
+            }
+        }
+
     }
 
 }
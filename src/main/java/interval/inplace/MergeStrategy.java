@@ -0,0 +1,29 @@
+package interval.inplace;
+
+public enum MergeStrategy {
+
+    /**
+     * Insert intervals one by one into the interval tree, merging on every insertion. Keeps only disjunctive
+     * intervals in memory at any time, at worst O(n * m * log(n)) for a batch.
+     */
+    INSERTION,
+
+    /**
+     * Sort a batch by start and merge it in a single linear sweep, O(n * log(n)) for a batch and O(n) for a batch that
+     * is already sorted. Holds the whole batch in memory while merging.
+     */
+    SORT_AND_SWEEP,
+
+    /**
+     * Split a batch into chunks which are sorted and swept in parallel on the common ForkJoinPool, then combine the
+     * sorted results with linear merges. Batches below the parallelism threshold are sorted and swept sequentially.
+     */
+    PARALLEL,
+
+    /**
+     * Choose {@link #PARALLEL} or {@link #SORT_AND_SWEEP} for batches that are large, both absolutely and compared to
+     * the number of intervals merged so far, else {@link #INSERTION}.
+     */
+    AUTOMATIC
+
+}
@@ -0,0 +1,60 @@
+package interval.inplace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+@SuppressWarnings("serial")
+final class ParallelMergeTask<T extends Comparable<T>> extends RecursiveTask<List<Interval<T>>> {
+
+    private final List<List<T>> intervals;
+    private final int from;
+    private final int to;
+    private final int chunkSize;
+
+    /**
+     * Task merging a range of a list of intervals. Ranges larger than the chunk size are split in halves which are
+     * merged independently. Their sorted disjunctive results are combined with a linear merge of both lists.
+     * @param intervals Unordered intervals, should allow random access
+     * @param from Index of first interval to merge (including)
+     * @param to Index of last interval to merge (excluding)
+     * @param chunkSize Largest range which is merged without splitting
+     */
+    ParallelMergeTask(List<List<T>> intervals, int from, int to, int chunkSize) {
+        this.intervals = intervals;
+        this.from = from;
+        this.to = to;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Merge the range of intervals.
+     * @return Disjunctive intervals sorted ascending by start
+     */
+    @Override
+    protected List<Interval<T>> compute() {
+        if (to - from <= chunkSize) {
+            return mergeChunk();
+        }
+        int middle = (from + to) >>> 1;
+        ParallelMergeTask<T> left = new ParallelMergeTask<>(intervals, from, middle, chunkSize);
+        ParallelMergeTask<T> right = new ParallelMergeTask<>(intervals, middle, to, chunkSize);
+        left.fork();
+        List<Interval<T>> rightMerged = right.compute();
+        List<Interval<T>> leftMerged = left.join();
+        return SortedIntervals.coalesce(SortedIntervals.mergeByStart(leftMerged.iterator(), rightMerged.iterator()));
+    }
+
+    private List<Interval<T>> mergeChunk() {
+        List<Interval<T>> chunk = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            List<T> interval = intervals.get(i);
+            chunk.add(new Interval<>(interval.get(0), interval.get(1)));
+        }
+        if (!SortedIntervals.isSortedByStart(chunk)) {
+            chunk.sort(Interval::compareByStart);
+        }
+        return SortedIntervals.coalesce(chunk.iterator());
+    }
+
+}
@@ -0,0 +1,73 @@
+package interval.inplace;
+
+/**
+ * Buffering and growth shared by the mergers of primitive intervals. Starts and ends are kept in two parallel
+ * primitive arrays owned by the subclass, without any object header per interval. New intervals are appended behind
+ * the merged ones. Once the arrays are full, the union is recomputed by sorting starts and ends independently and
+ * sweeping over both: the union of closed intervals has a gap between the i-th smallest end and the (i+1)-th smallest
+ * start exactly when starts[i + 1] > ends[i]. The arrays only grow when more than half of them is still occupied by
+ * disjunctive intervals after merging, so memory is bounded by the number of disjunctive intervals and merging costs
+ * amortized O(log(n)) per interval. Only sorting and sweeping is left to the subclasses, as it needs to run on their
+ * primitive arrays without boxing.
+ */
+abstract class PrimitiveIntervalMerger {
+
+    static final int INITIAL_CAPACITY = 1024;
+
+    private int size;
+    private boolean merged = true;
+
+    /**
+     * Number of disjunctive intervals merged so far.
+     * @return Number of merged intervals
+     */
+    public int size() {
+        mergeBuffered();
+        return size;
+    }
+
+    /**
+     * Make room for one more interval, merging the buffered ones and growing the arrays if they are full.
+     * @return Position to store start and end of the new interval at
+     */
+    final int append() {
+        if (size == capacity()) {
+            mergeBuffered();
+            if (size > capacity() / 2) {
+                grow(capacity() * 2);
+            }
+        }
+        merged = false;
+        return size++;
+    }
+
+    /**
+     * Merge the buffered intervals unless there are none, so that the arrays hold the disjunctive intervals in order.
+     */
+    final void mergeBuffered() {
+        if (merged) {
+            return;
+        }
+        size = sortAndSweep(size);
+        merged = true;
+    }
+
+    final void checkIndex(int index) {
+        mergeBuffered();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size + " merged intervals");
+        }
+    }
+
+    abstract int capacity();
+
+    abstract void grow(int capacity);
+
+    /**
+     * Sort starts and ends independently and sweep over both, leaving the disjunctive intervals in front.
+     * @param size Number of intervals held, at least 1
+     * @return Number of disjunctive intervals
+     */
+    abstract int sortAndSweep(int size);
+
+}
@@ -0,0 +1,115 @@
+package interval.inplace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+public final class SlidingWindowIntervalMerger<T extends Comparable<T>> {
+
+    private final IntervalTree<T> intervalTree;
+    private final UnaryOperator<T> windowStartForNow;
+    private T windowStart;
+
+    SlidingWindowIntervalMerger(IntervalTree<T> intervalTree, UnaryOperator<T> windowStartForNow) {
+        this.intervalTree = intervalTree;
+        this.windowStartForNow = windowStartForNow;
+    }
+
+    /**
+     * Service to merge an unbounded stream of intervals, keeping only the coverage within a window of the most recent
+     * values. Whenever the window is advanced, merged intervals ending before its start are dropped and the interval
+     * reaching into the window is cut at its start. Both only touch the beginning of the sorted intervals, so memory
+     * is bounded by the intervals within the window instead of all intervals of the stream.
+     * @param windowStartForNow Function returning the start of the window for the current point in time, e.g.
+     *                          {@code now -> now - horizon}
+     */
+    public SlidingWindowIntervalMerger(UnaryOperator<T> windowStartForNow) {
+        this(new IntervalTree<>(), windowStartForNow);
+    }
+
+    /**
+     * Service to merge an unbounded stream of intervals of long values, keeping only the coverage within the last
+     * horizon units before the current point in time.
+     * @param horizon Length of the window
+     * @return Merger with window [now - horizon, now]
+     * @throws IllegalArgumentException When horizon is negative
+     */
+    public static SlidingWindowIntervalMerger<Long> withHorizon(long horizon) {
+        if (horizon < 0) {
+            throw new IllegalArgumentException("Horizon cannot be negative");
+        }
+        return new SlidingWindowIntervalMerger<>(now -> now - horizon);
+    }
+
+    /**
+     * Method to merge a single interval into the window. An interval ending before the start of the window is dropped,
+     * one starting before it is cut at the start of the window.
+     * @param start Start of interval (including)
+     * @param end End of interval (including)
+     * @throws IllegalArgumentException When start > end
+     */
+    public void insert(T start, T end) {
+        if (start.compareTo(end) > 0) {
+            throw new IllegalArgumentException("Start of interval cannot be larger than end of interval");
+        }
+        if (windowStart == null || start.compareTo(windowStart) >= 0) {
+            intervalTree.insert(start, end);
+        } else if (end.compareTo(windowStart) >= 0) {
+            intervalTree.insert(windowStart, end);
+        }
+    }
+
+    /**
+     * Move the window to the current point in time, dropping and cutting merged intervals before its new start in
+     * O(log(n) + k) for k dropped intervals. A point in time moving the window backwards is ignored.
+     * @param now Current point in time
+     */
+    public void advanceTo(T now) {
+        T newWindowStart = windowStartForNow.apply(now);
+        if (windowStart != null && newWindowStart.compareTo(windowStart) <= 0) {
+            return;
+        }
+        windowStart = newWindowStart;
+        intervalTree.truncateBefore(windowStart, interval -> { });
+    }
+
+    /**
+     * Method to return all merged intervals within the current window.
+     * @return Sorted list of merged intervals (ascending by start of interval)
+     */
+    public List<List<T>> getMergedIntervals() {
+        return intervalTree.getIntervals();
+    }
+
+    /**
+     * Check whether a point is covered by any of the merged intervals within the current window, in O(log(n)).
+     * @param point Point to look up
+     * @return true if a merged interval contains the point
+     */
+    public boolean covers(T point) {
+        return intervalTree.findCovering(point).isPresent();
+    }
+
+    /**
+     * Return all merged intervals within the current window overlapping the range [from, to], in O(log(n) + k) for k
+     * overlapping intervals.
+     * @param from Start of range (including)
+     * @param to End of range (including)
+     * @return Sorted list of overlapping merged intervals (ascending by start of interval)
+     * @throws IllegalArgumentException When from > to
+     */
+    public List<List<T>> getOverlappingIntervals(T from, T to) {
+        List<List<T>> overlapping = new ArrayList<>();
+        intervalTree.forEachOverlapping(from, to, interval -> overlapping.add(interval.asList()));
+        return overlapping;
+    }
+
+    /**
+     * Number of merged intervals within the current window and held in memory.
+     * @return Number of merged intervals
+     */
+    public int size() {
+        return intervalTree.size();
+    }
+
+}
@@ -0,0 +1,244 @@
+package interval.inplace;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+final class SortedIntervals {
+
+    private SortedIntervals() {
+    }
+
+    /**
+     * Check in linear time whether intervals are sorted ascending by their start.
+     * @param intervals Intervals to check
+     * @param <T> Type for intervals
+     * @return true if no interval starts before its predecessor
+     */
+    static <T extends Comparable<T>> boolean isSortedByStart(List<Interval<T>> intervals) {
+        for (int i = 1; i < intervals.size(); i++) {
+            if (Interval.compareByStart(intervals.get(i - 1), intervals.get(i)) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Merge intervals sorted ascending by start in a single linear sweep. A new interval is only allocated when an
+     * interval is extended by a successor, contained successors are dropped without allocation.
+     * @param sortedByStart Intervals sorted ascending by start, may overlap
+     * @param <T> Type for intervals
+     * @return Disjunctive intervals sorted ascending by start
+     */
+    static <T extends Comparable<T>> List<Interval<T>> coalesce(Iterator<Interval<T>> sortedByStart) {
+        List<Interval<T>> disjunct = new ArrayList<>();
+        coalesce(sortedByStart, disjunct::add);
+        return disjunct;
+    }
+
+    /**
+     * Merge intervals sorted ascending by start in a single linear sweep and hand each disjunctive interval to the
+     * consumer as soon as it is complete. Only the interval currently being extended is held in memory.
+     * @param sortedByStart Intervals sorted ascending by start, may overlap
+     * @param consumer Receiver of disjunctive intervals in ascending order
+     * @param <T> Type for intervals
+     */
+    static <T extends Comparable<T>> void coalesce(Iterator<Interval<T>> sortedByStart, Consumer<Interval<T>> consumer) {
+        if (!sortedByStart.hasNext()) {
+            return;
+        }
+        Interval<T> current = sortedByStart.next();
+        while (sortedByStart.hasNext()) {
+            Interval<T> next = sortedByStart.next();
+            if (next.getStart().compareTo(current.getEnd()) > 0) {
+                consumer.accept(current);
+                current = next;
+            } else if (next.getEnd().compareTo(current.getEnd()) > 0) {
+                current = new Interval<>(current.getStart(), next.getEnd());
+            }
+        }
+        consumer.accept(current);
+    }
+
+    /**
+     * Intersect two sequences of disjunctive intervals in a single linear sweep over both.
+     * @param left Disjunctive intervals sorted ascending by start
+     * @param right Disjunctive intervals sorted ascending by start
+     * @param consumer Receiver of the disjunctive intervals of the intersection in ascending order
+     * @param <T> Type for intervals
+     */
+    static <T extends Comparable<T>> void intersect(Iterator<Interval<T>> left, Iterator<Interval<T>> right,
+                                                    Consumer<Interval<T>> consumer) {
+        Interval<T> nextLeft = left.hasNext() ? left.next() : null;
+        Interval<T> nextRight = right.hasNext() ? right.next() : null;
+        while (nextLeft != null && nextRight != null) {
+            T start = max(nextLeft.getStart(), nextRight.getStart());
+            T end = min(nextLeft.getEnd(), nextRight.getEnd());
+            if (start.compareTo(end) <= 0) {
+                consumer.accept(new Interval<>(start, end));
+            }
+            if (nextLeft.getEnd().compareTo(nextRight.getEnd()) <= 0) {
+                nextLeft = left.hasNext() ? left.next() : null;
+            } else {
+                nextRight = right.hasNext() ? right.next() : null;
+            }
+        }
+    }
+
+    /**
+     * Subtract the intervals of one sequence from those of another in a single linear sweep over both.
+     * @param minuend Disjunctive intervals sorted ascending by start to subtract from
+     * @param subtrahend Disjunctive intervals sorted ascending by start to subtract
+     * @param domain Neighbours of values, to close the remaining parts of intervals
+     * @param consumer Receiver of the disjunctive intervals of the difference in ascending order
+     * @param <T> Type for intervals
+     */
+    static <T extends Comparable<T>> void subtract(Iterator<Interval<T>> minuend, Iterator<Interval<T>> subtrahend,
+                                                   DiscreteDomain<T> domain, Consumer<Interval<T>> consumer) {
+        Interval<T> removed = subtrahend.hasNext() ? subtrahend.next() : null;
+        while (minuend.hasNext()) {
+            Interval<T> interval = minuend.next();
+            T remainderStart = interval.getStart();
+            boolean remainderLeft = true;
+            while (removed != null && removed.getEnd().compareTo(remainderStart) < 0) {
+                removed = subtrahend.hasNext() ? subtrahend.next() : null;
+            }
+            while (remainderLeft && removed != null && removed.getStart().compareTo(interval.getEnd()) <= 0) {
+                if (removed.getStart().compareTo(remainderStart) > 0) {
+                    consumer.accept(new Interval<>(remainderStart, domain.previous(removed.getStart())));
+                }
+                if (removed.getEnd().compareTo(interval.getEnd()) >= 0) {
+                    remainderLeft = false;
+                } else {
+                    remainderStart = domain.next(removed.getEnd());
+                    removed = subtrahend.hasNext() ? subtrahend.next() : null;
+                }
+            }
+            if (remainderLeft && remainderStart == interval.getStart()) {
+                consumer.accept(interval);
+            } else if (remainderLeft) {
+                consumer.accept(new Interval<>(remainderStart, interval.getEnd()));
+            }
+        }
+    }
+
+    private static <T extends Comparable<T>> T max(T value, T other) {
+        return value.compareTo(other) >= 0 ? value : other;
+    }
+
+    private static <T extends Comparable<T>> T min(T value, T other) {
+        return value.compareTo(other) <= 0 ? value : other;
+    }
+
+    /**
+     * Lazily merge two sequences sorted ascending by start into one sequence sorted ascending by start.
+     * @param left Intervals sorted ascending by start
+     * @param right Intervals sorted ascending by start
+     * @param <T> Type for intervals
+     * @return Iterator over the intervals of both sequences, sorted ascending by start
+     */
+    static <T extends Comparable<T>> Iterator<Interval<T>> mergeByStart(Iterator<Interval<T>> left, Iterator<Interval<T>> right) {
+        return new MergingIterator<>(left, right);
+    }
+
+    /**
+     * Lazily merge any number of sequences sorted ascending by start into one sequence sorted ascending by start,
+     * taking O(log(k)) per interval for k sequences.
+     * @param sequences Iterators over intervals sorted ascending by start
+     * @param <T> Type for intervals
+     * @return Iterator over the intervals of all sequences, sorted ascending by start
+     */
+    static <T extends Comparable<T>> Iterator<Interval<T>> mergeByStart(List<Iterator<Interval<T>>> sequences) {
+        return new KWayMergingIterator<>(sequences);
+    }
+
+    private static final class KWayMergingIterator<T extends Comparable<T>> implements Iterator<Interval<T>> {
+
+        private final PriorityQueue<Head<T>> heads = new PriorityQueue<>();
+
+        private KWayMergingIterator(List<Iterator<Interval<T>>> sequences) {
+            for (Iterator<Interval<T>> sequence : sequences) {
+                if (sequence.hasNext()) {
+                    heads.add(new Head<>(sequence.next(), sequence));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public Interval<T> next() {
+            Head<T> head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            if (head.sequence.hasNext()) {
+                heads.add(new Head<>(head.sequence.next(), head.sequence));
+            }
+            return head.interval;
+        }
+
+    }
+
+    private static final class Head<T extends Comparable<T>> implements Comparable<Head<T>> {
+
+        private final Interval<T> interval;
+        private final Iterator<Interval<T>> sequence;
+
+        private Head(Interval<T> interval, Iterator<Interval<T>> sequence) {
+            this.interval = interval;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Head<T> other) {
+            return Interval.compareByStart(interval, other.interval);
+        }
+
+    }
+
+    private static final class MergingIterator<T extends Comparable<T>> implements Iterator<Interval<T>> {
+
+        private final Iterator<Interval<T>> left;
+        private final Iterator<Interval<T>> right;
+        private Interval<T> nextLeft;
+        private Interval<T> nextRight;
+
+        private MergingIterator(Iterator<Interval<T>> left, Iterator<Interval<T>> right) {
+            this.left = left;
+            this.right = right;
+            nextLeft = left.hasNext() ? left.next() : null;
+            nextRight = right.hasNext() ? right.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextLeft != null || nextRight != null;
+        }
+
+        @Override
+        public Interval<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Interval<T> next;
+            if (nextRight == null || (nextLeft != null && Interval.compareByStart(nextLeft, nextRight) <= 0)) {
+                next = nextLeft;
+                nextLeft = left.hasNext() ? left.next() : null;
+            } else {
+                next = nextRight;
+                nextRight = right.hasNext() ? right.next() : null;
+            }
+            return next;
+        }
+
+    }
+
+}
@@ -0,0 +1,99 @@
+package interval.inplace;
+
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+public final class StreamingIntervalMerger<T extends Comparable<T>> {
+
+    private final IntervalTree<T> intervalTree;
+    private final BiConsumer<T, T> emitter;
+    private final UnaryOperator<T> watermarkForStart;
+    private T watermark;
+    private T lastEmittedEnd;
+
+    StreamingIntervalMerger(IntervalTree<T> intervalTree, BiConsumer<T, T> emitter, UnaryOperator<T> watermarkForStart) {
+        this.intervalTree = intervalTree;
+        this.emitter = emitter;
+        this.watermarkForStart = watermarkForStart;
+    }
+
+    /**
+     * Service to merge a stream of intervals and emit merged intervals as soon as they are final. The caller promises
+     * by {@link #advanceWatermark(Comparable)} that no future interval starts before the watermark. Every merged
+     * interval ending before the watermark can then not change anymore, is emitted and removed from memory.
+     * @param emitter Receiver of start and end of each final merged interval, called in ascending order
+     */
+    public StreamingIntervalMerger(BiConsumer<T, T> emitter) {
+        this(new IntervalTree<>(), emitter, null);
+    }
+
+    /**
+     * Service to merge a stream of intervals which is nearly sorted by start, with disorder bounded by a known amount.
+     * After each inserted interval the watermark is advanced to the largest start seen so far minus that amount,
+     * emitting every merged interval ending before it.
+     * @param emitter Receiver of start and end of each final merged interval, called in ascending order
+     * @param watermarkForStart Function returning the watermark for the largest start seen so far, e.g.
+     *                          {@code start -> start - maxDisorder}
+     */
+    public StreamingIntervalMerger(BiConsumer<T, T> emitter, UnaryOperator<T> watermarkForStart) {
+        this(new IntervalTree<>(), emitter, watermarkForStart);
+    }
+
+    /**
+     * Method to merge a single interval into the intervals not yet emitted.
+     * @param start Start of interval (including)
+     * @param end End of interval (including)
+     * @throws IllegalArgumentException When start > end, start is before the current watermark or the interval
+     * overlaps an interval already emitted
+     */
+    public void insert(T start, T end) {
+        if (isLate(start)) {
+            throw new IllegalArgumentException(String.format("Interval [%s, %s] arrived after watermark %s", start, end, watermark));
+        }
+        intervalTree.insert(start, end);
+        if (watermarkForStart != null) {
+            advanceWatermark(watermarkForStart.apply(start));
+        }
+    }
+
+    /**
+     * Promise that no future interval starts before the watermark and emit all merged intervals ending before it.
+     * A watermark lower than the current one is ignored.
+     * @param watermark Smallest start of any future interval
+     */
+    public void advanceWatermark(T watermark) {
+        if (this.watermark != null && watermark.compareTo(this.watermark) <= 0) {
+            return;
+        }
+        this.watermark = watermark;
+        intervalTree.evictBefore(watermark, this::emit);
+    }
+
+    /**
+     * Emit all merged intervals not yet emitted, e.g. once the stream has ended. Further intervals may still be
+     * inserted, as long as they start after the last emitted interval.
+     */
+    public void flush() {
+        intervalTree.iterator().forEachRemaining(this::emit);
+        intervalTree.clear();
+    }
+
+    private boolean isLate(T start) {
+        return (watermark != null && start.compareTo(watermark) < 0)
+                || (lastEmittedEnd != null && start.compareTo(lastEmittedEnd) <= 0);
+    }
+
+    private void emit(Interval<T> interval) {
+        lastEmittedEnd = interval.getEnd();
+        emitter.accept(interval.getStart(), interval.getEnd());
+    }
+
+    /**
+     * Number of merged intervals not yet emitted and held in memory.
+     * @return Number of pending intervals
+     */
+    public int getPendingCount() {
+        return intervalTree.size();
+    }
+
+}
@@ -0,0 +1,236 @@
+package interval.inplace;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Store keeping every interval as key and value of a NavigableMap. As {@link Interval#compareTo} considers overlapping
+ * intervals equal, an overlapping interval is found by a plain lookup.
+ */
+final class TreeMapIntervalStore<T extends Comparable<T>> implements IntervalStore<T> {
+
+    /**
+     * A SortedMap<T, T> is used here as it allows efficient querying, insertion and deletion while also returning the
+     * element in question. A SortedSet<T> would be sufficient but makes the implementation a bit more awkward as one
+     * cannot get the element queried elegantly. Both approaches are viable. The Map is used for sake of convenience.
+     * Important is the requirement of sorting the elements as otherwise the behaviour of Interval<T> is not guaranteed
+     * to be well-behaved.
+     */
+    private final NavigableMap<Interval<T>, Interval<T>> intervalTree;
+
+    TreeMapIntervalStore(NavigableMap<Interval<T>, Interval<T>> intervalTree) {
+        this.intervalTree = intervalTree;
+    }
+
+    TreeMapIntervalStore() {
+        this(new TreeMap<>());
+    }
+
+    @Override
+    public int insert(final T start, final T end, final Changes<T> changes) {
+        Interval<T> toInsert = new Interval<>(start, end);
+        int merges = 0;
+        while (intervalTree.containsKey(toInsert)) {
+            final Interval<T> other = intervalTree.remove(toInsert);
+            changes.removed(other.getStart(), other.getEnd());
+            toInsert = Interval.merge(toInsert, other);
+            merges++;
+        }
+        intervalTree.put(toInsert, toInsert);
+        changes.added(toInsert.getStart(), toInsert.getEnd());
+        return merges;
+    }
+
+    /**
+     * Replace all intervals. A TreeMap builds itself in linear time from a SortedMap.
+     * @param sortedDisjunct Disjunctive intervals sorted ascending by start
+     */
+    @Override
+    public void replaceAll(final List<Interval<T>> sortedDisjunct) {
+        intervalTree.clear();
+        intervalTree.putAll(new SortedIntervalView<>(sortedDisjunct));
+    }
+
+    @Override
+    public Interval<T> findCovering(final T point) {
+        return intervalTree.get(new Interval<>(point, point));
+    }
+
+    /**
+     * The first overlapping interval is the interval containing from or else the first one starting after from, found
+     * by a single descent. From there on intervals are visited in order until one starts after to.
+     */
+    @Override
+    public void forEachOverlapping(final T from, final T to, final Consumer<Interval<T>> consumer) {
+        Interval<T> first = intervalTree.ceilingKey(new Interval<>(from, from));
+        if (first == null) {
+            return;
+        }
+        for (Interval<T> interval : intervalTree.tailMap(first, true).keySet()) {
+            if (interval.getStart().compareTo(to) > 0) {
+                return;
+            }
+            consumer.accept(interval);
+        }
+    }
+
+    @Override
+    public void evictBefore(final T point, final Consumer<Interval<T>> consumer) {
+        Iterator<Interval<T>> evicted = intervalTree.headMap(new Interval<>(point, point)).keySet().iterator();
+        while (evicted.hasNext()) {
+            consumer.accept(evicted.next());
+            evicted.remove();
+        }
+    }
+
+    @Override
+    public void trimBefore(final T point) {
+        if (intervalTree.isEmpty()) {
+            return;
+        }
+        Interval<T> first = intervalTree.firstKey();
+        if (first.getStart().compareTo(point) < 0) {
+            intervalTree.remove(first);
+            Interval<T> trimmed = new Interval<>(point, first.getEnd());
+            intervalTree.put(trimmed, trimmed);
+        }
+    }
+
+    @Override
+    public Interval<T> first() {
+        return intervalTree.isEmpty() ? null : intervalTree.firstKey();
+    }
+
+    @Override
+    public Interval<T> last() {
+        return intervalTree.isEmpty() ? null : intervalTree.lastKey();
+    }
+
+    @Override
+    public void clear() {
+        intervalTree.clear();
+    }
+
+    @Override
+    public int size() {
+        return intervalTree.size();
+    }
+
+    @Override
+    public Iterator<Interval<T>> iterator() {
+        return intervalTree.keySet().iterator();
+    }
+
+    /**
+     * The key set of a TreeMap splits along the tree.
+     */
+    @Override
+    public Spliterator<Interval<T>> spliterator() {
+        return intervalTree.keySet().spliterator();
+    }
+
+    /**
+     * Read-only view of a list of disjunctive intervals sorted by start as SortedMap of each interval onto itself. It
+     * exists to hand sorted intervals to TreeMap.putAll, which builds the tree in linear time for a SortedMap. Keys are
+     * ordered by {@link Interval#compareTo}, so a key overlapping a stored interval is equal to it, just like in the
+     * TreeMap itself. Views of ranges of keys are views of the matching range of the list.
+     */
+    static final class SortedIntervalView<T extends Comparable<T>> extends AbstractMap<Interval<T>, Interval<T>>
+            implements SortedMap<Interval<T>, Interval<T>> {
+
+        private final List<Interval<T>> intervals;
+
+        SortedIntervalView(List<Interval<T>> intervals) {
+            this.intervals = intervals;
+        }
+
+        @Override
+        public Set<Entry<Interval<T>, Interval<T>>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Interval<T>, Interval<T>>> iterator() {
+                    Iterator<Interval<T>> iterator = intervals.iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<Interval<T>, Interval<T>> next() {
+                            Interval<T> interval = iterator.next();
+                            return new SimpleImmutableEntry<>(interval, interval);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return intervals.size();
+                }
+            };
+        }
+
+        @Override
+        public Comparator<? super Interval<T>> comparator() {
+            return null;
+        }
+
+        @Override
+        public Interval<T> firstKey() {
+            if (intervals.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            return intervals.get(0);
+        }
+
+        @Override
+        public Interval<T> lastKey() {
+            if (intervals.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            return intervals.get(intervals.size() - 1);
+        }
+
+        /**
+         * View of the intervals from fromKey (including) up to toKey (excluding).
+         * @throws IllegalArgumentException When fromKey is larger than toKey
+         */
+        @Override
+        public SortedMap<Interval<T>, Interval<T>> subMap(Interval<T> fromKey, Interval<T> toKey) {
+            if (fromKey.compareTo(toKey) > 0) {
+                throw new IllegalArgumentException("fromKey cannot be larger than toKey");
+            }
+            return new SortedIntervalView<>(intervals.subList(lowerBound(fromKey), lowerBound(toKey)));
+        }
+
+        @Override
+        public SortedMap<Interval<T>, Interval<T>> headMap(Interval<T> toKey) {
+            return new SortedIntervalView<>(intervals.subList(0, lowerBound(toKey)));
+        }
+
+        @Override
+        public SortedMap<Interval<T>, Interval<T>> tailMap(Interval<T> fromKey) {
+            return new SortedIntervalView<>(intervals.subList(lowerBound(fromKey), intervals.size()));
+        }
+
+        /**
+         * Index of the first interval not smaller than the key, or the number of intervals if there is none.
+         */
+        private int lowerBound(Interval<T> key) {
+            int from = 0;
+            int to = intervals.size();
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (intervals.get(mid).compareTo(key) >= 0) {
+                    to = mid;
+                } else {
+                    from = mid + 1;
+                }
+            }
+            return from;
+        }
+
+    }
+
+}
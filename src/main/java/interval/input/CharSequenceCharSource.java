@@ -0,0 +1,34 @@
+package interval.input;
+
+/**
+ * Characters of a sequence which is already in memory as a whole.
+ */
+final class CharSequenceCharSource implements CharSource {
+
+    private final CharSequence characters;
+    private int position;
+
+    CharSequenceCharSource(CharSequence characters) {
+        this.characters = characters;
+    }
+
+    @Override
+    public int peek() {
+        return position < characters.length() ? characters.charAt(position) : END_OF_INPUT;
+    }
+
+    @Override
+    public void advance() {
+        position++;
+    }
+
+    @Override
+    public boolean hasBuffered() {
+        return position < characters.length();
+    }
+
+    @Override
+    public void close() {
+    }
+
+}
@@ -0,0 +1,32 @@
+package interval.input;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Sequential source of characters for the {@link IntervalTokenizer}, which looks at every character once before
+ * consuming it.
+ */
+interface CharSource extends Closeable {
+
+    int END_OF_INPUT = -1;
+
+    /**
+     * Character at the current position without consuming it.
+     * @return Current character or {@link #END_OF_INPUT} if the source is exhausted
+     * @throws IOException When reading from the underlying input fails
+     */
+    int peek() throws IOException;
+
+    /**
+     * Consume the current character. Only valid after {@link #peek()} returned a character.
+     */
+    void advance();
+
+    /**
+     * Whether characters are available without reading from the underlying input, so that {@link #peek()} won't block.
+     * @return true if a character is buffered
+     */
+    boolean hasBuffered();
+
+}
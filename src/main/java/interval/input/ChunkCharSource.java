@@ -0,0 +1,55 @@
+package interval.input;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Characters of a chunk of a list of intervals, read straight from a memory mapped part of a file. A chunk cut out of
+ * the middle of a list lacks the brackets enclosing the list, which are added in front and at the end as needed, so
+ * that the chunk reads as a complete list of intervals of its own.
+ */
+final class ChunkCharSource implements CharSource {
+
+    private final ByteBuffer bytes;
+    private final int limit;
+    private final int end;
+    private int position;
+
+    /**
+     * Characters of a chunk.
+     * @param bytes Bytes of the chunk, from index 0 up to its limit
+     * @param opensList Whether '[' is read before the bytes, as the chunk does not start the list
+     * @param closesList Whether ']' is read after the bytes, as the chunk does not end the list
+     */
+    ChunkCharSource(ByteBuffer bytes, boolean opensList, boolean closesList) {
+        this.bytes = bytes;
+        this.limit = bytes.limit();
+        this.end = closesList ? limit + 1 : limit;
+        this.position = opensList ? -1 : 0;
+    }
+
+    @Override
+    public int peek() {
+        if (position < 0) {
+            return '[';
+        }
+        if (position >= limit) {
+            return position < end ? ']' : END_OF_INPUT;
+        }
+        return bytes.get(position) & 0xFF;
+    }
+
+    @Override
+    public void advance() {
+        position++;
+    }
+
+    @Override
+    public boolean hasBuffered() {
+        return position < end;
+    }
+
+    @Override
+    public void close() {
+    }
+
+}
@@ -1,84 +1,274 @@
 package interval.input;
 
+import interval.metrics.MergerMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.lang.reflect.InvocationTargetException;
-import java.util.Arrays;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 public final class InputParser<T extends Comparable<T>> {
 
-    private static final String REGEX_BETWEEN_INTERVALS = "]\\s*,\\s*\\[";
-    private static final String REGEX_START_INTERVALS = "\\[\\s*\\[\\s*";
-    private static final String REGEX_END_INTERVALS = "\\s*]\\s*]";
     private static final Logger logger = LoggerFactory.getLogger(InputParser.class);
 
-    private final Supplier<BufferedReader> bufferedReaderProducer;
+    /**
+     * Smallest chunk a file is cut into for parsing in parallel. Below, handing a chunk to a worker and combining its
+     * result costs more than parsing it.
+     */
+    static final int DEFAULT_MIN_CHUNK_SIZE = 1 << 20;
+
+    /**
+     * Number of chunks per worker a file is cut into, allowing work stealing to even out chunks which take longer to
+     * parse than others.
+     */
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final SourceOpener sourceOpener;
+    private final String inputName;
     private final TypeConverter<T> typeConverter;
+    private final MergerMetrics metrics;
+    private final Path file;
+    private final int minChunkSize;
 
-    InputParser(Supplier<BufferedReader> bufferedReaderProducer, TypeConverter<T> typeConverter) {
-        this.bufferedReaderProducer = bufferedReaderProducer;
+    private InputParser(SourceOpener sourceOpener, String inputName, TypeConverter<T> typeConverter, MergerMetrics metrics,
+                        Path file, int minChunkSize) {
+        this.sourceOpener = sourceOpener;
+        this.inputName = inputName;
         this.typeConverter = typeConverter;
+        this.metrics = metrics;
+        this.file = file;
+        this.minChunkSize = minChunkSize;
+    }
+
+    InputParser(Supplier<BufferedReader> bufferedReaderProducer, TypeConverter<T> typeConverter, MergerMetrics metrics) {
+        this(() -> new ReaderCharSource(bufferedReaderProducer.get()), "stdin", typeConverter, metrics, null,
+                DEFAULT_MIN_CHUNK_SIZE);
+    }
+
+    InputParser(Path file, TypeConverter<T> typeConverter, MergerMetrics metrics, int minChunkSize) {
+        this(() -> new MappedFileCharSource(file), file.toString(), typeConverter, metrics, file, minChunkSize);
+    }
+
+    InputParser(Supplier<BufferedReader> bufferedReaderProducer, TypeConverter<T> typeConverter) {
+        this(bufferedReaderProducer, typeConverter, MergerMetrics.disabled());
     }
 
     public InputParser(TypeConverter<T> typeConverter) {
-        this(() -> new BufferedReader(new InputStreamReader(System.in)), typeConverter);
+        this(typeConverter, MergerMetrics.disabled());
     }
 
     /**
-     * Read one line from STDIN and generate a list of T of converted entries for input pattern [[x0, y0],[x1, y1]].
-     * Should STDIN be empty or conversion fail at any point during, then return an empty Optional.
+     * Parser reading from STDIN which records the number of intervals parsed.
+     * @param typeConverter Converter for the values of the intervals
+     * @param metrics Metrics to record into
+     */
+    public InputParser(TypeConverter<T> typeConverter, MergerMetrics metrics) {
+        this(() -> new BufferedReader(new InputStreamReader(System.in)), typeConverter, metrics);
+    }
+
+    /**
+     * Parser reading from a file instead of STDIN. The file is memory mapped and its bytes are scanned in place, so
+     * neither decoding to characters nor a String per value is needed.
+     * @param file File to read the intervals from
+     * @param typeConverter Converter for the values of the intervals
+     * @param metrics Metrics to record into
+     */
+    public InputParser(Path file, TypeConverter<T> typeConverter, MergerMetrics metrics) {
+        this(file, typeConverter, metrics, DEFAULT_MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Read one line from STDIN, or the file given on construction, and generate a list of T of converted entries for
+     * input pattern [[x0, y0],[x1, y1]]. Should the input be empty or conversion fail at any point during, then return an empty Optional.
      * @return Optional of list if parsing and conversion is successful, else empty Optional.
      */
     public Optional<List<List<T>>> readFromStdin() {
-        try (BufferedReader reader = bufferedReaderProducer.get()) {
-            String intervals = reader.readLine();
-            if (intervals.length() == 0) {
-                return Optional.empty();
+        List<List<T>> collectedIntervals = new ArrayList<>();
+        if (!readFromStdin((start, end) -> collectedIntervals.add(List.of(start, end))) || collectedIntervals.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(collectedIntervals);
+    }
+
+    /**
+     * Read one line from STDIN, or the file given on construction, for input pattern [[x0, y0],[x1, y1]] and hand each
+     * converted interval to the consumer while reading. Only the characters of the value currently read are held in memory, so the memory needed is
+     * bounded by what the consumer keeps and not by the length of the input.
+     * Should conversion fail at any point during, then intervals already handed over are not revoked.
+     * @param consumer Receiver of start and end of each interval in order of appearance
+     * @return true if parsing and conversion of a non-empty line is successful, else false.
+     */
+    public boolean readFromStdin(BiConsumer<T, T> consumer) {
+        try (CharSource source = sourceOpener.open()) {
+            IntervalTokenizer<T> tokenizer = new IntervalTokenizer<>(source, typeConverter);
+            try {
+                int intervalsRead = tokenizer.nextLine(consumer);
+                if (intervalsRead < 0) {
+                    throw new IOException("Input is already exhausted");
+                }
+                return intervalsRead > 0;
+            } finally {
+                metrics.intervalsParsed(tokenizer.getIntervalCount());
             }
-            List<List<T>> collectedIntervals = Arrays.stream(splitIntoIndividualIntervalsIgnoringWhitespaceBetween(intervals))
-                    .map(this::splitIntervalValues)
-                    .map(this::convertToTypedList)
-                    .collect(Collectors.toList());
-            return Optional.of(collectedIntervals);
         } catch (RuntimeException | IOException e) {
-            logger.error("Couldn't read stdin. Returning empty list.");
+            logger.error("Couldn't read {}. Returning empty list.", inputName);
+            return false;
+        }
+    }
+
+    /**
+     * Read the first line of the file given on construction in chunks which are parsed and converted in parallel. The
+     * line is cut at commas between intervals into up to four chunks per worker of the pool, none smaller than 1 MiB,
+     * and each chunk is handed to the chunk reader on a worker of its own. Parsing thus scales with the number of
+     * workers as long as the chunk reader keeps its results per chunk, like a merger per chunk, which the caller
+     * combines afterwards. Without a file, STDIN is read as a single chunk on the calling thread.
+     * @param pool Pool to parse the chunks on
+     * @param chunkReader Function reading the intervals of a chunk by {@link IntervalChunk#forEachInterval} exactly
+     *                    once and returning its result
+     * @param <R> Type of result per chunk
+     * @return Optional of the results of all chunks in order of appearance if parsing and conversion of a non-empty
+     * line is successful, else empty Optional
+     */
+    public <R> Optional<List<R>> readInParallel(ForkJoinPool pool, Function<IntervalChunk<T>, R> chunkReader) {
+        List<Future<R>> results = new ArrayList<>();
+        try {
+            if (file == null) {
+                try (CharSource source = sourceOpener.open()) {
+                    Chunk<T> chunk = new Chunk<>(source, typeConverter, true);
+                    results.add(CompletableFuture.completedFuture(chunkReader.apply(chunk)));
+                    return collect(List.of(chunk), results);
+                }
+            }
+            List<Chunk<T>> chunks = split(pool.getParallelism() * CHUNKS_PER_WORKER);
+            for (Chunk<T> chunk : chunks) {
+                results.add(pool.submit(() -> chunkReader.apply(chunk)));
+            }
+            return collect(chunks, results);
+        } catch (RuntimeException | IOException e) {
+            logger.error("Couldn't read {}. Returning empty list.", inputName);
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             return Optional.empty();
+        } finally {
+            results.forEach(result -> result.cancel(false));
         }
     }
 
-    private String[] splitIntoIndividualIntervalsIgnoringWhitespaceBetween(String intervals) {
-        String[] removeOpeningBraces = intervals.split(REGEX_START_INTERVALS);
-        String[] removeClosingBraces = removeOpeningBraces[1].split(REGEX_END_INTERVALS);
-        return removeClosingBraces[0].split(REGEX_BETWEEN_INTERVALS);
+    /**
+     * Map the chunks of the first line of the file. The chunks are mapped up front, as mapped buffers stay valid once
+     * the file is closed. The line is split only up to its end, so that neither the chunk count nor the last chunk
+     * depends on the lines following it; the last chunk ends with the line feed, if there is one.
+     */
+    private List<Chunk<T>> split(int maxChunks) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long lineEnd = IntervalListSplitter.findLineEnd(channel, MappedFileCharSource.DEFAULT_REGION_SIZE);
+            long size = Math.min(lineEnd + 1, channel.size());
+            long chunkCount = Math.max(ceilDiv(lineEnd, MappedFileCharSource.DEFAULT_REGION_SIZE),
+                    Math.min(maxChunks, lineEnd / minChunkSize));
+            List<Long> separators = new IntervalListSplitter(channel, lineEnd).split((int) Math.max(1, chunkCount));
+            List<Chunk<T>> chunks = new ArrayList<>(separators.size() + 1);
+            long start = 0;
+            for (int index = 0; index <= separators.size(); index++) {
+                boolean last = index == separators.size();
+                long end = last ? size : separators.get(index);
+                if (end - start > Integer.MAX_VALUE) {
+                    throw new IOException("Chunk of " + (end - start) + " bytes exceeds size of mapped region");
+                }
+                ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                chunks.add(new Chunk<>(new ChunkCharSource(bytes, index > 0, !last), typeConverter, last));
+                start = end + 1;
+            }
+            return chunks;
+        }
     }
 
-    private String[] splitIntervalValues(String interval) {
-        return interval.split("\\s*,\\s*");
+    /**
+     * Gather the results of the chunks in order, recording the intervals parsed by each. A chunk other than the last
+     * one which ends the line before its end holds the end of the first line, the chunks after it belong to later lines
+     * and are dropped.
+     */
+    private <R> Optional<List<R>> collect(List<Chunk<T>> chunks, List<Future<R>> results)
+            throws IOException, InterruptedException {
+        List<R> collected = new ArrayList<>(results.size());
+        for (int index = 0; index < results.size(); index++) {
+            Chunk<T> chunk = chunks.get(index);
+            try {
+                collected.add(results.get(index).get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IOException(e.getCause());
+            } finally {
+                metrics.intervalsParsed(chunk.tokenizer.getIntervalCount());
+            }
+            if (index == 0 && chunk.intervalsRead <= 0) {
+                if (chunk.intervalsRead < 0) {
+                    throw new IOException("Input is already exhausted");
+                }
+                return Optional.empty();
+            }
+            if (chunk.endsLineEarly()) {
+                break;
+            }
+        }
+        return Optional.of(collected);
     }
 
-    private List<T> convertToTypedList(String[] splits) {
-        return List.of(getElement(splits, 0), getElement(splits, 1));
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
     }
 
-    private T getElement(String[] splits, int index) throws IllegalArgumentException {
-        String formattedStringRepresentation = trimWhiteSpace(splits[index]);
-        try {
-            return typeConverter.get(formattedStringRepresentation);
-        } catch (NoSuchMethodException | InvocationTargetException | InstantiationException | IllegalAccessException e) {
-            throw new IllegalArgumentException();
+    private static final class Chunk<T extends Comparable<T>> implements IntervalChunk<T> {
+
+        private final CharSource source;
+        private final IntervalTokenizer<T> tokenizer;
+        private final boolean last;
+        private int intervalsRead;
+
+        private Chunk(CharSource source, TypeConverter<T> typeConverter, boolean last) {
+            this.source = source;
+            this.tokenizer = new IntervalTokenizer<>(source, typeConverter);
+            this.last = last;
         }
+
+        @Override
+        public void forEachInterval(BiConsumer<T, T> consumer) {
+            try {
+                intervalsRead = tokenizer.nextLine(consumer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private boolean endsLineEarly() {
+            return !last && source.hasBuffered();
+        }
+
     }
 
-    private String trimWhiteSpace(String splits) {
-        return splits.trim();
+    @FunctionalInterface
+    private interface SourceOpener {
+
+        CharSource open() throws IOException;
+
     }
 
 }
@@ -0,0 +1,20 @@
+package interval.input;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Part of the list of intervals of a line, parsed on its own by {@link InputParser#readInParallel}.
+ * @param <T> Type of values
+ */
+@FunctionalInterface
+public interface IntervalChunk<T> {
+
+    /**
+     * Parse and convert the intervals of the chunk and hand each to the consumer as soon as it is read.
+     * @param consumer Receiver of start and end of each interval in order of appearance
+     * @throws IllegalArgumentException When the chunk doesn't follow the pattern or a value cannot be converted
+     * @throws java.io.UncheckedIOException When reading the chunk fails
+     */
+    void forEachInterval(BiConsumer<T, T> consumer);
+
+}
@@ -0,0 +1,123 @@
+package interval.input;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finder of offsets at which the list of intervals on the first line of a file can be cut into chunks parsed on their
+ * own. A list is only cut at a comma between the closing bracket of one interval and the opening bracket of the next,
+ * so that no value or interval is torn apart. Only small windows around the offsets looked at are mapped.
+ */
+final class IntervalListSplitter {
+
+    /**
+     * Size of the window mapped around an offset looked at.
+     */
+    static final int WINDOW_SIZE = 1 << 16;
+
+    private static final int WINDOW_LOOKBEHIND = 64;
+
+    private final FileChannel channel;
+    private final long size;
+    private MappedByteBuffer window;
+    private long windowOffset;
+    private int windowLimit;
+
+    IntervalListSplitter(FileChannel channel) throws IOException {
+        this(channel, channel.size());
+    }
+
+    /**
+     * @param channel File to split
+     * @param size Number of bytes from the start of the file looked at, like the length of the first line
+     */
+    IntervalListSplitter(FileChannel channel, long size) {
+        this.channel = channel;
+        this.size = size;
+    }
+
+    /**
+     * Find the end of the first line by scanning the file from its start, one mapped region at a time.
+     * @param channel File to scan
+     * @param regionSize Number of bytes mapped at once
+     * @return Offset of the first line feed, or the size of the file if there is none
+     * @throws IOException When mapping the file fails
+     */
+    static long findLineEnd(FileChannel channel, int regionSize) throws IOException {
+        long size = channel.size();
+        for (long offset = 0; offset < size; offset += regionSize) {
+            int length = (int) Math.min(regionSize, size - offset);
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            for (int index = 0; index < length; index++) {
+                if (region.get(index) == '\n') {
+                    return offset + index;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Find the commas cutting the first line into about count chunks of equal size. Starting from each target offset,
+     * the next comma between two intervals is taken. No further commas are searched once the end of the line or of the
+     * file is reached, so there may be less chunks than asked for.
+     * @param count Number of chunks to cut the line into
+     * @return Ascending offsets of the commas to cut at, count - 1 at most
+     * @throws IOException When mapping the file fails
+     */
+    List<Long> split(int count) throws IOException {
+        List<Long> separators = new ArrayList<>();
+        long previous = -1;
+        for (int chunk = 1; chunk < count; chunk++) {
+            long separator = findSeparator(Math.max(size / count * chunk, previous + 1));
+            if (separator < 0) {
+                break;
+            }
+            separators.add(separator);
+            previous = separator;
+        }
+        return separators;
+    }
+
+    private long findSeparator(long from) throws IOException {
+        for (long offset = from; offset < size; offset++) {
+            int next = byteAt(offset);
+            if (next == '\n') {
+                return -1;
+            }
+            if (next == ',' && isBetweenIntervals(offset)) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isBetweenIntervals(long comma) throws IOException {
+        long before = comma - 1;
+        while (before >= 0 && isBlank(byteAt(before))) {
+            before--;
+        }
+        long after = comma + 1;
+        while (after < size && isBlank(byteAt(after))) {
+            after++;
+        }
+        return before >= 0 && after < size && byteAt(before) == ']' && byteAt(after) == '[';
+    }
+
+    private int byteAt(long offset) throws IOException {
+        if (window == null || offset < windowOffset || offset >= windowOffset + windowLimit) {
+            windowOffset = Math.max(0, offset - WINDOW_LOOKBEHIND);
+            windowLimit = (int) Math.min(WINDOW_SIZE, size - windowOffset);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, windowOffset, windowLimit);
+        }
+        return window.get((int) (offset - windowOffset)) & 0xFF;
+    }
+
+    private static boolean isBlank(int c) {
+        return c == ' ' || c == '\t' || c == '\r';
+    }
+
+}
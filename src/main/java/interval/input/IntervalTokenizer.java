@@ -0,0 +1,184 @@
+package interval.input;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+public final class IntervalTokenizer<T extends Comparable<T>> {
+
+    private static final int END_OF_INPUT = CharSource.END_OF_INPUT;
+    private static final char END_OF_LINE = '\n';
+
+    private final CharSource source;
+    private final TypeConverter<T> typeConverter;
+    private char[] token = new char[32];
+    private int tokenLength;
+    private long intervalCount;
+
+    /**
+     * Instantiate a tokenizer which reads lines of the pattern [[x0, y0], [x1, y1]] character by character from the
+     * given reader. Only a fixed size buffer and the characters of the current value are held in memory, independent
+     * of the length of a line.
+     * @param reader Source of characters. The tokenizer buffers on its own and takes over reading from it.
+     * @param typeConverter Converter for the values of the intervals
+     */
+    public IntervalTokenizer(Reader reader, TypeConverter<T> typeConverter) {
+        this(new ReaderCharSource(reader), typeConverter);
+    }
+
+    /**
+     * Instantiate a tokenizer which reads lines of the pattern [[x0, y0], [x1, y1]] from characters already in memory,
+     * like a chunk of lines, without buffering them again.
+     * @param input Lines to read
+     * @param typeConverter Converter for the values of the intervals
+     */
+    public IntervalTokenizer(CharSequence input, TypeConverter<T> typeConverter) {
+        this(new CharSequenceCharSource(input), typeConverter);
+    }
+
+    IntervalTokenizer(CharSource source, TypeConverter<T> typeConverter) {
+        this.source = source;
+        this.typeConverter = typeConverter;
+    }
+
+    /**
+     * Read the next line and hand every interval to the consumer as soon as its closing brace has been read.
+     * Should the line be malformed, then the rest of the line is skipped, so that the next call starts on a new line.
+     * Intervals handed over before the malformed part was encountered are not revoked.
+     * @param consumer Receiver of start and end of each interval in order of appearance
+     * @return Number of intervals read, 0 for a blank line and -1 if the input was already exhausted
+     * @throws IOException When reading from the underlying reader fails
+     * @throws IllegalArgumentException When the line doesn't follow the pattern or a value cannot be converted
+     */
+    public int nextLine(BiConsumer<T, T> consumer) throws IOException {
+        int next = skipWhitespace();
+        if (next == END_OF_INPUT) {
+            return -1;
+        }
+        if (next == END_OF_LINE) {
+            source.advance();
+            return 0;
+        }
+        try {
+            return readIntervals(consumer);
+        } catch (IllegalArgumentException e) {
+            skipRestOfLine();
+            throw e;
+        }
+    }
+
+    /**
+     * Number of intervals handed to consumers so far, including those of lines which turned out to be malformed later.
+     * @return Number of intervals read
+     */
+    public long getIntervalCount() {
+        return intervalCount;
+    }
+
+    /**
+     * Whether input was already read from the underlying reader but not consumed yet, like further lines sent at once.
+     * If not, the next call of {@link #nextLine(BiConsumer)} may block until more input arrives.
+     * @return true if buffered input is left
+     */
+    public boolean hasBufferedInput() {
+        return source.hasBuffered();
+    }
+
+    private int readIntervals(BiConsumer<T, T> consumer) throws IOException {
+        expect('[');
+        int count = 0;
+        do {
+            expect('[');
+            T start = readValue();
+            expect(',');
+            T end = readValue();
+            expect(']');
+            consumer.accept(start, end);
+            intervalCount++;
+            count++;
+        } while (consumeIfPresent(','));
+        expect(']');
+        int next = skipWhitespace();
+        if (next == END_OF_LINE) {
+            source.advance();
+        } else if (next != END_OF_INPUT) {
+            throw new IllegalArgumentException("Unexpected character '" + (char) next + "' after list of intervals");
+        }
+        return count;
+    }
+
+    private void expect(char expected) throws IOException {
+        int next = skipWhitespace();
+        if (next != expected) {
+            throw new IllegalArgumentException("Expected '" + expected + "' but found " + describe(next));
+        }
+        source.advance();
+    }
+
+    private boolean consumeIfPresent(char expected) throws IOException {
+        if (skipWhitespace() != expected) {
+            return false;
+        }
+        source.advance();
+        return true;
+    }
+
+    private T readValue() throws IOException {
+        skipWhitespace();
+        tokenLength = 0;
+        int next;
+        while ((next = peek()) != END_OF_INPUT && !isDelimiter((char) next)) {
+            appendToToken((char) next);
+            source.advance();
+        }
+        if (tokenLength == 0) {
+            throw new IllegalArgumentException("Expected a value but found " + describe(next));
+        }
+        return typeConverter.get(token, 0, tokenLength);
+    }
+
+    private void appendToToken(char c) {
+        if (tokenLength == token.length) {
+            token = Arrays.copyOf(token, tokenLength * 2);
+        }
+        token[tokenLength++] = c;
+    }
+
+    private int skipWhitespace() throws IOException {
+        int next;
+        while ((next = peek()) != END_OF_INPUT && next != END_OF_LINE && Character.isWhitespace(next)) {
+            source.advance();
+        }
+        return next;
+    }
+
+    private void skipRestOfLine() throws IOException {
+        int next;
+        while ((next = peek()) != END_OF_INPUT) {
+            source.advance();
+            if (next == END_OF_LINE) {
+                return;
+            }
+        }
+    }
+
+    private int peek() throws IOException {
+        return source.peek();
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c == ',' || c == '[' || c == ']' || Character.isWhitespace(c);
+    }
+
+    private static String describe(int next) {
+        if (next == END_OF_INPUT) {
+            return "end of input";
+        }
+        if (next == END_OF_LINE) {
+            return "end of line";
+        }
+        return "'" + (char) next + "'";
+    }
+
+}
@@ -0,0 +1,79 @@
+package interval.input;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Characters of a file read straight from memory mapped regions of it, without copying them into a buffer or decoding
+ * them first. Every byte is taken as one character, which is exact for the ASCII subset the input pattern consists
+ * of. Files larger than a region are mapped one region after the other.
+ */
+final class MappedFileCharSource implements CharSource {
+
+    /**
+     * Largest region mapped at once. Regions are limited to 2 GiB by the int index of MappedByteBuffer.
+     */
+    static final int DEFAULT_REGION_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int regionSize;
+    private MappedByteBuffer region;
+    private long regionOffset;
+    private int position;
+    private int limit;
+
+    MappedFileCharSource(Path file, int regionSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.regionSize = regionSize;
+    }
+
+    MappedFileCharSource(Path file) throws IOException {
+        this(file, DEFAULT_REGION_SIZE);
+    }
+
+    @Override
+    public int peek() throws IOException {
+        if (position == limit && !mapNextRegion()) {
+            return END_OF_INPUT;
+        }
+        return region.get(position) & 0xFF;
+    }
+
+    private boolean mapNextRegion() throws IOException {
+        long offset = regionOffset + limit;
+        if (offset >= size) {
+            return false;
+        }
+        int length = (int) Math.min(regionSize, size - offset);
+        region = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        regionOffset = offset;
+        position = 0;
+        limit = length;
+        return true;
+    }
+
+    @Override
+    public void advance() {
+        position++;
+    }
+
+    @Override
+    public boolean hasBuffered() {
+        return position < limit || regionOffset + limit < size;
+    }
+
+    /**
+     * Close the file. Mapped regions are released by the garbage collector, as Java offers no way to unmap them.
+     * @throws IOException When closing the file fails
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
@@ -0,0 +1,50 @@
+package interval.input;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Characters read from a reader into a fixed size buffer.
+ */
+final class ReaderCharSource implements CharSource {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    ReaderCharSource(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public int peek() throws IOException {
+        if (position == limit) {
+            int read = reader.read(buffer, 0, buffer.length);
+            if (read <= 0) {
+                return END_OF_INPUT;
+            }
+            position = 0;
+            limit = read;
+        }
+        return buffer[position];
+    }
+
+    @Override
+    public void advance() {
+        position++;
+    }
+
+    @Override
+    public boolean hasBuffered() {
+        return position < limit;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+}
@@ -1,33 +1,48 @@
 package interval.input;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-
 public final class TypeConverter<T> {
 
-    private final Class<T> typeArgumentClass;
+    private final ValueCodec<T> codec;
 
     /**
-     * Instantiate a converter which accepts as input a string and constructs an instance of Class clazz with the string
-     * as argument.
+     * Instantiate a converter which accepts as input a string and constructs an instance of Class clazz from it.
+     * The codec for the class is resolved once here: built-in codecs exist for Long, Integer, Double, BigInteger and
+     * BigDecimal, all other types are constructed reflectively with the string as argument.
      * @param clazz Class of which to generate a new instance of with a string as argument
+     * @throws IllegalArgumentException When there is neither a codec for the class nor a constructor taking a string
      */
     public TypeConverter(Class<T> clazz) {
-        typeArgumentClass = clazz;
+        this(ValueCodecs.forType(clazz));
+    }
+
+    /**
+     * Instantiate a converter using the given codec.
+     * @param codec Codec to convert with
+     */
+    public TypeConverter(ValueCodec<T> codec) {
+        this.codec = codec;
     }
 
     /**
-     * A way to generate `new T(String s)` using Java Reflection.
+     * Generate the equivalent of `new T(String s)`.
      * @param s Argument for constructor
      * @return new T(s)
-     * @throws NoSuchMethodException
-     * @throws InvocationTargetException
-     * @throws InstantiationException
-     * @throws IllegalAccessException
+     * @throws IllegalArgumentException When s does not represent a value of type T
+     */
+    T get(String s) {
+        return codec.parse(s.toCharArray(), 0, s.length());
+    }
+
+    /**
+     * Generate the equivalent of `new T(new String(chars, offset, length))` without creating the string.
+     * @param chars Characters containing the value
+     * @param offset Index of the first character of the value
+     * @param length Number of characters of the value
+     * @return new T(new String(chars, offset, length))
+     * @throws IllegalArgumentException When the characters do not represent a value of type T
      */
-    T get(String s) throws NoSuchMethodException, InvocationTargetException, InstantiationException, IllegalAccessException {
-        Constructor<T> genericConstructor = typeArgumentClass.getConstructor(String.class);
-        return genericConstructor.newInstance(s);
+    T get(char[] chars, int offset, int length) {
+        return codec.parse(chars, offset, length);
     }
 
 }
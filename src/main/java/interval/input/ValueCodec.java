@@ -0,0 +1,16 @@
+package interval.input;
+
+@FunctionalInterface
+public interface ValueCodec<T> {
+
+    /**
+     * Parse the value represented by a slice of a character array without copying the slice into a string first.
+     * @param chars Characters containing the value
+     * @param offset Index of the first character of the value
+     * @param length Number of characters of the value
+     * @return Parsed value
+     * @throws IllegalArgumentException When the characters do not represent a value of type T
+     */
+    T parse(char[] chars, int offset, int length);
+
+}
@@ -0,0 +1,180 @@
+package interval.input;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class ValueCodecs {
+
+    private static final int MAX_DIGITS_OF_LONG = 18;
+    private static final int MAX_EXACT_DOUBLE_DIGITS = 15;
+    private static final double[] EXACT_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Built-in codecs are registered up front, all other types are resolved on first use and then cached, so that
+     * looking up a codec never costs more than a map access.
+     */
+    private static final Map<Class<?>, ValueCodec<?>> codecs = new ConcurrentHashMap<>();
+
+    static {
+        register(Long.class, ValueCodecs::parseLongValue);
+        register(Integer.class, ValueCodecs::parseIntegerValue);
+        register(Double.class, ValueCodecs::parseDoubleValue);
+        register(BigInteger.class, ValueCodecs::parseBigIntegerValue);
+        register(BigDecimal.class, BigDecimal::new);
+    }
+
+    private ValueCodecs() {
+    }
+
+    /**
+     * Register a codec for a type, replacing a previously registered or resolved one.
+     * @param clazz Type the codec produces
+     * @param codec Codec to use for all TypeConverters of this type created afterwards
+     * @param <T> Type of values
+     */
+    public static <T> void register(Class<T> clazz, ValueCodec<T> codec) {
+        codecs.put(clazz, codec);
+    }
+
+    /**
+     * Return the codec registered for a type. For types without a registered codec a reflective codec calling the
+     * public constructor taking a single string is resolved once and registered.
+     * @param clazz Type to get a codec for
+     * @param <T> Type of values
+     * @return Codec for the type
+     * @throws IllegalArgumentException When no codec is registered and the type has no public constructor taking a
+     * single string
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ValueCodec<T> forType(Class<T> clazz) {
+        return (ValueCodec<T>) codecs.computeIfAbsent(clazz, ValueCodecs::reflectiveCodec);
+    }
+
+    private static <T> ValueCodec<T> reflectiveCodec(Class<T> clazz) {
+        final Constructor<T> constructor;
+        try {
+            constructor = clazz.getConstructor(String.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(clazz.getName() + " has no public constructor taking a string", e);
+        }
+        return (chars, offset, length) -> newInstance(constructor, new String(chars, offset, length));
+    }
+
+    private static <T> T newInstance(Constructor<T> constructor, String s) {
+        try {
+            return constructor.newInstance(s);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IllegalArgumentException) {
+                throw (IllegalArgumentException) e.getCause();
+            }
+            throw new IllegalArgumentException("Cannot convert " + s, e.getCause());
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot convert " + s, e);
+        }
+    }
+
+    private static Long parseLongValue(char[] chars, int offset, int length) {
+        return parseLong(chars, offset, length);
+    }
+
+    private static Integer parseIntegerValue(char[] chars, int offset, int length) {
+        long value = parseLong(chars, offset, length);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw numberFormatException(chars, offset, length);
+        }
+        return (int) value;
+    }
+
+    private static BigInteger parseBigIntegerValue(char[] chars, int offset, int length) {
+        if (length <= MAX_DIGITS_OF_LONG) {
+            return BigInteger.valueOf(parseLong(chars, offset, length));
+        }
+        return new BigInteger(new String(chars, offset, length));
+    }
+
+    /**
+     * Parse decimal numbers with at most 15 significant digits and at most 22 fractional digits exactly: both the
+     * digits as integer and the power of ten are exactly representable as double, so a single division rounds
+     * correctly. Anything else (exponents, hexadecimal notation, NaN, ...) is left to Double.parseDouble.
+     */
+    private static Double parseDoubleValue(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        long digits = 0;
+        int digitCount = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                digits = digits * 10 + (c - '0');
+                digitCount++;
+                if (fraction) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                return Double.parseDouble(new String(chars, offset, length));
+            }
+        }
+        if (digitCount == 0 || digitCount > MAX_EXACT_DOUBLE_DIGITS || fractionDigits >= EXACT_POWERS_OF_TEN.length) {
+            return Double.parseDouble(new String(chars, offset, length));
+        }
+        double value = digits / EXACT_POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Same result as Long.parseLong(new String(chars, offset, length)) without creating the string.
+     */
+    static long parseLong(char[] chars, int offset, int length) {
+        if (length <= 0) {
+            throw numberFormatException(chars, offset, length);
+        }
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        long limit = -Long.MAX_VALUE;
+        if (chars[i] == '-' || chars[i] == '+') {
+            negative = chars[i] == '-';
+            if (negative) {
+                limit = Long.MIN_VALUE;
+            }
+            if (++i == end) {
+                throw numberFormatException(chars, offset, length);
+            }
+        }
+        long multiplicationLimit = limit / 10;
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = Character.digit(chars[i], 10);
+            if (digit < 0 || result < multiplicationLimit) {
+                throw numberFormatException(chars, offset, length);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw numberFormatException(chars, offset, length);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private static NumberFormatException numberFormatException(char[] chars, int offset, int length) {
+        return new NumberFormatException("For input string: \"" + new String(chars, offset, Math.max(length, 0)) + "\"");
+    }
+
+}
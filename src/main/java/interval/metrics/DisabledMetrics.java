@@ -0,0 +1,32 @@
+package interval.metrics;
+
+enum DisabledMetrics implements MergerMetrics {
+
+    INSTANCE;
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public void intervalsParsed(long count) {
+    }
+
+    @Override
+    public void intervalInserted(int merges, int treeSize) {
+    }
+
+    @Override
+    public void intervalsInserted(int count, int merges, int treeSize) {
+    }
+
+    @Override
+    public void treeResized(int treeSize) {
+    }
+
+    @Override
+    public void phaseCompleted(Phase phase, long nanos) {
+    }
+
+}
@@ -0,0 +1,66 @@
+package interval.metrics;
+
+public interface MergerMetrics {
+
+    /**
+     * Metrics which discard everything recorded. Every method is empty, so calls are inlined away by the JIT and
+     * instrumented code runs as fast as without instrumentation.
+     * @return Shared instance discarding all metrics
+     */
+    static MergerMetrics disabled() {
+        return DisabledMetrics.INSTANCE;
+    }
+
+    /**
+     * Metrics for trees living only as long as a single request, many of which exist side by side. Counters of parsed
+     * and inserted intervals and merges add up across all of them, but the size of any one of these trees says nothing
+     * about the others, so tree sizes are not recorded.
+     * @return Metrics recording everything except tree sizes
+     */
+    default MergerMetrics withoutTreeSize() {
+        return this;
+    }
+
+    /**
+     * Whether metrics are recorded at all. Allows callers to skip gathering values which are costly on their own, like
+     * reading the clock for phase timings.
+     * @return true if recorded metrics are kept
+     */
+    boolean isEnabled();
+
+    /**
+     * Record intervals read and converted from the input.
+     * @param count Number of intervals parsed
+     */
+    void intervalsParsed(long count);
+
+    /**
+     * Record a single interval inserted into the tree.
+     * @param merges Number of intervals already in the tree which the inserted interval was merged with
+     * @param treeSize Number of disjunctive intervals in the tree after insertion
+     */
+    void intervalInserted(int merges, int treeSize);
+
+    /**
+     * Record a batch of intervals inserted into the tree at once. The merges are not attributed to single intervals of
+     * the batch and therefore not part of the distribution of merges per insert.
+     * @param count Number of intervals in the batch
+     * @param merges Number of merges performed, batch size plus previous tree size minus new tree size
+     * @param treeSize Number of disjunctive intervals in the tree after insertion
+     */
+    void intervalsInserted(int count, int merges, int treeSize);
+
+    /**
+     * Record intervals removed from the tree without merging, for instance by eviction.
+     * @param treeSize Number of disjunctive intervals in the tree after removal
+     */
+    void treeResized(int treeSize);
+
+    /**
+     * Record time spent in a phase. Multiple recordings for the same phase add up.
+     * @param phase Phase the time was spent in
+     * @param nanos Time spent in nanoseconds
+     */
+    void phaseCompleted(Phase phase, long nanos);
+
+}
@@ -0,0 +1,62 @@
+package interval.metrics;
+
+public interface MergerMetricsMXBean {
+
+    /**
+     * @return Number of intervals read and converted from the input
+     */
+    long getIntervalsParsed();
+
+    /**
+     * @return Number of intervals inserted into the tree, one by one or in batches
+     */
+    long getIntervalsInserted();
+
+    /**
+     * @return Number of times two intervals were merged into one
+     */
+    long getMerges();
+
+    /**
+     * @return Average number of merges per inserted interval
+     */
+    double getMergesPerInsert();
+
+    /**
+     * Distribution of merges per single insert. Bucket 0 counts inserts without merge, bucket i > 0 counts inserts
+     * with between 2^(i-2) + 1 and 2^(i-1) merges, so 1, 2, 3-4, 5-8 and so on.
+     * @return Number of inserts per bucket
+     */
+    long[] getMergesPerInsertHistogram();
+
+    /**
+     * @return Number of disjunctive intervals currently in the tree
+     */
+    int getCurrentTreeSize();
+
+    /**
+     * @return Largest number of disjunctive intervals in the tree so far
+     */
+    int getPeakTreeSize();
+
+    /**
+     * @return Time spent parsing in milliseconds
+     */
+    long getParseMillis();
+
+    /**
+     * @return Time spent merging in milliseconds
+     */
+    long getMergeMillis();
+
+    /**
+     * @return Time spent printing in milliseconds
+     */
+    long getPrintMillis();
+
+    /**
+     * Set all metrics back to zero.
+     */
+    void reset();
+
+}
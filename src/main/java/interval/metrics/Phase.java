@@ -0,0 +1,21 @@
+package interval.metrics;
+
+public enum Phase {
+
+    /**
+     * Reading and converting the input, excluding the time spent merging intervals handed over while reading.
+     */
+    PARSE,
+
+    /**
+     * Merging intervals into the intervals merged so far. Restoring the intervals of previous runs from a checkpoint is
+     * not part of any phase.
+     */
+    MERGE,
+
+    /**
+     * Rendering and writing the merged intervals.
+     */
+    PRINT
+
+}
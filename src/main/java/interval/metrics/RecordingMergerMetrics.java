@@ -0,0 +1,238 @@
+package interval.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class RecordingMergerMetrics implements MergerMetrics, MergerMetricsMXBean {
+
+    /**
+     * Name the metrics are registered under by {@link #register(MBeanServer)}.
+     */
+    public static final String OBJECT_NAME = "interval:type=MergerMetrics";
+
+    /**
+     * One bucket for no merge and one for each power of two up to the largest int.
+     */
+    private static final int HISTOGRAM_BUCKETS = Integer.SIZE + 1;
+
+    private final LongAdder intervalsParsed = new LongAdder();
+    private final LongAdder intervalsInserted = new LongAdder();
+    private final LongAdder merges = new LongAdder();
+    private final AtomicLongArray mergesPerInsert = new AtomicLongArray(HISTOGRAM_BUCKETS);
+    private final AtomicInteger currentTreeSize = new AtomicInteger();
+    private final AtomicInteger peakTreeSize = new AtomicInteger();
+    private final AtomicLongArray phaseNanos = new AtomicLongArray(Phase.values().length);
+
+    /**
+     * Register the metrics as MXBean so that they can be read by JMX clients like JConsole while merging.
+     * @param server Server to register with, usually the platform MBean server
+     * @return Name the metrics were registered under
+     * @throws JMException When metrics are already registered under the same name
+     */
+    public ObjectName register(MBeanServer server) throws JMException {
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        server.registerMBean(this, name);
+        return name;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void intervalsParsed(long count) {
+        intervalsParsed.add(count);
+    }
+
+    @Override
+    public void intervalInserted(int merges, int treeSize) {
+        countInsert(merges);
+        treeResized(treeSize);
+    }
+
+    @Override
+    public void intervalsInserted(int count, int merges, int treeSize) {
+        countInserts(count, merges);
+        treeResized(treeSize);
+    }
+
+    private void countInsert(int merges) {
+        intervalsInserted.increment();
+        this.merges.add(merges);
+        mergesPerInsert.incrementAndGet(bucketOf(merges));
+    }
+
+    private void countInserts(int count, int merges) {
+        intervalsInserted.add(count);
+        this.merges.add(merges);
+    }
+
+    @Override
+    public void treeResized(int treeSize) {
+        currentTreeSize.set(treeSize);
+        if (treeSize > peakTreeSize.get()) {
+            peakTreeSize.accumulateAndGet(treeSize, Math::max);
+        }
+    }
+
+    @Override
+    public void phaseCompleted(Phase phase, long nanos) {
+        phaseNanos.addAndGet(phase.ordinal(), nanos);
+    }
+
+    @Override
+    public MergerMetrics withoutTreeSize() {
+        return new MergerMetrics() {
+            @Override
+            public boolean isEnabled() {
+                return true;
+            }
+
+            @Override
+            public void intervalsParsed(long count) {
+                RecordingMergerMetrics.this.intervalsParsed(count);
+            }
+
+            @Override
+            public void intervalInserted(int merges, int treeSize) {
+                countInsert(merges);
+            }
+
+            @Override
+            public void intervalsInserted(int count, int merges, int treeSize) {
+                countInserts(count, merges);
+            }
+
+            @Override
+            public void treeResized(int treeSize) {
+            }
+
+            @Override
+            public void phaseCompleted(Phase phase, long nanos) {
+                RecordingMergerMetrics.this.phaseCompleted(phase, nanos);
+            }
+        };
+    }
+
+    @Override
+    public long getIntervalsParsed() {
+        return intervalsParsed.sum();
+    }
+
+    @Override
+    public long getIntervalsInserted() {
+        return intervalsInserted.sum();
+    }
+
+    @Override
+    public long getMerges() {
+        return merges.sum();
+    }
+
+    @Override
+    public double getMergesPerInsert() {
+        long inserted = getIntervalsInserted();
+        return inserted == 0 ? 0 : (double) getMerges() / inserted;
+    }
+
+    @Override
+    public long[] getMergesPerInsertHistogram() {
+        int buckets = HISTOGRAM_BUCKETS;
+        while (buckets > 1 && mergesPerInsert.get(buckets - 1) == 0) {
+            buckets--;
+        }
+        long[] histogram = new long[buckets];
+        for (int i = 0; i < buckets; i++) {
+            histogram[i] = mergesPerInsert.get(i);
+        }
+        return histogram;
+    }
+
+    @Override
+    public int getCurrentTreeSize() {
+        return currentTreeSize.get();
+    }
+
+    @Override
+    public int getPeakTreeSize() {
+        return peakTreeSize.get();
+    }
+
+    @Override
+    public long getParseMillis() {
+        return getMillis(Phase.PARSE);
+    }
+
+    @Override
+    public long getMergeMillis() {
+        return getMillis(Phase.MERGE);
+    }
+
+    @Override
+    public long getPrintMillis() {
+        return getMillis(Phase.PRINT);
+    }
+
+    private long getMillis(Phase phase) {
+        return TimeUnit.NANOSECONDS.toMillis(phaseNanos.get(phase.ordinal()));
+    }
+
+    @Override
+    public void reset() {
+        intervalsParsed.reset();
+        intervalsInserted.reset();
+        merges.reset();
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            mergesPerInsert.set(i, 0);
+        }
+        currentTreeSize.set(0);
+        peakTreeSize.set(0);
+        for (Phase phase : Phase.values()) {
+            phaseNanos.set(phase.ordinal(), 0);
+        }
+    }
+
+    /**
+     * Render all metrics as human readable text, one metric per line, to be printed at the end of a run.
+     * @return Summary of all metrics
+     */
+    public String summary() {
+        long[] histogram = getMergesPerInsertHistogram();
+        StringBuilder summary = new StringBuilder()
+                .append("intervals parsed:    ").append(getIntervalsParsed()).append(System.lineSeparator())
+                .append("intervals inserted:  ").append(getIntervalsInserted()).append(System.lineSeparator())
+                .append("merges:              ").append(getMerges())
+                .append(String.format(" (%.3f per insert)", getMergesPerInsert())).append(System.lineSeparator())
+                .append("merges per insert:  ");
+        for (int i = 0; i < histogram.length; i++) {
+            summary.append(' ').append(bucketLabel(i)).append('=').append(histogram[i]);
+        }
+        return summary.append(System.lineSeparator())
+                .append("tree size:           ").append(getCurrentTreeSize())
+                .append(" (peak ").append(getPeakTreeSize()).append(')').append(System.lineSeparator())
+                .append("parse:               ").append(getParseMillis()).append(" ms").append(System.lineSeparator())
+                .append("merge:               ").append(getMergeMillis()).append(" ms").append(System.lineSeparator())
+                .append("print:               ").append(getPrintMillis()).append(" ms")
+                .toString();
+    }
+
+    static int bucketOf(int merges) {
+        return merges == 0 ? 0 : 1 + Integer.SIZE - Integer.numberOfLeadingZeros(merges - 1);
+    }
+
+    private static String bucketLabel(int bucket) {
+        if (bucket <= 2) {
+            return Integer.toString(bucket);
+        }
+        long lower = (1L << (bucket - 2)) + 1;
+        long upper = 1L << (bucket - 1);
+        return lower + "-" + upper;
+    }
+
+}
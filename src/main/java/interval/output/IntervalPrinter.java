@@ -0,0 +1,55 @@
+package interval.output;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+public final class IntervalPrinter<T> {
+
+    private final Writer writer;
+    private boolean first = true;
+
+    /**
+     * Printer writing intervals in the form [[x0, y0], [x1, y1]] one by one while they are handed over, so that the
+     * output never needs to be held in memory as a whole. The output is the same as printing a List of Lists by
+     * PrintStream.println.
+     * @param writer Writer to print to, which should be buffered
+     */
+    public IntervalPrinter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Print a single interval, preceded by the opening bracket of the list or a separator.
+     * @param start Start of interval
+     * @param end End of interval
+     * @throws UncheckedIOException When writing fails
+     */
+    public void print(T start, T end) {
+        try {
+            writer.write(first ? "[[" : ", [");
+            writer.write(String.valueOf(start));
+            writer.write(", ");
+            writer.write(String.valueOf(end));
+            writer.write(']');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        first = false;
+    }
+
+    /**
+     * Close the list of intervals and end the line. Prints [] if no interval was printed. The writer is not flushed, so
+     * that multiple lists can be printed into the same buffer.
+     * @throws UncheckedIOException When writing fails
+     */
+    public void finish() {
+        try {
+            writer.write(first ? "[]" : "]");
+            writer.write(System.lineSeparator());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
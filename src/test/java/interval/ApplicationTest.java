@@ -1,19 +1,34 @@
 package interval;
 
+import interval.checkpoint.CheckpointStore;
 import interval.inplace.IntervalMerger;
+import interval.inplace.MergeStrategy;
 import interval.input.InputParser;
+import interval.input.IntervalChunk;
+import interval.metrics.MergerMetrics;
+import interval.metrics.Phase;
+import interval.metrics.RecordingMergerMetrics;
 import nl.altindag.log.LogCaptor;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -27,6 +42,10 @@ class ApplicationTest {
     private InputParser<Long> inputParser;
     @Mock
     private IntervalMerger<Long> intervalMerger;
+    @Mock
+    private MergerMetrics metrics;
+    @Mock
+    private CheckpointStore<Long> checkpoint;
 
     private final PrintStream standardOut = System.out;
     private final ByteArrayOutputStream outputStreamCaptor = new ByteArrayOutputStream();
@@ -42,9 +61,17 @@ class ApplicationTest {
         System.setOut(standardOut);
     }
 
+    private void givenMergedIntervals(List<List<Long>> mergedIntervals) {
+        doAnswer(invocation -> {
+            BiConsumer<Long, Long> consumer = invocation.getArgument(0);
+            mergedIntervals.forEach(interval -> consumer.accept(interval.get(0), interval.get(1)));
+            return null;
+        }).when(intervalMerger).forEachMergedInterval(any());
+    }
+
     @Test
     void givenParsingError_whenReadInputAndPrintMergedResults_thenReturnEarlyAndWarnUser() {
-        when(inputParser.readFromStdin()).thenReturn(Optional.empty());
+        when(inputParser.readFromStdin(any())).thenReturn(false);
         LogCaptor logCaptor = LogCaptor.forClass(Application.class);
 
         underTest.readInputAndPrintMergedResults();
@@ -55,16 +82,245 @@ class ApplicationTest {
 
     @Test
     void givenValidInput_whenReadInputAndPrintMergedResults_thenMergeIntervals() {
-        List<List<Long>> intervalList = List.of(List.of(1L, 3L));
         List<List<Long>> mergedIntervals = List.of(List.of(1L, 3L));
-        when(inputParser.readFromStdin()).thenReturn(Optional.of(intervalList));
-        when(intervalMerger.merge(intervalList)).thenReturn(mergedIntervals);
+        when(inputParser.readFromStdin(any())).thenAnswer(invocation -> {
+            BiConsumer<Long, Long> consumer = invocation.getArgument(0);
+            consumer.accept(1L, 3L);
+            return true;
+        });
+        givenMergedIntervals(mergedIntervals);
         LogCaptor logCaptor = LogCaptor.forClass(Application.class);
 
         underTest.readInputAndPrintMergedResults();
 
         assertThat(logCaptor.getErrorLogs()).isEmpty();
-        assertThat(outputStreamCaptor.toString().trim()).isEqualTo(mergedIntervals.toString());
+        verify(intervalMerger).insert(1L, 3L);
+        assertThat(outputStreamCaptor.toString()).isEqualTo(mergedIntervals + System.lineSeparator());
+    }
+
+    @Test
+    void givenEnabledMetrics_whenReadInputAndPrintMergedResults_thenRecordEveryPhase() {
+        underTest = new Application<>(inputParser, intervalMerger, metrics);
+        when(metrics.isEnabled()).thenReturn(true);
+        when(inputParser.readFromStdin(any())).thenAnswer(invocation -> {
+            BiConsumer<Long, Long> consumer = invocation.getArgument(0);
+            consumer.accept(1L, 3L);
+            return true;
+        });
+        givenMergedIntervals(List.of(List.of(1L, 3L)));
+
+        underTest.readInputAndPrintMergedResults();
+
+        verify(intervalMerger).insert(1L, 3L);
+        verify(metrics).phaseCompleted(eq(Phase.PARSE), anyLong());
+        verify(metrics).phaseCompleted(eq(Phase.MERGE), anyLong());
+        verify(metrics).phaseCompleted(eq(Phase.PRINT), anyLong());
+    }
+
+    @Test
+    void givenDisabledMetrics_whenReadInputAndPrintMergedResults_thenInsertWithoutTiming() {
+        underTest = new Application<>(inputParser, intervalMerger, metrics);
+        when(inputParser.readFromStdin(any())).thenReturn(false);
+
+        underTest.readInputAndPrintMergedResults();
+
+        verify(metrics).isEnabled();
+        verifyNoMoreInteractions(metrics);
+    }
+
+    @Test
+    void givenDisabledMetrics_whenPrintingMergedResults_thenRecordNoPhase() {
+        underTest = new Application<>(inputParser, intervalMerger, metrics);
+        when(inputParser.readFromStdin(any())).thenReturn(true);
+        givenMergedIntervals(List.of(List.of(1L, 3L)));
+
+        underTest.readInputAndPrintMergedResults();
+
+        verify(metrics, never()).phaseCompleted(any(), anyLong());
+        assertThat(outputStreamCaptor.toString()).isEqualTo("[[1, 3]]" + System.lineSeparator());
+    }
+
+    @Test
+    void givenManyMergedIntervals_whenReadInputAndPrintMergedResults_thenPrintSameAsPrintingList() {
+        List<List<Long>> mergedIntervals = new ArrayList<>();
+        for (long i = 0; i < 50_000; i++) {
+            mergedIntervals.add(List.of(3 * i, 3 * i + 1));
+        }
+        when(inputParser.readFromStdin(any())).thenReturn(true);
+        givenMergedIntervals(mergedIntervals);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        new PrintStream(expected).println(mergedIntervals);
+
+        underTest.readInputAndPrintMergedResults();
+
+        assertThat(outputStreamCaptor.toByteArray()).isEqualTo(expected.toByteArray());
+    }
+
+    @Test
+    void givenCheckpoint_whenReadInputAndPrintMergedResults_thenRestoreLogAndCommit() throws Exception {
+        underTest = new Application<>(inputParser, intervalMerger, MergerMetrics.disabled(), checkpoint);
+        when(inputParser.readFromStdin(any())).thenAnswer(invocation -> {
+            BiConsumer<Long, Long> consumer = invocation.getArgument(0);
+            consumer.accept(1L, 3L);
+            return true;
+        });
+        when(checkpoint.shouldCompact()).thenReturn(true);
+
+        underTest.readInputAndPrintMergedResults();
+
+        InOrder inOrder = inOrder(checkpoint, intervalMerger);
+        inOrder.verify(checkpoint).restore(any());
+        inOrder.verify(intervalMerger).insert(1L, 3L);
+        inOrder.verify(checkpoint).append(1L, 3L);
+        inOrder.verify(checkpoint).commit();
+        inOrder.verify(intervalMerger).forEachMergedInterval(any());
+        inOrder.verify(checkpoint).compact(intervalMerger);
+        verify(checkpoint, never()).abort();
+    }
+
+    @Test
+    void givenCheckpointAndEnabledMetrics_whenReadInputAndPrintMergedResults_thenExcludeLogFromMergePhase() throws Exception {
+        underTest = new Application<>(inputParser, intervalMerger, metrics, checkpoint);
+        when(metrics.isEnabled()).thenReturn(true);
+        when(inputParser.readFromStdin(any())).thenAnswer(invocation -> {
+            BiConsumer<Long, Long> consumer = invocation.getArgument(0);
+            consumer.accept(1L, 3L);
+            return true;
+        });
+        doAnswer(invocation -> {
+            Thread.sleep(50);
+            return null;
+        }).when(checkpoint).append(1L, 3L);
+        ArgumentCaptor<Long> mergeNanos = ArgumentCaptor.forClass(Long.class);
+
+        underTest.readInputAndPrintMergedResults();
+
+        verify(metrics).phaseCompleted(eq(Phase.MERGE), mergeNanos.capture());
+        verify(checkpoint).append(1L, 3L);
+        assertThat(mergeNanos.getValue()).isLessThan(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    void givenCheckpointAndParsingError_whenReadInputAndPrintMergedResults_thenAbortRun() throws Exception {
+        underTest = new Application<>(inputParser, intervalMerger, MergerMetrics.disabled(), checkpoint);
+        when(inputParser.readFromStdin(any())).thenReturn(false);
+
+        underTest.readInputAndPrintMergedResults();
+
+        verify(checkpoint).restore(any());
+        verify(checkpoint).abort();
+        verifyNoMoreInteractions(checkpoint);
+    }
+
+    @Test
+    void givenParsePool_whenReadInputAndPrintMergedResults_thenMergeUnionOfChunksAndLogIt() throws Exception {
+        underTest = new Application<>(inputParser, intervalMerger, MergerMetrics.disabled(), checkpoint, ForkJoinPool.commonPool());
+        when(inputParser.readInParallel(any(), any())).thenAnswer(invocation -> {
+            Function<IntervalChunk<Long>, Object> chunkReader = invocation.getArgument(1);
+            return Optional.of(List.of(
+                    chunkReader.apply(consumer -> {
+                        consumer.accept(1L, 3L);
+                        consumer.accept(2L, 5L);
+                    }),
+                    chunkReader.apply(consumer -> consumer.accept(8L, 9L))));
+        });
+
+        underTest.readInputAndPrintMergedResults();
+
+        InOrder inOrder = inOrder(checkpoint, intervalMerger);
+        inOrder.verify(checkpoint).restore(any());
+        inOrder.verify(intervalMerger).insertAll(any(IntervalMerger.class));
+        inOrder.verify(checkpoint).append(1L, 5L);
+        inOrder.verify(checkpoint).append(8L, 9L);
+        inOrder.verify(checkpoint).commit();
+        verify(inputParser, never()).readFromStdin(any());
+        verify(intervalMerger, never()).insert(any(), any());
+    }
+
+    @Test
+    void givenParsePoolAndEnabledMetrics_whenReadInputAndPrintMergedResults_thenRecordEveryPhase() {
+        underTest = new Application<>(inputParser, intervalMerger, metrics, null, ForkJoinPool.commonPool());
+        when(metrics.isEnabled()).thenReturn(true);
+        when(metrics.withoutTreeSize()).thenReturn(MergerMetrics.disabled());
+        givenThreeChunks();
+
+        underTest.readInputAndPrintMergedResults();
+
+        verify(metrics).phaseCompleted(eq(Phase.PARSE), anyLong());
+        verify(metrics).phaseCompleted(eq(Phase.MERGE), anyLong());
+        verify(metrics).phaseCompleted(eq(Phase.PRINT), anyLong());
+    }
+
+    @Test
+    void givenParsePoolAndDisabledMetrics_whenReadInputAndPrintMergedResults_thenRecordNoPhase() {
+        underTest = new Application<>(inputParser, intervalMerger, metrics, null, ForkJoinPool.commonPool());
+        when(metrics.withoutTreeSize()).thenReturn(MergerMetrics.disabled());
+        givenThreeChunks();
+
+        underTest.readInputAndPrintMergedResults();
+
+        verify(metrics, never()).phaseCompleted(any(), anyLong());
+        verify(intervalMerger).insertAll(any(IntervalMerger.class));
+    }
+
+    @Test
+    void givenParsePoolAndEnabledMetrics_whenReadInputAndPrintMergedResults_thenCountSameAsSequentialPath() {
+        List<List<Long>> intervals = new ArrayList<>();
+        Random random = new Random(17);
+        for (int i = 0; i < 3_000; i++) {
+            long start = random.nextInt(30_000);
+            intervals.add(List.of(start, start + random.nextInt(30)));
+        }
+        RecordingMergerMetrics sequentialMetrics = new RecordingMergerMetrics();
+        when(inputParser.readFromStdin(any())).thenAnswer(invocation -> {
+            BiConsumer<Long, Long> consumer = invocation.getArgument(0);
+            intervals.forEach(interval -> consumer.accept(interval.get(0), interval.get(1)));
+            return true;
+        });
+        new Application<>(inputParser, new IntervalMerger<>(MergeStrategy.INSERTION,
+                IntervalMerger.DEFAULT_PARALLELISM_THRESHOLD, sequentialMetrics), sequentialMetrics)
+                .readInputAndPrintMergedResults();
+        RecordingMergerMetrics parallelMetrics = new RecordingMergerMetrics();
+        when(inputParser.readInParallel(any(), any())).thenAnswer(invocation -> {
+            Function<IntervalChunk<Long>, Object> chunkReader = invocation.getArgument(1);
+            List<Object> chunks = new ArrayList<>();
+            for (int from = 0; from < intervals.size(); from += 500) {
+                List<List<Long>> chunk = intervals.subList(from, from + 500);
+                chunks.add(chunkReader.apply(consumer -> chunk.forEach(interval -> consumer.accept(interval.get(0), interval.get(1)))));
+            }
+            return Optional.of(chunks);
+        });
+
+        new Application<>(inputParser, new IntervalMerger<>(MergeStrategy.AUTOMATIC,
+                IntervalMerger.DEFAULT_PARALLELISM_THRESHOLD, parallelMetrics), parallelMetrics, null,
+                ForkJoinPool.commonPool()).readInputAndPrintMergedResults();
+
+        assertThat(parallelMetrics.getIntervalsInserted()).isEqualTo(sequentialMetrics.getIntervalsInserted()).isEqualTo(3_000);
+        assertThat(parallelMetrics.getMerges()).isEqualTo(sequentialMetrics.getMerges());
+        assertThat(parallelMetrics.getCurrentTreeSize()).isEqualTo(sequentialMetrics.getCurrentTreeSize());
+        assertThat(Arrays.stream(parallelMetrics.getMergesPerInsertHistogram()).sum()).isEqualTo(3_000);
+    }
+
+    private void givenThreeChunks() {
+        when(inputParser.readInParallel(any(), any())).thenAnswer(invocation -> {
+            Function<IntervalChunk<Long>, Object> chunkReader = invocation.getArgument(1);
+            return Optional.of(List.of(
+                    chunkReader.apply(consumer -> consumer.accept(1L, 3L)),
+                    chunkReader.apply(consumer -> consumer.accept(2L, 5L)),
+                    chunkReader.apply(consumer -> consumer.accept(8L, 9L))));
+        });
+    }
+
+    @Test
+    void givenParsePoolAndParsingError_whenReadInputAndPrintMergedResults_thenReturnEarlyAndWarnUser() {
+        underTest = new Application<>(inputParser, intervalMerger, MergerMetrics.disabled(), null, ForkJoinPool.commonPool());
+        when(inputParser.readInParallel(any(), any())).thenReturn(Optional.empty());
+        LogCaptor logCaptor = LogCaptor.forClass(Application.class);
+
+        underTest.readInputAndPrintMergedResults();
+
+        assertThat(logCaptor.getErrorLogs()).hasSize(1);
+        verifyNoInteractions(intervalMerger);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,123 @@
+package interval;
+
+import interval.inplace.IntervalMerger;
+import interval.input.TypeConverter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchProcessorTest {
+
+    private final ExecutorService workers = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+    }
+
+    private BatchProcessor<Long> processor(int maxChunksInFlight, int chunkSize) {
+        return new BatchProcessor<>(workers, maxChunksInFlight, chunkSize, new TypeConverter<>(Long.class), IntervalMerger::new);
+    }
+
+    private static String mergeSequentially(String record) {
+        IntervalMerger<Long> merger = new IntervalMerger<>();
+        String content = record.substring(2, record.length() - 2);
+        for (String interval : content.split("\\], \\[")) {
+            String[] values = interval.split(",");
+            merger.insert(Long.parseLong(values[0].trim()), Long.parseLong(values[1].trim()));
+        }
+        return merger.getMergedIntervals().toString();
+    }
+
+    private static List<String> randomRecords(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<String> intervals = new ArrayList<>();
+            for (int j = 0, size = 1 + random.nextInt(20); j < size; j++) {
+                long start = random.nextInt(1000);
+                intervals.add("[" + start + "," + (start + random.nextInt(100)) + "]");
+            }
+            records.add("[" + String.join(", ", intervals) + "]");
+        }
+        return records;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 64, 1024, 1 << 16})
+    void givenManyRecords_whenProcess_thenWriteMergedRecordsInInputOrder(int chunkSize) throws IOException {
+        List<String> records = randomRecords(5000, chunkSize);
+        StringWriter output = new StringWriter();
+
+        long processed = processor(3, chunkSize).process(new StringReader(String.join("\n", records) + "\n"), output);
+
+        List<String> expected = new ArrayList<>();
+        records.forEach(record -> expected.add(mergeSequentially(record)));
+        assertThat(processed).isEqualTo(records.size());
+        assertThat(output.toString().split(System.lineSeparator())).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void givenMalformedAndBlankRecords_whenProcess_thenWriteErrorAndEmptyLinesInPlace() throws IOException {
+        StringWriter output = new StringWriter();
+
+        long processed = processor(2, 8).process(new StringReader("[[1,3],[2,4]]\n[[1,x]]\n\n[[5,2]]\n[[7,8]]"), output);
+
+        String[] lines = output.toString().split(System.lineSeparator());
+        assertThat(processed).isEqualTo(5);
+        assertThat(lines).hasSize(5);
+        assertThat(lines[0]).isEqualTo("[[1, 4]]");
+        assertThat(lines[1]).startsWith(RecordMerger.ERROR_PREFIX);
+        assertThat(lines[2]).isEqualTo("[]");
+        assertThat(lines[3]).startsWith(RecordMerger.ERROR_PREFIX);
+        assertThat(lines[4]).isEqualTo("[[7, 8]]");
+    }
+
+    @Test
+    void givenEmptyInput_whenProcess_thenWriteNothing() throws IOException {
+        StringWriter output = new StringWriter();
+
+        assertThat(processor(2, 16).process(new StringReader(""), output)).isZero();
+        assertThat(output.toString()).isEmpty();
+    }
+
+    @Test
+    void givenBoundOfChunksInFlight_whenProcess_thenNeverQueueMoreChunks() throws IOException {
+        ThreadPoolExecutor slowWorkers = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+        AtomicInteger maxQueued = new AtomicInteger();
+        BatchProcessor<Long> underTest = new BatchProcessor<>(slowWorkers, 2, 1, new TypeConverter<>(Long.class), () -> {
+            maxQueued.accumulateAndGet(slowWorkers.getQueue().size() + slowWorkers.getActiveCount(), Math::max);
+            return new IntervalMerger<>();
+        });
+
+        try {
+            underTest.process(new StringReader(String.join("\n", randomRecords(200, 7))), new StringWriter());
+        } finally {
+            slowWorkers.shutdownNow();
+        }
+
+        assertThat(maxQueued.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void givenNoChunkInFlight_whenCreatingProcessor_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> processor(0, 16))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,160 @@
+package interval;
+
+import interval.inplace.IntervalMerger;
+import interval.input.TypeConverter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.ProtocolFamily;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class MergeServerTest {
+
+    @TempDir
+    Path temporaryDirectory;
+
+    private MergeServer<Long> underTest;
+    private final ExecutorService acceptor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (underTest != null) {
+            underTest.close();
+        }
+        acceptor.shutdownNow();
+    }
+
+    private void start(String address) throws IOException {
+        underTest = new MergeServer<>(address, MergeServer.newConnectionExecutor(), new TypeConverter<>(Long.class), IntervalMerger::new);
+        acceptor.submit(() -> {
+            underTest.serve();
+            return null;
+        });
+    }
+
+    private Socket connect() throws IOException {
+        InetSocketAddress address = (InetSocketAddress) underTest.getLocalAddress();
+        Socket socket = new Socket(address.getAddress(), address.getPort());
+        socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(10));
+        return socket;
+    }
+
+    private static List<String> request(Socket socket, String requests, int responses) throws IOException {
+        OutputStream output = socket.getOutputStream();
+        output.write(requests.getBytes(StandardCharsets.UTF_8));
+        output.flush();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < responses; i++) {
+            lines.add(reader.readLine());
+        }
+        return lines;
+    }
+
+    @Test
+    void givenSingleRequest_whenServing_thenRespondWithMergedIntervals() throws IOException {
+        start("localhost:0");
+
+        try (Socket socket = connect()) {
+            assertThat(request(socket, "[[25,30], [2,19], [14, 23], [4,8]]\n", 1))
+                    .containsExactly("[[2, 23], [25, 30]]");
+        }
+    }
+
+    @Test
+    void givenPipelinedRequests_whenServing_thenRespondToEachInOrder() throws IOException {
+        start("localhost:0");
+        StringBuilder requests = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            requests.append("[[").append(i).append(',').append(i + 2).append("], [").append(i + 1).append(',').append(i + 5).append("]]\n");
+            expected.add("[[" + i + ", " + (i + 5) + "]]");
+        }
+
+        try (Socket socket = connect()) {
+            assertThat(request(socket, requests.toString(), expected.size())).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void givenMalformedRequest_whenServing_thenRespondWithErrorAndServeNextRequest() throws IOException {
+        start("localhost:0");
+
+        try (Socket socket = connect()) {
+            List<String> responses = request(socket, "[[1,2], [3,x]]\n[[5,3]]\n\n[[1,2]]\n", 4);
+
+            assertThat(responses.get(0)).startsWith(RecordMerger.ERROR_PREFIX);
+            assertThat(responses.get(1)).startsWith(RecordMerger.ERROR_PREFIX);
+            assertThat(responses.subList(2, 4)).containsExactly("[]", "[[1, 2]]");
+        }
+    }
+
+    @Test
+    void givenConcurrentClients_whenServing_thenRespondToAllIndependently() throws Exception {
+        start("localhost:0");
+        List<CompletableFuture<List<String>>> clients = new ArrayList<>();
+
+        for (int client = 0; client < 16; client++) {
+            long offset = client * 100L;
+            clients.add(CompletableFuture.supplyAsync(() -> {
+                try (Socket socket = connect()) {
+                    return request(socket, "[[" + offset + "," + (offset + 10) + "], [" + (offset + 5) + "," + (offset + 20) + "]]\n", 1);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+
+        for (int client = 0; client < clients.size(); client++) {
+            long offset = client * 100L;
+            assertThat(clients.get(client).get(10, TimeUnit.SECONDS)).containsExactly("[[" + offset + ", " + (offset + 20) + "]]");
+        }
+    }
+
+    @Test
+    void givenUnixDomainSocket_whenServing_thenRespondAndDeleteSocketOnClose() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 16, "Unix domain sockets require Java 16");
+        Path socketFile = temporaryDirectory.resolve("merge.sock");
+        start(MergeServer.UNIX_ADDRESS_PREFIX + socketFile);
+        ProtocolFamily unix = StandardProtocolFamily.valueOf("UNIX");
+
+        try (SocketChannel channel = (SocketChannel) SocketChannel.class.getMethod("open", ProtocolFamily.class).invoke(null, unix)) {
+            channel.connect(MergeServer.unixDomainAddress(socketFile));
+            Channels.newOutputStream(channel).write("[[1,3], [2,6]]\n".getBytes(StandardCharsets.UTF_8));
+            BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+
+            assertThat(reader.readLine()).isEqualTo("[[1, 6]]");
+        }
+        underTest.close();
+        assertThat(Files.exists(socketFile)).isFalse();
+    }
+
+    @Test
+    void givenMalformedAddress_whenCreatingServer_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> new MergeServer<>("localhost:http", MergeServer.newConnectionExecutor(), new TypeConverter<>(Long.class), IntervalMerger::new))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,52 @@
+package interval;
+
+import interval.inplace.IntervalMerger;
+import interval.input.IntervalTokenizer;
+import interval.input.TypeConverter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecordMergerTest {
+
+    private final RecordMerger<Long> underTest = new RecordMerger<>(IntervalMerger::new);
+
+    private String mergeNextRecord(String record, TypeConverter<Long> typeConverter) throws IOException {
+        StringWriter writer = new StringWriter();
+        underTest.mergeNextRecord(new IntervalTokenizer<>(record, typeConverter), writer);
+        return writer.toString();
+    }
+
+    @Test
+    void givenUnconvertibleValue_whenMergeNextRecord_thenPrintErrorWithMessage() throws IOException {
+        String actual = mergeNextRecord("[[1, x]]", new TypeConverter<>(Long.class));
+
+        assertThat(actual).startsWith(RecordMerger.ERROR_PREFIX).doesNotContain("null").endsWith(System.lineSeparator());
+    }
+
+    @Test
+    void givenExceptionWithoutMessage_whenMergeNextRecord_thenPrintErrorWithExceptionClass() throws IOException {
+        TypeConverter<Long> typeConverter = new TypeConverter<>((chars, offset, length) -> {
+            throw new IllegalArgumentException();
+        });
+
+        String actual = mergeNextRecord("[[1, 2]]", typeConverter);
+
+        assertThat(actual).isEqualTo(RecordMerger.ERROR_PREFIX + IllegalArgumentException.class.getName() + System.lineSeparator());
+    }
+
+    @Test
+    void givenMessageWithLineBreak_whenMergeNextRecord_thenPrintErrorOnSingleLine() throws IOException {
+        TypeConverter<Long> typeConverter = new TypeConverter<>((chars, offset, length) -> {
+            throw new IllegalArgumentException("first\nsecond");
+        });
+
+        String actual = mergeNextRecord("[[1, 2]]", typeConverter);
+
+        assertThat(actual).isEqualTo(RecordMerger.ERROR_PREFIX + "first second" + System.lineSeparator());
+    }
+
+}
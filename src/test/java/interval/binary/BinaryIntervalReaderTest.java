@@ -0,0 +1,125 @@
+package interval.binary;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryIntervalReaderTest {
+
+    private static byte[] validStream() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (BinaryIntervalWriter<Long> writer = new BinaryIntervalWriter<>(Channels.newChannel(output), Long.class)) {
+            writer.write(1L, 3L);
+            writer.write(5L, 8L);
+        }
+        return output.toByteArray();
+    }
+
+    private static BinaryIntervalReader<Long> readerFor(byte[] bytes) throws IOException {
+        return new BinaryIntervalReader<>(Channels.newChannel(new ByteArrayInputStream(bytes)), Long.class);
+    }
+
+    @Test
+    void givenValidStream_whenReadBlock_thenReturnIntervalsThenEndOfStream() throws IOException {
+        List<List<Long>> intervals = new ArrayList<>();
+        BinaryIntervalReader<Long> underTest = readerFor(validStream());
+
+        assertThat(underTest.readBlock((start, end) -> intervals.add(List.of(start, end)))).isEqualTo(2);
+        assertThat(underTest.readBlock((start, end) -> intervals.add(List.of(start, end)))).isEqualTo(-1);
+        assertThat(underTest.readBlock((start, end) -> intervals.add(List.of(start, end)))).isEqualTo(-1);
+        assertThat(intervals).containsExactly(List.of(1L, 3L), List.of(5L, 8L));
+    }
+
+    @Test
+    void givenWrongMagic_whenCreatingReader_thenThrowIllegalArgumentException() throws IOException {
+        byte[] bytes = validStream();
+        bytes[0] = '[';
+
+        assertThatThrownBy(() -> readerFor(bytes))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Input is not in binary interval format");
+    }
+
+    @Test
+    void givenOtherValueType_whenCreatingReader_thenThrowIllegalArgumentException() throws IOException {
+        byte[] bytes = validStream();
+
+        assertThatThrownBy(() -> new BinaryIntervalReader<>(Channels.newChannel(new ByteArrayInputStream(bytes)), Integer.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Input contains values of type LONG instead of INTEGER");
+    }
+
+    @Test
+    void givenTruncatedHeader_whenCreatingReader_thenThrowEOFException() {
+        assertThatThrownBy(() -> readerFor(new byte[]{0x49, 0x56}))
+                .isInstanceOf(EOFException.class);
+    }
+
+    @Test
+    void givenMissingEndMarker_whenReadAll_thenThrowEOFException() throws IOException {
+        byte[] bytes = validStream();
+        BinaryIntervalReader<Long> underTest = readerFor(Arrays.copyOf(bytes, bytes.length - BinaryFormat.BLOCK_HEADER_LENGTH));
+
+        assertThatThrownBy(() -> underTest.readAll((start, end) -> {
+        })).isInstanceOf(EOFException.class);
+    }
+
+    @Test
+    void givenBlockShorterThanItsIntervals_whenReadBlock_thenThrowIllegalArgumentException() throws IOException {
+        byte[] bytes = validStream();
+        ByteBuffer.wrap(bytes).putInt(BinaryFormat.HEADER_LENGTH, 3);
+        BinaryIntervalReader<Long> underTest = readerFor(bytes);
+
+        assertThatThrownBy(() -> underTest.readBlock((start, end) -> {
+        })).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Block ends before its 3 intervals");
+    }
+
+    @Test
+    void givenBlockLongerThanAllowed_whenReadBlock_thenThrowIllegalArgumentException() throws IOException {
+        byte[] bytes = validStream();
+        ByteBuffer.wrap(bytes).putInt(BinaryFormat.HEADER_LENGTH + Integer.BYTES, BinaryFormat.MAX_BLOCK_LENGTH + 1);
+        BinaryIntervalReader<Long> underTest = readerFor(bytes);
+
+        assertThatThrownBy(() -> underTest.readBlock((start, end) -> {
+        })).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givenBufferWithTwoStreams_whenReadAll_thenReadEachStreamInPlace() throws IOException {
+        byte[] stream = validStream();
+        ByteBuffer buffer = ByteBuffer.allocate(2 * stream.length).put(stream).put(stream).flip();
+        List<List<Long>> intervals = new ArrayList<>();
+
+        assertThat(new BinaryIntervalReader<>(buffer, Long.class).readAll((start, end) -> intervals.add(List.of(start, end)))).isEqualTo(2);
+        assertThat(buffer.position()).isEqualTo(stream.length);
+        assertThat(new BinaryIntervalReader<>(buffer, Long.class).readAll((start, end) -> intervals.add(List.of(start, end)))).isEqualTo(2);
+        assertThat(buffer.hasRemaining()).isFalse();
+        assertThat(intervals).containsExactly(List.of(1L, 3L), List.of(5L, 8L), List.of(1L, 3L), List.of(5L, 8L));
+    }
+
+    @Test
+    void givenValidStream_whenSkipAll_thenCountIntervalsWithoutDecoding() throws IOException {
+        assertThat(readerFor(validStream()).skipAll()).isEqualTo(2);
+    }
+
+    @Test
+    void givenBufferWithoutEndOfStreamMarker_whenSkipAll_thenThrowEOFException() throws IOException {
+        byte[] stream = validStream();
+        ByteBuffer buffer = ByteBuffer.wrap(Arrays.copyOf(stream, stream.length - 1));
+
+        assertThatThrownBy(() -> new BinaryIntervalReader<>(buffer, Long.class).skipAll()).isInstanceOf(EOFException.class);
+    }
+
+}
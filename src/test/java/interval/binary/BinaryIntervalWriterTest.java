@@ -0,0 +1,141 @@
+package interval.binary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryIntervalWriterTest {
+
+    private static Stream<Arguments> intervalsOfEveryType() {
+        return Stream.of(
+                Arguments.of(Long.class, List.of(List.of(Long.MIN_VALUE, -1L), List.of(0L, 0L), List.of(5L, Long.MAX_VALUE), List.of(-7L, 3L))),
+                Arguments.of(Integer.class, List.of(List.of(Integer.MIN_VALUE, 0), List.of(1, Integer.MAX_VALUE), List.of(-3, -2))),
+                Arguments.of(Double.class, List.of(List.of(-0.5, 1e300), List.of(Double.NEGATIVE_INFINITY, -1e-300))),
+                Arguments.of(BigInteger.class, List.of(List.of(new BigInteger("-123456789012345678901234567890"), BigInteger.ZERO), List.of(BigInteger.ONE, BigInteger.TEN.pow(40)))),
+                Arguments.of(BigDecimal.class, List.of(List.of(new BigDecimal("-1.50"), new BigDecimal("2E+10")), List.of(new BigDecimal("3.14159265358979323846264338327950288"), new BigDecimal("4"))))
+        );
+    }
+
+    private static <T extends Comparable<T>> byte[] write(Class<T> valueClass, List<List<T>> intervals) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (BinaryIntervalWriter<T> writer = new BinaryIntervalWriter<>(Channels.newChannel(output), valueClass)) {
+            writer.writeAll(intervals);
+        }
+        return output.toByteArray();
+    }
+
+    private static <T extends Comparable<T>> List<List<T>> read(Class<T> valueClass, byte[] bytes) throws IOException {
+        List<List<T>> intervals = new ArrayList<>();
+        try (BinaryIntervalReader<T> reader = new BinaryIntervalReader<>(Channels.newChannel(new ByteArrayInputStream(bytes)), valueClass)) {
+            reader.readAll((start, end) -> intervals.add(List.of(start, end)));
+        }
+        return intervals;
+    }
+
+    @ParameterizedTest
+    @MethodSource("intervalsOfEveryType")
+    <T extends Comparable<T>> void givenIntervals_whenWrittenAndRead_thenReturnSameIntervals(Class<T> valueClass, List<List<T>> intervals) throws IOException {
+        byte[] bytes = write(valueClass, intervals);
+
+        assertThat(read(valueClass, bytes)).isEqualTo(intervals);
+    }
+
+    @Test
+    void givenNoIntervals_whenWritten_thenWriteHeaderAndEndMarkerOnly() throws IOException {
+        byte[] bytes = write(Long.class, List.of());
+
+        assertThat(bytes).hasSize(BinaryFormat.HEADER_LENGTH + BinaryFormat.BLOCK_HEADER_LENGTH);
+        assertThat(read(Long.class, bytes)).isEmpty();
+    }
+
+    @Test
+    void givenSortedIntervals_whenWritten_thenEncodeDeltasInFewBytes() throws IOException {
+        List<List<Long>> intervals = new ArrayList<>();
+        for (long i = 0; i < 10_000; i++) {
+            intervals.add(List.of(1_000_000_000_000L + 10 * i, 1_000_000_000_000L + 10 * i + 5));
+        }
+
+        byte[] bytes = write(Long.class, intervals);
+
+        assertThat(bytes.length).isLessThan(2 * intervals.size() + 100);
+        assertThat(read(Long.class, bytes)).isEqualTo(intervals);
+    }
+
+    @Test
+    void givenSortedBigDecimalIntervals_whenWritten_thenEncodeDeltasInFewBytes() throws IOException {
+        List<List<BigDecimal>> intervals = new ArrayList<>();
+        for (long i = 0; i < 10_000; i++) {
+            intervals.add(List.of(BigDecimal.valueOf(100_000_000_000L + 10 * i, 2), BigDecimal.valueOf(100_000_000_000L + 10 * i + 5, 2)));
+        }
+
+        byte[] bytes = write(BigDecimal.class, intervals);
+
+        assertThat(bytes.length).isLessThan(4 * intervals.size() + 100);
+        assertThat(read(BigDecimal.class, bytes)).isEqualTo(intervals);
+    }
+
+    @Test
+    void givenBigDecimalsOfSameScaleTooFarApartForLongDifference_whenWrittenAndRead_thenReturnSameIntervals() throws IOException {
+        List<List<BigDecimal>> intervals = List.of(
+                List.of(BigDecimal.valueOf(Long.MIN_VALUE, 3), BigDecimal.valueOf(Long.MAX_VALUE, 3)),
+                List.of(new BigDecimal(BigInteger.TWO.pow(70), 3), new BigDecimal(BigInteger.TWO.pow(70).add(BigInteger.ONE), 3)),
+                List.of(BigDecimal.valueOf(7, 3), BigDecimal.valueOf(8, 3)));
+
+        assertThat(read(BigDecimal.class, write(BigDecimal.class, intervals))).isEqualTo(intervals);
+    }
+
+    @Test
+    void givenMoreIntervalsThanFitIntoOneBlock_whenWrittenAndRead_thenSpanMultipleBlocks() throws IOException {
+        Random random = new Random(13);
+        List<List<Long>> intervals = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            long start = random.nextLong();
+            intervals.add(List.of(start, start + random.nextInt(1000)));
+        }
+        byte[] bytes = write(Long.class, intervals);
+        List<Integer> blockSizes = new ArrayList<>();
+
+        try (BinaryIntervalReader<Long> reader = new BinaryIntervalReader<>(Channels.newChannel(new ByteArrayInputStream(bytes)), Long.class)) {
+            int count;
+            while ((count = reader.readBlock((start, end) -> {
+            })) >= 0) {
+                blockSizes.add(count);
+            }
+        }
+
+        assertThat(blockSizes).hasSizeGreaterThan(1);
+        assertThat(blockSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(intervals.size());
+        assertThat(read(Long.class, bytes)).isEqualTo(intervals);
+    }
+
+    @Test
+    void givenUnsupportedType_whenCreatingWriter_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> new BinaryIntervalWriter<>(Channels.newChannel(new ByteArrayOutputStream()), String.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givenValueLargerThanBlock_whenWrite_thenThrowIllegalArgumentException() throws IOException {
+        BigInteger huge = BigInteger.ONE.shiftLeft(BinaryFormat.MAX_BLOCK_LENGTH * Byte.SIZE);
+        BinaryIntervalWriter<BigInteger> underTest = new BinaryIntervalWriter<>(Channels.newChannel(new ByteArrayOutputStream()), BigInteger.class);
+
+        assertThatThrownBy(() -> underTest.write(BigInteger.ZERO, huge))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,160 @@
+package interval.checkpoint;
+
+import interval.inplace.IntervalMerger;
+import nl.altindag.log.LogCaptor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class CheckpointStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private IntervalMerger<Long> restore() throws IOException {
+        IntervalMerger<Long> merger = new IntervalMerger<>();
+        try (CheckpointStore<Long> store = new CheckpointStore<>(directory, Long.class)) {
+            store.restore(merger);
+        }
+        return merger;
+    }
+
+    private void commitRun(long... bounds) throws IOException {
+        try (CheckpointStore<Long> store = new CheckpointStore<>(directory, Long.class)) {
+            store.restore(new IntervalMerger<>());
+            for (int i = 0; i < bounds.length; i += 2) {
+                store.append(bounds[i], bounds[i + 1]);
+            }
+            store.commit();
+        }
+    }
+
+    @Test
+    void givenEmptyDirectory_whenRestore_thenRestoreNothing() throws IOException {
+        IntervalMerger<Long> restored = new IntervalMerger<>();
+        CheckpointStore<Long> underTest = new CheckpointStore<>(directory.resolve("missing"), Long.class);
+
+        assertThat(underTest.restore(restored)).isZero();
+        assertThat(restored.size()).isZero();
+        assertThat(underTest.shouldCompact()).isFalse();
+    }
+
+    @Test
+    void givenCommittedRuns_whenRestore_thenReplayAllLoggedIntervals() throws IOException {
+        commitRun(1, 3, 10, 12);
+        commitRun(2, 5);
+
+        assertThat(restore().getMergedIntervals()).containsExactly(List.of(1L, 5L), List.of(10L, 12L));
+    }
+
+    @Test
+    void givenAbortedRun_whenRestore_thenIgnoreItsIntervals() throws IOException {
+        commitRun(1, 3);
+        long committedLength = Files.size(directory.resolve(CheckpointStore.LOG_FILE));
+        try (CheckpointStore<Long> underTest = new CheckpointStore<>(directory, Long.class)) {
+            underTest.append(5L, 8L);
+            underTest.abort();
+        }
+
+        assertThat(Files.size(directory.resolve(CheckpointStore.LOG_FILE))).isEqualTo(committedLength);
+        assertThat(restore().getMergedIntervals()).containsExactly(List.of(1L, 3L));
+    }
+
+    @Test
+    void givenUnfinishedRun_whenClose_thenDiscardItsIntervals() throws IOException {
+        commitRun(1, 3);
+        try (CheckpointStore<Long> underTest = new CheckpointStore<>(directory, Long.class)) {
+            underTest.append(5L, 8L);
+        }
+
+        assertThat(restore().getMergedIntervals()).containsExactly(List.of(1L, 3L));
+    }
+
+    @Test
+    void givenTornSegmentAtEndOfLog_whenRestore_thenDropSegmentAndWarn() throws IOException {
+        commitRun(1, 3);
+        Path logFile = directory.resolve(CheckpointStore.LOG_FILE);
+        long committedLength = Files.size(logFile);
+        byte[] segment = Files.readAllBytes(logFile);
+        Files.write(logFile, Arrays.copyOf(segment, segment.length - 3), StandardOpenOption.APPEND);
+        LogCaptor logCaptor = LogCaptor.forClass(CheckpointStore.class);
+
+        assertThat(restore().getMergedIntervals()).containsExactly(List.of(1L, 3L));
+        assertThat(logCaptor.getWarnLogs()).hasSize(1);
+        assertThat(Files.size(logFile)).isEqualTo(committedLength);
+    }
+
+    @Test
+    void givenLogLargerThanSnapshot_whenCompact_thenFoldLogIntoSnapshot() throws IOException {
+        commitRun(1, 3, 10, 12);
+        commitRun(2, 5, 11, 20);
+        IntervalMerger<Long> merged = restore();
+        CheckpointStore<Long> underTest = new CheckpointStore<>(directory, Long.class);
+        assertThat(underTest.shouldCompact()).isTrue();
+
+        underTest.compact(merged);
+
+        assertThat(Files.size(directory.resolve(CheckpointStore.LOG_FILE))).isZero();
+        assertThat(Files.exists(directory.resolve(CheckpointStore.SNAPSHOT_FILE))).isTrue();
+        assertThat(underTest.shouldCompact()).isFalse();
+        assertThat(restore().getMergedIntervals()).containsExactly(List.of(1L, 5L), List.of(10L, 20L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenSnapshotAndLog_whenRestore_thenLoadSnapshotAsSingleBatchAndReplayLog() throws IOException {
+        commitRun(1, 3, 10, 12);
+        new CheckpointStore<>(directory, Long.class).compact(restore());
+        commitRun(2, 5);
+        IntervalMerger<Long> merger = mock(IntervalMerger.class);
+
+        long restored = new CheckpointStore<>(directory, Long.class).restore(merger);
+
+        assertThat(restored).isEqualTo(3);
+        InOrder inOrder = inOrder(merger);
+        inOrder.verify(merger).insertAll(List.of(List.of(1L, 3L), List.of(10L, 12L)));
+        inOrder.verify(merger).insert(2L, 5L);
+        verifyNoMoreInteractions(merger);
+    }
+
+    @Test
+    void givenSnapshotAndLog_whenRestore_thenRestoreUnionOfBoth() throws IOException {
+        commitRun(1, 3);
+        new CheckpointStore<>(directory, Long.class).compact(restore());
+        commitRun(3, 7, 100, 200);
+
+        assertThat(restore().getMergedIntervals()).containsExactly(List.of(1L, 7L), List.of(100L, 200L));
+    }
+
+    @Test
+    void givenUncommittedRun_whenCompact_thenThrowIllegalStateException() throws IOException {
+        try (CheckpointStore<Long> underTest = new CheckpointStore<>(directory, Long.class)) {
+            underTest.append(1L, 2L);
+
+            assertThatThrownBy(() -> underTest.compact(new IntervalMerger<>())).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void givenCheckpointOfOtherValueType_whenRestore_thenThrowIllegalArgumentException() throws IOException {
+        commitRun(1, 3);
+        new CheckpointStore<>(directory, Long.class).compact(restore());
+        CheckpointStore<Integer> underTest = new CheckpointStore<>(directory, Integer.class);
+
+        assertThatThrownBy(() -> underTest.restore(new IntervalMerger<>())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
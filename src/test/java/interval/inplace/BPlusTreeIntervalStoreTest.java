@@ -0,0 +1,252 @@
+package interval.inplace;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BPlusTreeIntervalStoreTest {
+
+    private static final int SMALL_CAPACITY = 4;
+
+    private BPlusTreeIntervalStore<Long> underTest;
+
+    private static List<Interval<Long>> toList(Iterable<Interval<Long>> store) {
+        List<Interval<Long>> intervals = new ArrayList<>();
+        store.forEach(intervals::add);
+        return intervals;
+    }
+
+    private static List<Interval<Long>> disjunct(long... bounds) {
+        List<Interval<Long>> intervals = new ArrayList<>();
+        for (int i = 0; i < bounds.length; i += 2) {
+            intervals.add(new Interval<>(bounds[i], bounds[i + 1]));
+        }
+        return intervals;
+    }
+
+    @BeforeEach
+    void setUp() {
+        underTest = new BPlusTreeIntervalStore<>(SMALL_CAPACITY);
+    }
+
+    @Test
+    void givenTooSmallCapacity_whenConstruct_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> new BPlusTreeIntervalStore<Long>(3)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givenNoIntervals_whenQuery_thenReturnNothing() {
+        assertThat(underTest.size()).isZero();
+        assertThat(underTest.iterator().hasNext()).isFalse();
+        assertThat(underTest.findCovering(1L)).isNull();
+        assertThat(underTest.first()).isNull();
+        assertThat(underTest.last()).isNull();
+        List<Interval<Long>> overlapping = new ArrayList<>();
+        underTest.forEachOverlapping(0L, 10L, overlapping::add);
+        assertThat(overlapping).isEmpty();
+    }
+
+    @Test
+    void givenDisjunctIntervals_whenInsertBeyondCapacity_thenSplitAndKeepOrder() {
+        for (long start = 90; start >= 0; start -= 10) {
+            assertThat(underTest.insert(start, start + 1)).isZero();
+        }
+
+        assertThat(underTest.height()).isPositive();
+        assertThat(underTest.size()).isEqualTo(10);
+        assertThat(toList(underTest)).isEqualTo(disjunct(0, 1, 10, 11, 20, 21, 30, 31, 40, 41, 50, 51, 60, 61, 70, 71, 80, 81, 90, 91));
+    }
+
+    @Test
+    void givenIntervalOverlappingFloor_whenInsert_thenExtendFloorAndAbsorbRun() {
+        underTest.replaceAll(disjunct(0, 1, 10, 11, 20, 21, 30, 31, 40, 41, 50, 51, 60, 61));
+
+        assertThat(underTest.insert(11L, 45L)).isEqualTo(4);
+
+        assertThat(toList(underTest)).isEqualTo(disjunct(0, 1, 10, 45, 50, 51, 60, 61));
+    }
+
+    @Test
+    void givenIntervalOverlappingSuccessorOnly_whenInsert_thenReplaceSuccessorAndAbsorbRun() {
+        underTest.replaceAll(disjunct(0, 1, 10, 11, 20, 21, 30, 31, 40, 41, 50, 51, 60, 61));
+
+        assertThat(underTest.insert(15L, 50L)).isEqualTo(4);
+
+        assertThat(toList(underTest)).isEqualTo(disjunct(0, 1, 10, 11, 15, 51, 60, 61));
+    }
+
+    @Test
+    void givenIntervalCoveringAll_whenInsert_thenMergeIntoSingleInterval() {
+        for (long start = 0; start < 200; start += 2) {
+            underTest.insert(start, start);
+        }
+
+        assertThat(underTest.insert(-1L, 1000L)).isEqualTo(100);
+
+        assertThat(toList(underTest)).isEqualTo(disjunct(-1, 1000));
+        assertThat(underTest.leafCount()).isEqualTo(1);
+        assertThat(underTest.height()).isZero();
+    }
+
+    @Test
+    void givenIntervals_whenFindCovering_thenReturnIntervalContainingPoint() {
+        underTest.replaceAll(disjunct(0, 1, 10, 12, 20, 21, 30, 31, 40, 41, 50, 51, 60, 61));
+
+        assertThat(underTest.findCovering(11L)).isEqualTo(new Interval<>(10L, 12L));
+        assertThat(underTest.findCovering(40L)).isEqualTo(new Interval<>(40L, 41L));
+        assertThat(underTest.findCovering(61L)).isEqualTo(new Interval<>(60L, 61L));
+        assertThat(underTest.findCovering(13L)).isNull();
+        assertThat(underTest.findCovering(-1L)).isNull();
+        assertThat(underTest.findCovering(62L)).isNull();
+    }
+
+    @Test
+    void givenIntervals_whenForEachOverlapping_thenReturnOverlappingInOrder() {
+        underTest.replaceAll(disjunct(0, 1, 10, 12, 20, 21, 30, 31, 40, 41, 50, 51, 60, 61));
+        List<Interval<Long>> overlapping = new ArrayList<>();
+
+        underTest.forEachOverlapping(11L, 40L, overlapping::add);
+
+        assertThat(overlapping).isEqualTo(disjunct(10, 12, 20, 21, 30, 31, 40, 41));
+    }
+
+    @Test
+    void givenIntervals_whenEvictBefore_thenRemovePrefixInOrder() {
+        underTest.replaceAll(disjunct(0, 1, 10, 12, 20, 21, 30, 31, 40, 41, 50, 51, 60, 61));
+        List<Interval<Long>> evicted = new ArrayList<>();
+
+        underTest.evictBefore(41L, evicted::add);
+
+        assertThat(evicted).isEqualTo(disjunct(0, 1, 10, 12, 20, 21, 30, 31));
+        assertThat(toList(underTest)).isEqualTo(disjunct(40, 41, 50, 51, 60, 61));
+        assertThat(underTest.size()).isEqualTo(3);
+    }
+
+    @Test
+    void givenIntervals_whenEvictBeforeAll_thenStoreIsEmptyAndUsable() {
+        underTest.replaceAll(disjunct(0, 1, 10, 12, 20, 21, 30, 31, 40, 41, 50, 51, 60, 61));
+
+        underTest.evictBefore(100L, interval -> { });
+        underTest.insert(5L, 6L);
+
+        assertThat(toList(underTest)).isEqualTo(disjunct(5, 6));
+        assertThat(underTest.leafCount()).isEqualTo(1);
+    }
+
+    @Test
+    void givenManyDeletions_whenTreeBecomesSparse_thenRebuild() {
+        for (long start = 0; start < 1000; start += 2) {
+            underTest.insert(start, start);
+        }
+        int leavesBefore = underTest.leafCount();
+
+        for (long start = 0; start < 1000; start += 20) {
+            underTest.insert(start, start + 19);
+        }
+
+        assertThat(underTest.size()).isEqualTo(50);
+        assertThat(underTest.leafCount()).isLessThan(leavesBefore).isLessThanOrEqualTo(50 * 4 / SMALL_CAPACITY);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {4, 5, 16, 64})
+    void givenRandomOperations_whenApplied_thenBehaveAsTreeMapStore(int capacity) {
+        BPlusTreeIntervalStore<Long> bPlusTree = new BPlusTreeIntervalStore<>(capacity);
+        TreeMapIntervalStore<Long> treeMap = new TreeMapIntervalStore<>();
+        Random random = new Random(capacity);
+
+        for (int operation = 0; operation < 50_000; operation++) {
+            long start = random.nextInt(100_000);
+            int kind = random.nextInt(100);
+            if (kind < 90) {
+                long end = start + random.nextInt(kind < 85 ? 40 : 2000);
+                assertThat(bPlusTree.insert(start, end)).isEqualTo(treeMap.insert(start, end));
+            } else if (kind < 96) {
+                assertThat(bPlusTree.findCovering(start)).isEqualTo(treeMap.findCovering(start));
+            } else if (kind < 99) {
+                long to = start + random.nextInt(500);
+                List<Interval<Long>> expected = new ArrayList<>();
+                List<Interval<Long>> actual = new ArrayList<>();
+                treeMap.forEachOverlapping(start, to, expected::add);
+                bPlusTree.forEachOverlapping(start, to, actual::add);
+                assertThat(actual).isEqualTo(expected);
+            } else {
+                long point = random.nextInt(5_000) * (long) operation / 1_000;
+                List<Interval<Long>> expected = new ArrayList<>();
+                List<Interval<Long>> actual = new ArrayList<>();
+                treeMap.evictBefore(point, expected::add);
+                bPlusTree.evictBefore(point, actual::add);
+                assertThat(actual).isEqualTo(expected);
+                if (random.nextBoolean()) {
+                    treeMap.trimBefore(point);
+                    bPlusTree.trimBefore(point);
+                }
+            }
+            assertThat(bPlusTree.size()).isEqualTo(treeMap.size());
+            assertThat(bPlusTree.first()).isEqualTo(treeMap.first());
+            assertThat(bPlusTree.last()).isEqualTo(treeMap.last());
+        }
+
+        assertThat(toList(bPlusTree)).isEqualTo(toList(treeMap));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {4, 64})
+    void givenRandomInserts_whenReportingChanges_thenSumUpToCoveredLength(int capacity) {
+        BPlusTreeIntervalStore<Long> store = new BPlusTreeIntervalStore<>(capacity);
+        long[] coveredLength = new long[1];
+        IntervalStore.Changes<Long> changes = new IntervalStore.Changes<>() {
+            @Override
+            public void removed(Long start, Long end) {
+                coveredLength[0] -= end - start;
+            }
+
+            @Override
+            public void added(Long start, Long end) {
+                coveredLength[0] += end - start;
+            }
+        };
+        Random random = new Random(capacity);
+
+        for (int insert = 0; insert < 20_000; insert++) {
+            long start = random.nextInt(100_000);
+            store.insert(start, start + random.nextInt(insert % 100 == 0 ? 2000 : 40), changes);
+        }
+
+        long expected = 0;
+        for (Interval<Long> interval : store) {
+            expected += interval.getEnd() - interval.getStart();
+        }
+        assertThat(coveredLength[0]).isEqualTo(expected);
+    }
+
+    @Test
+    void givenIntervals_whenFirstAndLast_thenReturnBoundingIntervals() {
+        for (long start = 0; start < 100; start += 3) {
+            underTest.insert(start, start + 1);
+        }
+
+        assertThat(underTest.height()).isPositive();
+        assertThat(underTest.first()).isEqualTo(new Interval<>(0L, 1L));
+        assertThat(underTest.last()).isEqualTo(new Interval<>(99L, 100L));
+    }
+
+    @Test
+    void givenFirstIntervalReachingBeforePoint_whenTrimBefore_thenCutItAtPoint() {
+        underTest.replaceAll(disjunct(0, 5, 10, 12, 20, 21, 30, 31, 40, 41));
+
+        underTest.trimBefore(3L);
+        underTest.insert(1L, 2L);
+
+        assertThat(toList(underTest)).isEqualTo(disjunct(1, 2, 3, 5, 10, 12, 20, 21, 30, 31, 40, 41));
+    }
+
+}
@@ -0,0 +1,203 @@
+package interval.inplace;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrentIntervalTreeTest {
+
+    private static final int THREADS = 8;
+
+    private ConcurrentIntervalTree<Long> underTest;
+
+    private static void assertSortedAndDisjunct(List<List<Long>> intervals) {
+        for (int i = 1; i < intervals.size(); i++) {
+            assertThat(intervals.get(i).get(0)).isGreaterThan(intervals.get(i - 1).get(1));
+        }
+    }
+
+    private static List<Long> shardBoundaries(long range, int shards) {
+        List<Long> boundaries = new ArrayList<>();
+        for (int shard = 1; shard < shards; shard++) {
+            boundaries.add(range / shards * shard);
+        }
+        return boundaries;
+    }
+
+    @BeforeEach
+    void setUp() {
+        underTest = new ConcurrentIntervalTree<>();
+    }
+
+    @Test
+    void givenNoIntervals_whenGetIntervals_thenReturnEmptyList() {
+        assertThat(underTest.getIntervals()).isEmpty();
+        assertThat(underTest.size()).isZero();
+    }
+
+    @Test
+    void givenIntervalOverlappingOverAllAtEnd_whenInsert_thenMergeIntoSingleInterval() {
+        underTest.insert(1L, 2L);
+        underTest.insert(9L, 10L);
+        underTest.insert(5L, 5L);
+        underTest.insert(1L, 10L);
+
+        assertThat(underTest.getIntervals()).isEqualTo(List.of(List.of(1L, 10L)));
+        assertThat(underTest.size()).isEqualTo(1);
+    }
+
+    @Test
+    void givenIllegalInterval_whenInsert_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> underTest.insert(1L, 0L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givenRandomIntervals_whenInsertSequentially_thenReturnSameAsIntervalMerger() {
+        List<List<Long>> intervals = TestIntervals.random(20_000, 21);
+
+        intervals.forEach(interval -> underTest.insert(interval.get(0), interval.get(1)));
+
+        assertThat(underTest.getIntervals()).isEqualTo(new IntervalMerger<Long>(MergeStrategy.INSERTION).merge(intervals));
+    }
+
+    @Test
+    void givenDescendingBoundaries_whenCreate_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> new ConcurrentIntervalTree<>(List.of(10L, 10L))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givenIntervalsAtAndAcrossBoundaries_whenInsert_thenJoinPiecesOfEachInterval() {
+        underTest = new ConcurrentIntervalTree<>(List.of(10L, 20L, 30L));
+        underTest.insert(5L, 10L);
+        underTest.insert(10L, 12L);
+        underTest.insert(20L, 20L);
+        underTest.insert(25L, 35L);
+        underTest.insert(40L, 40L);
+        underTest.insert(30L, 30L);
+
+        assertThat(underTest.getIntervals()).isEqualTo(List.of(List.of(5L, 12L), List.of(20L, 20L), List.of(25L, 35L), List.of(40L, 40L)));
+        assertThat(underTest.size()).isEqualTo(4);
+    }
+
+    @Test
+    void givenIntervalSpanningAllShards_whenInsert_thenMergeIntoSingleInterval() {
+        underTest = new ConcurrentIntervalTree<>(List.of(10L, 20L, 30L));
+        underTest.insert(1L, 2L);
+        underTest.insert(15L, 16L);
+        underTest.insert(1L, 40L);
+
+        assertThat(underTest.getIntervals()).isEqualTo(List.of(List.of(1L, 40L)));
+        assertThat(underTest.size()).isEqualTo(1);
+    }
+
+    @Test
+    void givenShards_whenInsertRandomIntervalsSequentially_thenReturnSameAsIntervalMerger() {
+        underTest = new ConcurrentIntervalTree<>(shardBoundaries(200_000, 16));
+        List<List<Long>> intervals = TestIntervals.random(20_000, 24);
+
+        intervals.forEach(interval -> underTest.insert(interval.get(0), interval.get(1)));
+
+        List<List<Long>> expected = new IntervalMerger<Long>(MergeStrategy.INSERTION).merge(intervals);
+        assertThat(underTest.getIntervals()).isEqualTo(expected);
+        assertThat(underTest.size()).isEqualTo(expected.size());
+    }
+
+    @Test
+    void givenManyProducers_whenInsertConcurrently_thenReturnSameAsIntervalMerger() throws Exception {
+        insertConcurrentlyAndCompare();
+    }
+
+    @Test
+    void givenShardsAndManyProducers_whenInsertConcurrently_thenReturnSameAsIntervalMerger() throws Exception {
+        underTest = new ConcurrentIntervalTree<>(shardBoundaries(800_000, 64));
+
+        insertConcurrentlyAndCompare();
+    }
+
+    private void insertConcurrentlyAndCompare() throws Exception {
+        List<List<Long>> intervals = TestIntervals.random(80_000, 22);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<?>> producers = new ArrayList<>();
+        int share = intervals.size() / THREADS;
+        for (int thread = 0; thread < THREADS; thread++) {
+            List<List<Long>> ownIntervals = intervals.subList(thread * share, (thread + 1) * share);
+            producers.add(executor.submit(() -> {
+                startSignal.await();
+                ownIntervals.forEach(interval -> underTest.insert(interval.get(0), interval.get(1)));
+                return null;
+            }));
+        }
+
+        startSignal.countDown();
+        for (Future<?> producer : producers) {
+            producer.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(underTest.getIntervals()).isEqualTo(new IntervalMerger<Long>(MergeStrategy.INSERTION).merge(intervals));
+    }
+
+    @Test
+    void givenConcurrentProducers_whenGetIntervals_thenAlwaysReturnDisjunctSnapshot() throws Exception {
+        getSnapshotsWhileProducing();
+    }
+
+    @Test
+    void givenShardsAndConcurrentProducers_whenGetIntervals_thenAlwaysReturnDisjunctSnapshot() throws Exception {
+        underTest = new ConcurrentIntervalTree<>(shardBoundaries(500_000, 1024));
+
+        getSnapshotsWhileProducing();
+    }
+
+    @Test
+    void givenProducerOfIntervalsSpanningAllShards_whenGetIntervals_thenNeverReturnPartOfAnInterval() throws Exception {
+        underTest = new ConcurrentIntervalTree<>(shardBoundaries(1_000, 8));
+        AtomicBoolean producing = new AtomicBoolean(true);
+        Thread producer = new Thread(() -> {
+            for (long i = 0; i < 10_000; i++) {
+                underTest.insert(-2 * i, 1_000 + 2 * i);
+            }
+            producing.set(false);
+        });
+
+        producer.start();
+        while (producing.get()) {
+            List<List<Long>> snapshot = underTest.getIntervals();
+            assertThat(snapshot).hasSizeLessThanOrEqualTo(1);
+            snapshot.forEach(interval -> assertThat(interval.get(0) + interval.get(1)).isEqualTo(1_000L));
+        }
+        producer.join();
+    }
+
+    private void getSnapshotsWhileProducing() throws Exception {
+        List<List<Long>> intervals = TestIntervals.random(50_000, 23);
+        AtomicBoolean producing = new AtomicBoolean(true);
+        Thread producer = new Thread(() -> {
+            intervals.forEach(interval -> underTest.insert(interval.get(0), interval.get(1)));
+            producing.set(false);
+        });
+
+        producer.start();
+        int snapshots = 0;
+        while (producing.get() || snapshots == 0) {
+            assertSortedAndDisjunct(underTest.getIntervals());
+            snapshots++;
+        }
+        producer.join();
+
+        assertThat(snapshots).isPositive();
+    }
+
+}
@@ -0,0 +1,52 @@
+package interval.inplace;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DoubleIntervalMergerTest {
+
+    private DoubleIntervalMerger underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new DoubleIntervalMerger();
+    }
+
+    @Test
+    void givenOverlappingIntervals_whenMerging_thenReturnMergedIntervals() {
+        List<List<Double>> expected = List.of(List.of(0.5, 2.5), List.of(3.0, 3.0));
+        List<List<Double>> intervals = List.of(List.of(3.0, 3.0), List.of(1.5, 2.5), List.of(0.5, 1.5));
+
+        List<List<Double>> actual = underTest.merge(intervals);
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void givenNaN_whenInsert_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> underTest.insert(Double.NaN, 1.0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> underTest.insert(1.0, Double.NaN)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givenManyRandomIntervals_whenMerging_thenReturnSameAsIntervalMerger() {
+        Random random = new Random(7);
+        List<List<Double>> intervals = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            double start = random.nextDouble() * 1_000;
+            intervals.add(List.of(start, start + random.nextDouble() / 10));
+        }
+
+        List<List<Double>> actual = underTest.merge(intervals);
+
+        assertThat(actual).isEqualTo(new IntervalMerger<Double>().merge(intervals));
+    }
+
+}
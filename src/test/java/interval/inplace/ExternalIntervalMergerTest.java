@@ -0,0 +1,132 @@
+package interval.inplace;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExternalIntervalMergerTest {
+
+    @TempDir
+    Path temporaryDirectory;
+
+    private static List<List<Long>> mergeExternally(ExternalIntervalMerger<Long> underTest, List<List<Long>> intervals) throws IOException {
+        intervals.forEach(interval -> underTest.insert(interval.get(0), interval.get(1)));
+        List<List<Long>> merged = new ArrayList<>();
+        underTest.mergeTo((start, end) -> merged.add(List.of(start, end)));
+        return merged;
+    }
+
+    private long runFilesOnDisk() throws IOException {
+        try (Stream<Path> files = Files.list(temporaryDirectory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void givenFewerIntervalsThanBudget_whenMergeTo_thenDoNotWriteRuns() throws IOException {
+        ExternalIntervalMerger<Long> underTest = new ExternalIntervalMerger<>(100, temporaryDirectory, Long.class);
+
+        List<List<Long>> actual = mergeExternally(underTest, List.of(List.of(5L, 7L), List.of(1L, 2L), List.of(2L, 3L)));
+
+        assertThat(actual).isEqualTo(List.of(List.of(1L, 3L), List.of(5L, 7L)));
+        assertThat(underTest.getRunCount()).isZero();
+    }
+
+    @Test
+    void givenMoreIntervalsThanBudget_whenMergeTo_thenReturnSameAsIntervalMerger() throws IOException {
+        List<List<Long>> intervals = TestIntervals.random(20_000, 11);
+        ExternalIntervalMerger<Long> underTest = new ExternalIntervalMerger<>(500, temporaryDirectory, Long.class);
+
+        List<List<Long>> actual = mergeExternally(underTest, intervals);
+
+        assertThat(actual).isEqualTo(new IntervalMerger<Long>().merge(intervals));
+        assertThat(underTest.getRunCount()).isGreaterThan(1);
+    }
+
+    @Test
+    void givenMoreRunsThanMergedAtOnce_whenMergeTo_thenMergeInSeveralPasses() throws IOException {
+        List<List<Long>> intervals = TestIntervals.random(5_000, 12);
+        ExternalIntervalMerger<Long> underTest = new ExternalIntervalMerger<>(10, temporaryDirectory, Long.class);
+
+        List<List<Long>> actual = mergeExternally(underTest, intervals);
+
+        assertThat(actual).isEqualTo(new IntervalMerger<Long>().merge(intervals));
+        assertThat(underTest.getRunCount()).isLessThanOrEqualTo(ExternalIntervalMerger.MAX_RUNS_PER_MERGE);
+        assertThat(runFilesOnDisk()).isEqualTo(underTest.getRunCount());
+    }
+
+    @Test
+    void givenBigDecimals_whenMergeTo_thenReadValuesBackUnchanged() throws IOException {
+        ExternalIntervalMerger<BigDecimal> underTest = new ExternalIntervalMerger<>(1, temporaryDirectory, BigDecimal.class);
+        underTest.insert(new BigDecimal("1E+3"), new BigDecimal("2000.50"));
+        underTest.insert(new BigDecimal("-0.001"), new BigDecimal("0"));
+        List<List<BigDecimal>> actual = new ArrayList<>();
+
+        underTest.mergeTo((start, end) -> actual.add(List.of(start, end)));
+
+        assertThat(actual).isEqualTo(List.of(List.of(new BigDecimal("-0.001"), new BigDecimal("0")),
+                List.of(new BigDecimal("1E+3"), new BigDecimal("2000.50"))));
+    }
+
+    @Test
+    void givenWrittenRuns_whenClose_thenDeleteRuns() throws IOException {
+        ExternalIntervalMerger<Long> underTest = new ExternalIntervalMerger<>(2, temporaryDirectory, Long.class);
+        mergeExternally(underTest, TestIntervals.random(100, 13));
+
+        underTest.close();
+
+        assertThat(runFilesOnDisk()).isZero();
+    }
+
+    @Test
+    void givenBigDecimalsWithExponent_whenMergeTo_thenKeepScale() throws IOException {
+        ExternalIntervalMerger<BigDecimal> underTest = new ExternalIntervalMerger<>(1, temporaryDirectory, BigDecimal.class);
+        underTest.insert(new BigDecimal("-1E-400"), new BigDecimal("1.000"));
+        underTest.insert(new BigDecimal("5E+400"), new BigDecimal("5E+400"));
+        List<List<BigDecimal>> actual = new ArrayList<>();
+
+        underTest.mergeTo((start, end) -> actual.add(List.of(start, end)));
+
+        assertThat(actual).isEqualTo(List.of(List.of(new BigDecimal("-1E-400"), new BigDecimal("1.000")),
+                List.of(new BigDecimal("5E+400"), new BigDecimal("5E+400"))));
+    }
+
+    @Test
+    void givenUnreadableRun_whenMergeTo_thenDeleteRunOfFailedMerge() throws IOException {
+        ExternalIntervalMerger<Long> underTest = new ExternalIntervalMerger<>(1, temporaryDirectory, Long.class);
+        for (long i = 0; i <= ExternalIntervalMerger.MAX_RUNS_PER_MERGE; i++) {
+            underTest.insert(3 * i, 3 * i + 1);
+        }
+        try (Stream<Path> files = Files.list(temporaryDirectory)) {
+            for (Path run : (Iterable<Path>) files::iterator) {
+                Files.write(run, new byte[]{1, 2, 3});
+            }
+        }
+
+        assertThatThrownBy(() -> underTest.mergeTo((start, end) -> { })).isInstanceOf(IOException.class);
+        assertThat(runFilesOnDisk()).isEqualTo(ExternalIntervalMerger.MAX_RUNS_PER_MERGE + 1);
+    }
+
+    @Test
+    void givenUnsupportedValueType_whenInstantiating_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> new ExternalIntervalMerger<>(10, temporaryDirectory, String.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givenEmptyBudget_whenInstantiating_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> new ExternalIntervalMerger<>(0, temporaryDirectory, Long.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,263 @@
+package interval.inplace;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IntervalMergeProcessorTest {
+
+    /**
+     * Publisher handing out intervals synchronously within request, recording the largest number of intervals
+     * requested but not yet delivered.
+     */
+    private static final class RecordingPublisher implements Flow.Subscription {
+
+        private final List<List<Long>> intervals;
+        private Flow.Subscriber<? super List<Long>> subscriber;
+        private int next;
+        private long requested;
+        private long maxOutstanding;
+        private boolean cancelled;
+
+        private RecordingPublisher(List<List<Long>> intervals) {
+            this.intervals = intervals;
+        }
+
+        private void subscribe(Flow.Subscriber<? super List<Long>> subscriber) {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(this);
+        }
+
+        @Override
+        public void request(long n) {
+            requested += n;
+            maxOutstanding = Math.max(maxOutstanding, requested);
+            while (requested > 0 && next < intervals.size() && !cancelled) {
+                requested--;
+                subscriber.onNext(intervals.get(next++));
+            }
+            if (next == intervals.size() && !cancelled) {
+                next++;
+                subscriber.onComplete();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+    }
+
+    private static final class CollectingSubscriber implements Flow.Subscriber<List<Long>> {
+
+        private final List<List<Long>> received = new ArrayList<>();
+        private final CompletableFuture<List<List<Long>>> result = new CompletableFuture<>();
+        private final long initialRequest;
+        private final long requestPerItem;
+        private Flow.Subscription subscription;
+
+        private CollectingSubscriber(long initialRequest, long requestPerItem) {
+            this.initialRequest = initialRequest;
+            this.requestPerItem = requestPerItem;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(List<Long> item) {
+            received.add(item);
+            if (requestPerItem > 0) {
+                subscription.request(requestPerItem);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(received);
+        }
+
+    }
+
+    @Test
+    void givenNonPositiveBufferSize_whenConstruct_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> new IntervalMergeProcessor<Long>(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givenAsynchronousPublisher_whenComplete_thenPublishSameAsIntervalMerger() throws Exception {
+        List<List<Long>> intervals = TestIntervals.random(20_000, 31);
+        IntervalMergeProcessor<Long> underTest = new IntervalMergeProcessor<>(IntervalMergeProcessor.DEFAULT_BUFFER_SIZE);
+        CollectingSubscriber subscriber = new CollectingSubscriber(1, 1);
+        underTest.subscribe(subscriber);
+
+        try (SubmissionPublisher<List<Long>> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(underTest);
+            intervals.forEach(publisher::submit);
+        }
+
+        assertThat(subscriber.result.get(10, TimeUnit.SECONDS)).isEqualTo(new IntervalMerger<Long>().merge(intervals));
+    }
+
+    @Test
+    void givenFastPublisher_whenMerging_thenNeverRequestMoreThanBufferSize() {
+        RecordingPublisher publisher = new RecordingPublisher(TestIntervals.random(10_000, 32));
+        IntervalMergeProcessor<Long> underTest = new IntervalMergeProcessor<>(16);
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE, 0);
+        underTest.subscribe(subscriber);
+
+        publisher.subscribe(underTest);
+
+        assertThat(publisher.maxOutstanding).isLessThanOrEqualTo(16);
+        assertThat(subscriber.result).isCompletedWithValue(new IntervalMerger<Long>().merge(publisher.intervals));
+    }
+
+    @Test
+    void givenIncrementalModeAndSubscriberWithoutDemand_whenMerging_thenStopRequestingOnceBufferIsFull() {
+        List<List<Long>> intervals = new ArrayList<>();
+        for (long i = 0; i < 1_000; i++) {
+            intervals.add(List.of(10 * i, 10 * i + 1));
+        }
+        RecordingPublisher publisher = new RecordingPublisher(intervals);
+        IntervalMergeProcessor<Long> underTest = new IntervalMergeProcessor<>(8, start -> start);
+        CollectingSubscriber subscriber = new CollectingSubscriber(0, 0);
+        underTest.subscribe(subscriber);
+
+        publisher.subscribe(underTest);
+
+        assertThat(publisher.next).isLessThanOrEqualTo(16);
+        assertThat(subscriber.received).isEmpty();
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertThat(subscriber.result).isCompletedWithValue(intervals);
+    }
+
+    @Test
+    void givenIncrementalMode_whenIntervalsBecomeFinal_thenPublishBeforeCompletion() {
+        IntervalMergeProcessor<Long> underTest = new IntervalMergeProcessor<>(8, start -> start - 5);
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE, 0);
+        underTest.subscribe(subscriber);
+        underTest.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+
+        underTest.onNext(List.of(1L, 3L));
+        underTest.onNext(List.of(2L, 4L));
+        underTest.onNext(List.of(20L, 22L));
+
+        assertThat(subscriber.received).containsExactly(List.of(1L, 4L));
+        underTest.onComplete();
+        assertThat(subscriber.result).isCompletedWithValue(List.of(List.of(1L, 4L), List.of(20L, 22L)));
+    }
+
+    @Test
+    void givenSubscriberRequestingFromAnotherThread_whenPublisherDeliversConcurrently_thenPublishSameAsIntervalMerger() throws Exception {
+        List<List<Long>> intervals = TestIntervals.random(20_000, 34);
+        IntervalMergeProcessor<Long> underTest = new IntervalMergeProcessor<>(16);
+        CollectingSubscriber subscriber = new CollectingSubscriber(0, 0);
+        underTest.subscribe(subscriber);
+        Thread requester = new Thread(() -> {
+            while (!subscriber.result.isDone()) {
+                subscriber.subscription.request(1);
+                Thread.onSpinWait();
+            }
+        });
+        requester.start();
+
+        try (SubmissionPublisher<List<Long>> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(underTest);
+            intervals.forEach(publisher::submit);
+        }
+
+        assertThat(subscriber.result.get(1, TimeUnit.MINUTES)).isEqualTo(new IntervalMerger<Long>(MergeStrategy.INSERTION).merge(intervals));
+        requester.join();
+    }
+
+    @Test
+    void givenIllegalInterval_whenOnNext_thenCancelPublisherAndSignalError() {
+        RecordingPublisher publisher = new RecordingPublisher(List.of(List.of(1L, 3L), List.of(5L, 4L), List.of(7L, 8L)));
+        IntervalMergeProcessor<Long> underTest = new IntervalMergeProcessor<>(4);
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE, 0);
+        underTest.subscribe(subscriber);
+
+        publisher.subscribe(underTest);
+
+        assertThat(publisher.cancelled).isTrue();
+        assertThat(subscriber.result).isCompletedExceptionally();
+        assertThatThrownBy(subscriber.result::join).hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @ParameterizedTest
+    @MethodSource("malformedIntervals")
+    void givenMalformedInterval_whenOnNext_thenCancelPublisherAndSignalError(List<Long> malformed) {
+        RecordingPublisher publisher = new RecordingPublisher(Arrays.asList(List.of(1L, 3L), malformed, List.of(7L, 8L)));
+        IntervalMergeProcessor<Long> underTest = new IntervalMergeProcessor<>(4, start -> start);
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE, 0);
+        underTest.subscribe(subscriber);
+
+        publisher.subscribe(underTest);
+
+        assertThat(publisher.cancelled).isTrue();
+        assertThatThrownBy(subscriber.result::join).hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Stream<List<Long>> malformedIntervals() {
+        return Stream.of(null, List.of(), List.of(1L), List.of(1L, 2L, 3L), Arrays.asList(1L, null));
+    }
+
+    @Test
+    void givenSecondSubscriber_whenSubscribe_thenSignalIllegalStateException() {
+        IntervalMergeProcessor<Long> underTest = new IntervalMergeProcessor<>(4);
+        underTest.subscribe(new CollectingSubscriber(1, 0));
+        CollectingSubscriber second = new CollectingSubscriber(1, 0);
+
+        underTest.subscribe(second);
+
+        assertThatThrownBy(second.result::join).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void givenCancellingSubscriber_whenCancel_thenCancelPublisher() {
+        RecordingPublisher publisher = new RecordingPublisher(TestIntervals.random(100, 33));
+        IntervalMergeProcessor<Long> underTest = new IntervalMergeProcessor<>(4, start -> start);
+        CollectingSubscriber subscriber = new CollectingSubscriber(1, 0);
+        underTest.subscribe(subscriber);
+        subscriber.subscription.cancel();
+
+        publisher.subscribe(underTest);
+
+        assertThat(publisher.cancelled).isTrue();
+        assertThat(subscriber.result).isNotDone();
+    }
+
+}
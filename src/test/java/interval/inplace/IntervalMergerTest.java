@@ -1,14 +1,24 @@
 package interval.inplace;
 
+import interval.metrics.MergerMetrics;
+import interval.metrics.RecordingMergerMetrics;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Stream;
 
 class IntervalMergerTest {
@@ -51,6 +61,40 @@ class IntervalMergerTest {
         );
     }
 
+    private static Stream<Arguments> overlapQueries() {
+        return Stream.of(
+                Arguments.of(3L, 4L, List.of()),
+                Arguments.of(0L, 0L, List.of()),
+                Arguments.of(21L, 30L, List.of()),
+                Arguments.of(2L, 5L, List.of(List.of(1L, 2L), List.of(5L, 7L))),
+                Arguments.of(6L, 6L, List.of(List.of(5L, 7L))),
+                Arguments.of(3L, 10L, List.of(List.of(5L, 7L), List.of(10L, 12L))),
+                Arguments.of(0L, 100L, List.of(List.of(1L, 2L), List.of(5L, 7L), List.of(10L, 12L), List.of(20L, 20L)))
+        );
+    }
+
+    private static Stream<Arguments> allIntervalsForEachStrategy() {
+        return Stream.of(MergeStrategy.values())
+                .flatMap(strategy -> Stream.of(repeatingIntervals(), nonInterleavingIntervals(), interleavingIntervalsOneSide(), interleavingIntervalsBothSides())
+                        .flatMap(arguments -> arguments)
+                        .map(arguments -> Arguments.of(strategy, arguments.get()[0], arguments.get()[1])));
+    }
+
+    private static IntervalMerger<Long> randomMerger(Random random) {
+        IntervalMerger<Long> merger = new IntervalMerger<>();
+        for (int i = 0; i < 15; i++) {
+            long start = random.nextInt(300);
+            merger.insert(start, start + random.nextInt(25));
+        }
+        return merger;
+    }
+
+    private static BitSet coverage(IntervalMerger<Long> merger) {
+        BitSet covered = new BitSet();
+        merger.getMergedIntervals().forEach(interval -> covered.set(interval.get(0).intValue(), interval.get(1).intValue() + 1));
+        return covered;
+    }
+
     @BeforeEach
     void setUp() {
         underTest = new IntervalMerger<>();
@@ -101,6 +145,395 @@ class IntervalMergerTest {
         intervalTest(intervals, expected);
     }
 
+    @ParameterizedTest(name = "Expect {1} with strategy {0} for intervals {2}")
+    @MethodSource("allIntervalsForEachStrategy")
+    void givenStrategy_whenMerging_thenReturnMergedIntervals(MergeStrategy strategy, List<List<Long>> expected, List<List<Long>> intervals) {
+        underTest = new IntervalMerger<>(strategy);
+
+        intervalTest(intervals, expected);
+    }
+
+    @ParameterizedTest(name = "Expect same result as insertion with strategy {0}")
+    @EnumSource(MergeStrategy.class)
+    void givenLargeRandomBatches_whenMerging_thenReturnSameAsInsertion(MergeStrategy strategy) {
+        IntervalMerger<Long> reference = new IntervalMerger<>(MergeStrategy.INSERTION);
+        underTest = new IntervalMerger<>(strategy);
+        List<List<Long>> firstBatch = TestIntervals.random(5_000, 1);
+        List<List<Long>> secondBatch = TestIntervals.random(20_000, 2);
+
+        Assertions.assertThat(underTest.merge(firstBatch)).isEqualTo(reference.merge(firstBatch));
+        Assertions.assertThat(underTest.merge(secondBatch)).isEqualTo(reference.merge(secondBatch));
+    }
+
+    @ParameterizedTest(name = "Expect same result as insertion in parallel with strategy {0}")
+    @EnumSource(value = MergeStrategy.class, names = {"PARALLEL", "AUTOMATIC"})
+    void givenBatchAboveParallelismThreshold_whenMerging_thenReturnSameAsInsertion(MergeStrategy strategy) {
+        IntervalMerger<Long> reference = new IntervalMerger<>(MergeStrategy.INSERTION);
+        underTest = new IntervalMerger<>(strategy, 2_000);
+        List<List<Long>> firstBatch = TestIntervals.random(3_000, 3);
+        List<List<Long>> secondBatch = new LinkedList<>(TestIntervals.random(100_000, 4));
+
+        Assertions.assertThat(underTest.merge(firstBatch)).isEqualTo(reference.merge(firstBatch));
+        Assertions.assertThat(underTest.merge(secondBatch)).isEqualTo(reference.merge(secondBatch));
+    }
+
+    @Test
+    void givenSortedBatch_whenMergingWithSortAndSweep_thenReturnMergedIntervals() {
+        underTest = new IntervalMerger<>(MergeStrategy.SORT_AND_SWEEP);
+        List<List<Long>> intervals = new ArrayList<>();
+        for (long i = 0; i < 10_000; i++) {
+            intervals.add(List.of(3 * i, 3 * i + (i % 2 == 0 ? 3 : 1)));
+        }
+
+        List<List<Long>> actual = underTest.merge(intervals);
+
+        Assertions.assertThat(actual).hasSize(5_000).startsWith(List.of(0L, 4L)).endsWith(List.of(29_994L, 29_998L));
+    }
+
+    @Test
+    void givenIntervalsMergedByInsertion_whenMergingWithSortAndSweep_thenIncludePreviousIntervals() {
+        underTest = new IntervalMerger<>(MergeStrategy.SORT_AND_SWEEP);
+        underTest.insert(10L, 20L);
+        underTest.insert(40L, 50L);
+
+        List<List<Long>> actual = underTest.merge(List.of(List.of(15L, 30L), List.of(0L, 1L)));
+
+        Assertions.assertThat(actual).isEqualTo(List.of(List.of(0L, 1L), List.of(10L, 30L), List.of(40L, 50L)));
+    }
+
+    @ParameterizedTest(name = "Expect covered={1} for point {0}")
+    @CsvSource({"0, false", "1, true", "2, true", "3, false", "5, true", "7, true", "8, false"})
+    void givenMergedIntervals_whenCovers_thenReturnWhetherPointIsCovered(long point, boolean expected) {
+        underTest.merge(List.of(List.of(1L, 2L), List.of(5L, 7L)));
+
+        Assertions.assertThat(underTest.covers(point)).isEqualTo(expected);
+    }
+
+    @Test
+    void givenMergedIntervals_whenGetCoveringInterval_thenReturnIntervalContainingPoint() {
+        underTest.merge(List.of(List.of(1L, 2L), List.of(5L, 6L), List.of(6L, 9L)));
+
+        Assertions.assertThat(underTest.getCoveringInterval(7L)).hasValue(List.of(5L, 9L));
+        Assertions.assertThat(underTest.getCoveringInterval(4L)).isEmpty();
+    }
+
+    @ParameterizedTest(name = "Expect {2} overlapping [{0}, {1}]")
+    @MethodSource("overlapQueries")
+    void givenMergedIntervals_whenGetOverlappingIntervals_thenReturnOnlyOverlapping(long from, long to, List<List<Long>> expected) {
+        underTest.merge(List.of(List.of(1L, 2L), List.of(5L, 7L), List.of(10L, 12L), List.of(20L, 20L)));
+
+        Assertions.assertThat(underTest.getOverlappingIntervals(from, to)).isEqualTo(expected);
+    }
+
+    @Test
+    void givenInvalidRange_whenGetOverlappingIntervals_thenThrowIllegalArgumentException() {
+        Assertions.assertThatThrownBy(() -> underTest.getOverlappingIntervals(2L, 1L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givenInvalidInterval_whenInsert_thenThrowIllegalArgumentExceptionAndKeepIntervals() {
+        underTest.insert(1L, 3L);
+
+        Assertions.assertThatThrownBy(() -> underTest.insert(5L, 4L)).isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThat(underTest.getMergedIntervals()).containsExactly(List.of(1L, 3L));
+    }
+
+    @ParameterizedTest
+    @EnumSource(MergeStrategy.class)
+    void givenLength_whenMerging_thenMaintainCoveredLengthAndBounds(MergeStrategy strategy) {
+        IntervalMerger<Long> merger = new IntervalMerger<>(strategy, 2, MergerMetrics.disabled(), IntervalLength.longs());
+        Random random = new Random(3);
+        for (int batch = 0; batch < 20; batch++) {
+            List<List<Long>> intervals = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                long start = random.nextInt(100_000);
+                intervals.add(List.of(start, start + random.nextInt(50)));
+            }
+            merger.merge(intervals);
+            merger.insert(-5L, -1L);
+        }
+
+        List<List<Long>> merged = merger.getMergedIntervals();
+        Assertions.assertThat(merger.getCoveredLength())
+                .isEqualTo(merged.stream().mapToDouble(interval -> interval.get(1) - interval.get(0)).sum());
+        Assertions.assertThat(merger.size()).isEqualTo(merged.size());
+        Assertions.assertThat(merger.getBounds())
+                .contains(List.of(merged.get(0).get(0), merged.get(merged.size() - 1).get(1)));
+    }
+
+    @Test
+    void givenBigDecimalLength_whenManyOverlappingInserts_thenCoveredLengthEqualsRecomputation() {
+        IntervalMerger<BigDecimal> merger = new IntervalMerger<>(MergeStrategy.INSERTION, IntervalMerger.DEFAULT_PARALLELISM_THRESHOLD,
+                MergerMetrics.disabled(), IntervalLength.bigDecimals());
+        Random random = new Random(5);
+        for (int i = 0; i < 50_000; i++) {
+            BigDecimal start = BigDecimal.valueOf(random.nextInt(10_000_000), 3);
+            merger.insert(start, start.add(BigDecimal.valueOf(random.nextInt(1_000), 3)));
+        }
+
+        Assertions.assertThat(merger.getCoveredLength()).isEqualTo(merger.getMergedIntervals().stream()
+                .map(interval -> interval.get(1).subtract(interval.get(0)))
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .doubleValue());
+    }
+
+    @Test
+    void givenDoubleLength_whenManyOverlappingInserts_thenCoveredLengthEqualsRecomputation() {
+        IntervalMerger<Double> merger = new IntervalMerger<>(MergeStrategy.INSERTION, IntervalMerger.DEFAULT_PARALLELISM_THRESHOLD,
+                MergerMetrics.disabled(), IntervalLength.doubles());
+        Random random = new Random(6);
+        for (int i = 0; i < 50_000; i++) {
+            double start = random.nextDouble() * 10_000;
+            merger.insert(start, start + random.nextDouble() / 10);
+        }
+
+        Assertions.assertThat(merger.getCoveredLength()).isEqualTo(merger.getMergedIntervals().stream()
+                .map(interval -> new BigDecimal(interval.get(1)).subtract(new BigDecimal(interval.get(0))))
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .doubleValue());
+    }
+
+    @Test
+    void givenDoubleLength_whenIntervalReachesInfinity_thenCoveredLengthStaysInfinite() {
+        IntervalMerger<Double> merger = new IntervalMerger<>(MergeStrategy.INSERTION, IntervalMerger.DEFAULT_PARALLELISM_THRESHOLD,
+                MergerMetrics.disabled(), IntervalLength.doubles());
+        merger.insert(1.0, 2.5);
+        merger.insert(2.0, Double.POSITIVE_INFINITY);
+
+        Assertions.assertThat(merger.getCoveredLength()).isEqualTo(Double.POSITIVE_INFINITY);
+        merger.insert(-1.0, 0.5);
+        Assertions.assertThat(merger.getCoveredLength()).isEqualTo(Double.POSITIVE_INFINITY);
+    }
+
+    @Test
+    void givenLength_whenSetAlgebra_thenResultMaintainsCoveredLength() {
+        IntervalMerger<Long> merger = new IntervalMerger<>(MergeStrategy.AUTOMATIC, IntervalMerger.DEFAULT_PARALLELISM_THRESHOLD,
+                MergerMetrics.disabled(), IntervalLength.longs());
+        merger.merge(List.of(List.of(1L, 10L), List.of(20L, 30L)));
+
+        IntervalMerger<Long> complement = merger.complement(0L, 40L, DiscreteDomain.longs());
+        complement.insert(5L, 25L);
+
+        Assertions.assertThat(merger.getCoveredLength()).isEqualTo(19.0);
+        Assertions.assertThat(complement.getMergedIntervals()).containsExactly(List.of(0L, 0L), List.of(5L, 25L), List.of(31L, 40L));
+        Assertions.assertThat(complement.getCoveredLength()).isEqualTo(29.0);
+    }
+
+    @Test
+    void givenNoLength_whenGetCoveredLength_thenThrowIllegalStateException() {
+        Assertions.assertThatThrownBy(() -> underTest.getCoveredLength()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void givenNoIntervals_whenGetBounds_thenReturnEmpty() {
+        Assertions.assertThat(underTest.getBounds()).isEmpty();
+        Assertions.assertThat(underTest.size()).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void givenMergedIntervals_whenStreamMergedIntervals_thenReturnSameAsGetMergedIntervals(boolean parallel) {
+        Random random = new Random(5);
+        for (int i = 0; i < 10_000; i++) {
+            long start = random.nextInt(1_000_000);
+            underTest.insert(start, start + random.nextInt(100));
+        }
+
+        Stream<List<Long>> stream = underTest.streamMergedIntervals();
+        List<List<Long>> streamed = new ArrayList<>();
+        (parallel ? stream.parallel() : stream).forEachOrdered(streamed::add);
+
+        Assertions.assertThat(streamed).isEqualTo(underTest.getMergedIntervals());
+    }
+
+    @Test
+    void givenMergersOfChunks_whenInsertAll_thenReturnSameAsInsertion() {
+        List<List<Long>> intervals = TestIntervals.random(10_000, 11);
+        IntervalMerger<Long> expected = new IntervalMerger<>(MergeStrategy.INSERTION);
+        intervals.forEach(interval -> expected.insert(interval.get(0), interval.get(1)));
+
+        for (int chunk = 0; chunk < 10; chunk++) {
+            IntervalMerger<Long> chunkMerger = new IntervalMerger<>(MergeStrategy.INSERTION);
+            intervals.subList(chunk * 1_000, (chunk + 1) * 1_000).forEach(interval -> chunkMerger.insert(interval.get(0), interval.get(1)));
+            underTest.insertAll(chunkMerger);
+        }
+
+        Assertions.assertThat(underTest.getMergedIntervals()).isEqualTo(expected.getMergedIntervals());
+    }
+
+    @ParameterizedTest
+    @EnumSource(MergeStrategy.class)
+    void givenBatches_whenMergeDelta_thenReturnDifferenceOfMergedIntervals(MergeStrategy strategy) {
+        IntervalMerger<Long> merger = new IntervalMerger<>(strategy, 2, MergerMetrics.disabled(), IntervalLength.longs());
+        Random random = new Random(13);
+        List<List<Long>> before = List.of();
+        for (int batch = 0; batch < 20; batch++) {
+            List<List<Long>> intervals = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                long start = random.nextInt(10_000);
+                intervals.add(List.of(start, start + random.nextInt(50)));
+            }
+
+            IntervalDelta<Long> delta = merger.mergeDelta(intervals);
+
+            List<List<Long>> after = merger.getMergedIntervals();
+            Assertions.assertThat(delta.getAdded()).isEqualTo(without(after, before));
+            Assertions.assertThat(delta.getRemoved()).isEqualTo(without(before, after));
+            Assertions.assertThat(merger.getCoveredLength())
+                    .isEqualTo(after.stream().mapToDouble(interval -> interval.get(1) - interval.get(0)).sum());
+            before = after;
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(MergeStrategy.class)
+    void givenBatchWithinMergedIntervals_whenMergeDelta_thenReturnEmptyDelta(MergeStrategy strategy) {
+        IntervalMerger<Long> merger = new IntervalMerger<>(strategy, 2);
+        merger.merge(List.of(List.of(1L, 10L), List.of(20L, 30L)));
+
+        IntervalDelta<Long> delta = merger.mergeDelta(List.of(List.of(2L, 5L), List.of(20L, 30L), List.of(25L, 26L)));
+
+        Assertions.assertThat(delta.isEmpty()).isTrue();
+        Assertions.assertThat(merger.getMergedIntervals()).containsExactly(List.of(1L, 10L), List.of(20L, 30L));
+    }
+
+    @Test
+    void givenIntervalsAddedAndAbsorbedInBatch_whenMergeDelta_thenReturnOnlyNetChanges() {
+        underTest.merge(List.of(List.of(1L, 10L), List.of(40L, 50L)));
+
+        IntervalDelta<Long> delta = underTest.mergeDelta(List.of(List.of(20L, 22L), List.of(24L, 26L), List.of(5L, 30L)));
+
+        Assertions.assertThat(delta.getAdded()).containsExactly(List.of(1L, 30L));
+        Assertions.assertThat(delta.getRemoved()).containsExactly(List.of(1L, 10L));
+    }
+
+    @Test
+    void givenInvalidIntervalInBatch_whenMergeDelta_thenThrowIllegalArgumentExceptionAndStopTracking() {
+        Assertions.assertThatThrownBy(() -> underTest.mergeDelta(List.of(List.of(1L, 3L), List.of(5L, 4L))))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        Assertions.assertThat(underTest.mergeDelta(List.of(List.of(7L, 8L))).getAdded()).containsExactly(List.of(7L, 8L));
+    }
+
+    private static List<List<Long>> without(List<List<Long>> intervals, List<List<Long>> other) {
+        List<List<Long>> difference = new ArrayList<>(intervals);
+        difference.removeAll(other);
+        return difference;
+    }
+
+    @Test
+    void givenTwoMergers_whenUnion_thenReturnIntervalsOfBoth() {
+        underTest.merge(List.of(List.of(1L, 3L), List.of(10L, 12L)));
+        IntervalMerger<Long> other = new IntervalMerger<>();
+        other.merge(List.of(List.of(3L, 5L), List.of(7L, 8L)));
+
+        IntervalMerger<Long> actual = underTest.union(other);
+
+        Assertions.assertThat(actual.getMergedIntervals()).isEqualTo(List.of(List.of(1L, 5L), List.of(7L, 8L), List.of(10L, 12L)));
+        Assertions.assertThat(underTest.getMergedIntervals()).isEqualTo(List.of(List.of(1L, 3L), List.of(10L, 12L)));
+    }
+
+    @Test
+    void givenTwoMergers_whenIntersection_thenReturnCommonParts() {
+        underTest.merge(List.of(List.of(1L, 5L), List.of(8L, 20L)));
+        IntervalMerger<Long> other = new IntervalMerger<>();
+        other.merge(List.of(List.of(0L, 1L), List.of(4L, 9L), List.of(12L, 13L), List.of(20L, 30L)));
+
+        IntervalMerger<Long> actual = underTest.intersection(other);
+
+        Assertions.assertThat(actual.getMergedIntervals())
+                .isEqualTo(List.of(List.of(1L, 1L), List.of(4L, 5L), List.of(8L, 9L), List.of(12L, 13L), List.of(20L, 20L)));
+    }
+
+    @Test
+    void givenAvailabilityAndOutages_whenDifference_thenReturnRemainingAvailability() {
+        underTest.merge(List.of(List.of(0L, 100L), List.of(200L, 300L)));
+        IntervalMerger<Long> outages = new IntervalMerger<>();
+        outages.merge(List.of(List.of(10L, 20L), List.of(100L, 210L), List.of(250L, 250L)));
+
+        IntervalMerger<Long> actual = underTest.difference(outages, DiscreteDomain.longs());
+
+        Assertions.assertThat(actual.getMergedIntervals())
+                .isEqualTo(List.of(List.of(0L, 9L), List.of(21L, 99L), List.of(211L, 249L), List.of(251L, 300L)));
+    }
+
+    @Test
+    void givenBounds_whenComplement_thenReturnGapsWithinBounds() {
+        underTest.merge(List.of(List.of(0L, 2L), List.of(5L, 6L), List.of(9L, 20L)));
+
+        IntervalMerger<Long> actual = underTest.complement(1L, 12L, DiscreteDomain.longs());
+
+        Assertions.assertThat(actual.getMergedIntervals()).isEqualTo(List.of(List.of(3L, 4L), List.of(7L, 8L)));
+        Assertions.assertThat(underTest.complement(30L, 40L, DiscreteDomain.longs()).getMergedIntervals()).isEqualTo(List.of(List.of(30L, 40L)));
+    }
+
+    @ParameterizedTest(name = "Expect set algebra equal to bitwise operations for seed {0}")
+    @ValueSource(longs = {1, 2, 3, 4, 5, 6, 7, 8})
+    void givenRandomMergers_whenSetAlgebra_thenEqualToBitwiseOperations(long seed) {
+        Random random = new Random(seed);
+        IntervalMerger<Long> left = randomMerger(random);
+        IntervalMerger<Long> right = randomMerger(random);
+        BitSet union = coverage(left);
+        union.or(coverage(right));
+        BitSet intersection = coverage(left);
+        intersection.and(coverage(right));
+        BitSet difference = coverage(left);
+        difference.andNot(coverage(right));
+        BitSet complement = coverage(left);
+        complement.flip(50, 251);
+        complement.clear(0, 50);
+        complement.clear(251, complement.size());
+
+        Assertions.assertThat(coverage(left.union(right))).isEqualTo(union);
+        Assertions.assertThat(coverage(left.intersection(right))).isEqualTo(intersection);
+        Assertions.assertThat(coverage(left.difference(right, DiscreteDomain.longs()))).isEqualTo(difference);
+        Assertions.assertThat(coverage(left.complement(50L, 250L, DiscreteDomain.longs()))).isEqualTo(complement);
+    }
+
+    @Test
+    void givenMetrics_whenInsertingOneByOne_thenRecordMergesPerInsertAndTreeSize() {
+        RecordingMergerMetrics metrics = new RecordingMergerMetrics();
+        underTest = new IntervalMerger<>(MergeStrategy.INSERTION, IntervalMerger.DEFAULT_PARALLELISM_THRESHOLD, metrics);
+
+        underTest.insert(1L, 2L);
+        underTest.insert(4L, 5L);
+        underTest.insert(7L, 8L);
+        underTest.insert(0L, 10L);
+
+        Assertions.assertThat(metrics.getIntervalsInserted()).isEqualTo(4);
+        Assertions.assertThat(metrics.getMerges()).isEqualTo(3);
+        Assertions.assertThat(metrics.getMergesPerInsertHistogram()).containsExactly(3, 0, 0, 1);
+        Assertions.assertThat(metrics.getCurrentTreeSize()).isEqualTo(1);
+        Assertions.assertThat(metrics.getPeakTreeSize()).isEqualTo(3);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = MergeStrategy.class, names = {"SORT_AND_SWEEP", "PARALLEL"})
+    void givenMetrics_whenMergingBatch_thenRecordMergesOfBatch(MergeStrategy strategy) {
+        RecordingMergerMetrics metrics = new RecordingMergerMetrics();
+        underTest = new IntervalMerger<>(strategy, 2, metrics);
+        underTest.insert(100L, 200L);
+
+        underTest.merge(List.of(List.of(1L, 3L), List.of(2L, 4L), List.of(150L, 250L), List.of(300L, 301L)));
+
+        Assertions.assertThat(metrics.getIntervalsInserted()).isEqualTo(5);
+        Assertions.assertThat(metrics.getMerges()).isEqualTo(2);
+        Assertions.assertThat(metrics.getCurrentTreeSize()).isEqualTo(3);
+    }
+
+    @Test
+    void givenMergedIntervals_whenForEachMergedInterval_thenHandOverInAscendingOrder() {
+        underTest = new IntervalMerger<>();
+        underTest.insert(10L, 12L);
+        underTest.insert(1L, 3L);
+        underTest.insert(2L, 5L);
+        List<List<Long>> actual = new ArrayList<>();
+
+        underTest.forEachMergedInterval((start, end) -> actual.add(List.of(start, end)));
+
+        Assertions.assertThat(actual).isEqualTo(underTest.getMergedIntervals()).containsExactly(List.of(1L, 5L), List.of(10L, 12L));
+    }
+
     @Test
     void givenIntervalOverlappingOverAllAtEnd_whenMerging_thenReturnSingleInterval() {
         List<List<Long>> expected = List.of(List.of(1L, 10L));
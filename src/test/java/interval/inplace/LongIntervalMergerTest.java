@@ -0,0 +1,99 @@
+package interval.inplace;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongIntervalMergerTest {
+
+    private LongIntervalMerger underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new LongIntervalMerger();
+    }
+
+    @Test
+    void givenEmptyList_whenMerging_thenReturnEmptyList() {
+        List<List<Long>> actual = underTest.merge(Collections.emptyList());
+
+        assertThat(actual).isNotNull().isEmpty();
+        assertThat(underTest.size()).isZero();
+    }
+
+    @Test
+    void givenInterleavingList_whenMerging_thenReturnInterleaving() {
+        List<List<Long>> expected = List.of(List.of(0L, 0L), List.of(1L, 1L), List.of(3L, 7L));
+        List<List<Long>> intervals = List.of(List.of(5L, 7L), List.of(5L, 5L), List.of(1L, 1L), List.of(0L, 0L), List.of(3L, 3L), List.of(4L, 5L), List.of(1L, 1L), List.of(3L, 4L));
+
+        List<List<Long>> actual = underTest.merge(intervals);
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void givenNestedAndTouchingIntervals_whenMerging_thenReturnMergedIntervals() {
+        List<List<Long>> expected = List.of(List.of(1L, 10L), List.of(12L, 15L));
+        List<List<Long>> intervals = List.of(List.of(12L, 13L), List.of(2L, 3L), List.of(1L, 10L), List.of(13L, 15L), List.of(4L, 4L));
+
+        List<List<Long>> actual = underTest.merge(intervals);
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void givenIllegalInterval_whenInsert_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> underTest.insert(1L, 0L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givenExtremeValues_whenInsert_thenMergeWithoutOverflow() {
+        underTest.insert(Long.MIN_VALUE, 0L);
+        underTest.insert(0L, Long.MAX_VALUE);
+
+        assertThat(underTest.size()).isEqualTo(1);
+        assertThat(underTest.getStart(0)).isEqualTo(Long.MIN_VALUE);
+        assertThat(underTest.getEnd(0)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void givenIndexOutOfBounds_whenGetStart_thenThrowIndexOutOfBoundsException() {
+        underTest.insert(1L, 2L);
+
+        assertThatThrownBy(() -> underTest.getStart(1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void givenManyRandomIntervals_whenMerging_thenReturnSameAsIntervalMerger() {
+        Random random = new Random(42);
+        List<List<Long>> intervals = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            long start = random.nextInt(1_000_000);
+            intervals.add(List.of(start, start + random.nextInt(20)));
+        }
+
+        List<List<Long>> actual = underTest.merge(intervals);
+
+        assertThat(actual).isEqualTo(new IntervalMerger<Long>().merge(intervals));
+    }
+
+    @Test
+    void givenSeveralBatches_whenMerging_thenAccumulateLikeIntervalMerger() {
+        IntervalMerger<Long> reference = new IntervalMerger<>();
+        List<List<Long>> first = List.of(List.of(1L, 2L), List.of(10L, 20L));
+        List<List<Long>> second = List.of(List.of(2L, 5L), List.of(30L, 40L));
+
+        underTest.merge(first);
+        reference.merge(first);
+
+        assertThat(underTest.merge(second)).isEqualTo(reference.merge(second));
+    }
+
+}
@@ -0,0 +1,102 @@
+package interval.inplace;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlidingWindowIntervalMergerTest {
+
+    private static List<List<Long>> clipToWindow(List<List<Long>> merged, long windowStart) {
+        List<List<Long>> clipped = new ArrayList<>();
+        for (List<Long> interval : merged) {
+            if (interval.get(1) >= windowStart) {
+                clipped.add(List.of(Math.max(interval.get(0), windowStart), interval.get(1)));
+            }
+        }
+        return clipped;
+    }
+
+    @Test
+    void givenNegativeHorizon_whenWithHorizon_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> SlidingWindowIntervalMerger.withHorizon(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givenIntervalsBeforeWindow_whenAdvanceTo_thenDropAndTrim() {
+        SlidingWindowIntervalMerger<Long> underTest = SlidingWindowIntervalMerger.withHorizon(10);
+        underTest.insert(1L, 3L);
+        underTest.insert(5L, 8L);
+        underTest.insert(12L, 20L);
+        underTest.insert(22L, 25L);
+
+        underTest.advanceTo(25L);
+
+        assertThat(underTest.getMergedIntervals()).containsExactly(List.of(15L, 20L), List.of(22L, 25L));
+        assertThat(underTest.size()).isEqualTo(2);
+        assertThat(underTest.covers(14L)).isFalse();
+        assertThat(underTest.covers(15L)).isTrue();
+    }
+
+    @Test
+    void givenAdvancedWindow_whenInsertLateIntervals_thenDropOrTrimThem() {
+        SlidingWindowIntervalMerger<Long> underTest = SlidingWindowIntervalMerger.withHorizon(10);
+        underTest.advanceTo(30L);
+
+        underTest.insert(1L, 19L);
+        underTest.insert(15L, 22L);
+        underTest.insert(25L, 26L);
+
+        assertThat(underTest.getMergedIntervals()).containsExactly(List.of(20L, 22L), List.of(25L, 26L));
+        assertThat(underTest.getOverlappingIntervals(0L, 21L)).containsExactly(List.of(20L, 22L));
+    }
+
+    @Test
+    void givenEarlierPointInTime_whenAdvanceTo_thenKeepWindow() {
+        SlidingWindowIntervalMerger<Long> underTest = SlidingWindowIntervalMerger.withHorizon(10);
+        underTest.advanceTo(30L);
+        underTest.advanceTo(20L);
+
+        underTest.insert(15L, 22L);
+
+        assertThat(underTest.getMergedIntervals()).containsExactly(List.of(20L, 22L));
+    }
+
+    @Test
+    void givenIllegalInterval_whenInsert_thenThrowIllegalArgumentException() {
+        SlidingWindowIntervalMerger<Long> underTest = SlidingWindowIntervalMerger.withHorizon(10);
+
+        assertThatThrownBy(() -> underTest.insert(2L, 1L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givenRandomStream_whenAdvancing_thenMatchMergeOfAllClippedToWindowAndStayBounded() {
+        long horizon = 500;
+        SlidingWindowIntervalMerger<Long> underTest = SlidingWindowIntervalMerger.withHorizon(horizon);
+        List<List<Long>> all = new ArrayList<>();
+        Random random = new Random(20);
+        long now = 0;
+        int maxSize = 0;
+
+        for (int i = 0; i < 20_000; i++) {
+            now += random.nextInt(3);
+            long start = now - random.nextInt(600);
+            long end = start + random.nextInt(20);
+            all.add(List.of(start, end));
+            underTest.insert(start, end);
+            if (i % 100 == 0) {
+                underTest.advanceTo(now);
+                assertThat(underTest.getMergedIntervals())
+                        .isEqualTo(clipToWindow(new IntervalMerger<Long>().merge(new ArrayList<>(all)), now - horizon));
+            }
+            maxSize = Math.max(maxSize, underTest.size());
+        }
+
+        assertThat(maxSize).isLessThan(1_000);
+    }
+
+}
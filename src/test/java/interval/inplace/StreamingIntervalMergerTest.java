@@ -0,0 +1,95 @@
+package interval.inplace;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingIntervalMergerTest {
+
+    private final List<List<Long>> emitted = new ArrayList<>();
+
+    private void emit(Long start, Long end) {
+        emitted.add(List.of(start, end));
+    }
+
+    @Test
+    void givenWatermark_whenAdvanceWatermark_thenEmitOnlyIntervalsEndingBefore() {
+        StreamingIntervalMerger<Long> underTest = new StreamingIntervalMerger<>(this::emit);
+        underTest.insert(1L, 3L);
+        underTest.insert(2L, 5L);
+        underTest.insert(7L, 9L);
+        underTest.insert(12L, 20L);
+
+        underTest.advanceWatermark(9L);
+
+        assertThat(emitted).containsExactly(List.of(1L, 5L));
+        assertThat(underTest.getPendingCount()).isEqualTo(2);
+    }
+
+    @Test
+    void givenIntervalStartingAtWatermark_whenInsert_thenMergeWithPending() {
+        StreamingIntervalMerger<Long> underTest = new StreamingIntervalMerger<>(this::emit);
+        underTest.insert(7L, 9L);
+        underTest.advanceWatermark(9L);
+
+        underTest.insert(9L, 11L);
+        underTest.flush();
+
+        assertThat(emitted).containsExactly(List.of(7L, 11L));
+        assertThat(underTest.getPendingCount()).isZero();
+    }
+
+    @Test
+    void givenIntervalBeforeWatermark_whenInsert_thenThrowIllegalArgumentException() {
+        StreamingIntervalMerger<Long> underTest = new StreamingIntervalMerger<>(this::emit);
+        underTest.advanceWatermark(10L);
+
+        assertThatThrownBy(() -> underTest.insert(9L, 12L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givenFlushedIntervals_whenInsertOverlapping_thenThrowIllegalArgumentException() {
+        StreamingIntervalMerger<Long> underTest = new StreamingIntervalMerger<>(this::emit);
+        underTest.insert(1L, 10L);
+        underTest.flush();
+
+        assertThatThrownBy(() -> underTest.insert(10L, 12L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givenLowerWatermark_whenAdvanceWatermark_thenIgnore() {
+        StreamingIntervalMerger<Long> underTest = new StreamingIntervalMerger<>(this::emit);
+        underTest.advanceWatermark(10L);
+        underTest.advanceWatermark(5L);
+
+        assertThatThrownBy(() -> underTest.insert(7L, 8L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givenBoundedDisorder_whenInsertNearlySortedStream_thenEmitSameAsIntervalMergerWithBoundedMemory() {
+        long maxDisorder = 50;
+        StreamingIntervalMerger<Long> underTest = new StreamingIntervalMerger<>(this::emit, start -> start - maxDisorder);
+        Random random = new Random(31);
+        List<List<Long>> intervals = new ArrayList<>();
+        int maxPending = 0;
+        for (long i = 0; i < 100_000; i++) {
+            long start = 10 * i + random.nextInt((int) maxDisorder);
+            intervals.add(List.of(start, start + random.nextInt(15)));
+        }
+
+        for (List<Long> interval : intervals) {
+            underTest.insert(interval.get(0), interval.get(1));
+            maxPending = Math.max(maxPending, underTest.getPendingCount());
+        }
+        underTest.flush();
+
+        assertThat(emitted).isEqualTo(new IntervalMerger<Long>().merge(intervals));
+        assertThat(maxPending).isLessThan(20);
+    }
+
+}
@@ -0,0 +1,31 @@
+package interval.inplace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Intervals shared as input by the tests of the mergers.
+ */
+final class TestIntervals {
+
+    private TestIntervals() {
+    }
+
+    /**
+     * Random intervals of up to 30 in length, starting below 10 * count so that about a third of them overlap.
+     * @param count Number of intervals
+     * @param seed Seed of the random generator, so that the intervals are the same for every run
+     * @return Unordered intervals
+     */
+    static List<List<Long>> random(int count, long seed) {
+        Random random = new Random(seed);
+        List<List<Long>> intervals = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long start = random.nextInt(count * 10);
+            intervals.add(List.of(start, start + random.nextInt(30)));
+        }
+        return intervals;
+    }
+
+}
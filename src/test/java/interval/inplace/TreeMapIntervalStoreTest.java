@@ -0,0 +1,62 @@
+package interval.inplace;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TreeMapIntervalStoreTest {
+
+    private static final List<Interval<Long>> INTERVALS = List.of(
+            new Interval<>(1L, 2L), new Interval<>(5L, 7L), new Interval<>(10L, 12L), new Interval<>(20L, 20L));
+
+    private final SortedMap<Interval<Long>, Interval<Long>> underTest = new TreeMapIntervalStore.SortedIntervalView<>(INTERVALS);
+
+    @Test
+    void givenSortedIntervals_whenReplaceAll_thenStoreThemInOrder() {
+        TreeMapIntervalStore<Long> store = new TreeMapIntervalStore<>();
+        store.insert(100L, 200L);
+
+        store.replaceAll(INTERVALS);
+
+        List<Interval<Long>> stored = new ArrayList<>();
+        store.forEach(stored::add);
+        assertThat(stored).isEqualTo(INTERVALS);
+    }
+
+    @Test
+    void givenView_whenRangeViews_thenReturnIntervalsInRangeLikeTreeMap() {
+        TreeMap<Interval<Long>, Interval<Long>> expected = new TreeMap<>(underTest);
+        Interval<Long> five = new Interval<>(5L, 5L);
+        Interval<Long> gap = new Interval<>(8L, 9L);
+        Interval<Long> spanning = new Interval<>(6L, 11L);
+
+        assertThat(underTest.headMap(five)).isEqualTo(expected.headMap(five));
+        assertThat(underTest.headMap(gap).keySet()).containsExactlyElementsOf(expected.headMap(gap).keySet());
+        assertThat(underTest.tailMap(gap).keySet()).containsExactlyElementsOf(expected.tailMap(gap).keySet());
+        assertThat(underTest.tailMap(spanning).keySet()).containsExactly(new Interval<>(5L, 7L), new Interval<>(10L, 12L), new Interval<>(20L, 20L));
+        assertThat(underTest.subMap(five, new Interval<>(20L, 20L)).keySet()).containsExactlyElementsOf(expected.subMap(five, new Interval<>(20L, 20L)).keySet());
+        assertThat(underTest.subMap(five, gap).firstKey()).isEqualTo(new Interval<>(5L, 7L));
+    }
+
+    @Test
+    void givenInvertedRange_whenSubMap_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> underTest.subMap(new Interval<>(10L, 10L), new Interval<>(1L, 1L)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givenEmptyView_whenFirstKey_thenThrowNoSuchElementException() {
+        SortedMap<Interval<Long>, Interval<Long>> empty = underTest.tailMap(new Interval<>(30L, 30L));
+
+        assertThat(empty).isEmpty();
+        assertThatThrownBy(empty::firstKey).isInstanceOf(NoSuchElementException.class);
+    }
+
+}
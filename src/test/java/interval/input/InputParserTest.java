@@ -1,36 +1,39 @@
 package interval.input;
 
+import interval.metrics.MergerMetrics;
+import interval.metrics.RecordingMergerMetrics;
 import nl.altindag.log.LogCaptor;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.when;
 
-@ExtendWith(MockitoExtension.class)
 class InputParserTest {
 
     private final TypeConverter<Long> typeConverter = new TypeConverter<>(Long.class);
-    private InputParser<Long> underTest;
-    @Mock
-    private BufferedReader bufferedReader;
 
-    @BeforeEach
-    void setUp() {
-        underTest = new InputParser<>(() -> bufferedReader, typeConverter);
+    @TempDir
+    Path temporaryDirectory;
+
+    private InputParser<Long> parserFor(String input) {
+        return new InputParser<>(() -> new BufferedReader(new StringReader(input)), typeConverter);
     }
 
     @Test
-    void givenInvalidFormat_whenReadFromStdin_thenReturnEmptyList() throws IOException {
-        when(bufferedReader.readLine()).thenReturn("[10,20]");
+    void givenInvalidFormat_whenReadFromStdin_thenReturnEmptyList() {
+        InputParser<Long> underTest = parserFor("[10,20]");
 
         Optional<List<List<Long>>> actual = underTest.readFromStdin();
 
@@ -38,8 +41,8 @@ class InputParserTest {
     }
 
     @Test
-    void givenInvalidFormat_whenReadFromStdin_thenWriteLogError() throws IOException {
-        when(bufferedReader.readLine()).thenReturn("[10,20]");
+    void givenInvalidFormat_whenReadFromStdin_thenWriteLogError() {
+        InputParser<Long> underTest = parserFor("[10,20]");
         LogCaptor logCaptor = LogCaptor.forClass(InputParser.class);
 
         underTest.readFromStdin();
@@ -48,8 +51,8 @@ class InputParserTest {
     }
 
     @Test
-    void givenEmptyInput_whenReadFromStdin_thenDoNotLogError() throws IOException {
-        when(bufferedReader.readLine()).thenReturn("");
+    void givenEmptyInput_whenReadFromStdin_thenDoNotLogError() {
+        InputParser<Long> underTest = parserFor("\n");
         LogCaptor logCaptor = LogCaptor.forClass(InputParser.class);
 
         underTest.readFromStdin();
@@ -58,8 +61,19 @@ class InputParserTest {
     }
 
     @Test
-    void givenValidFormat_whenReadFromStdin_thenReturnList() throws IOException {
-        when(bufferedReader.readLine()).thenReturn("[[10,20]]");
+    void givenClosedInput_whenReadFromStdin_thenWriteLogError() {
+        InputParser<Long> underTest = parserFor("");
+        LogCaptor logCaptor = LogCaptor.forClass(InputParser.class);
+
+        Optional<List<List<Long>>> actual = underTest.readFromStdin();
+
+        assertThat(actual).isEmpty();
+        assertThat(logCaptor.getErrorLogs()).containsExactly("Couldn't read stdin. Returning empty list.");
+    }
+
+    @Test
+    void givenValidFormat_whenReadFromStdin_thenReturnList() {
+        InputParser<Long> underTest = parserFor("[[10,20]]");
 
         Optional<List<List<Long>>> actual = underTest.readFromStdin();
 
@@ -67,12 +81,165 @@ class InputParserTest {
     }
 
     @Test
-    void givenValidFormatWithExtraneousWhitespace_whenReadFromStdin_thenReturnList() throws IOException {
-        when(bufferedReader.readLine()).thenReturn("  [  [  10  ,20  ]  ,[1900,2000]]  ");
+    void givenValidFormatWithExtraneousWhitespace_whenReadFromStdin_thenReturnList() {
+        InputParser<Long> underTest = parserFor("  [  [  10  ,20  ]  ,[1900,2000]]  ");
 
         Optional<List<List<Long>>> actual = underTest.readFromStdin();
 
         assertThat(actual).isNotEmpty().hasValue(List.of(List.of(10L, 20L), List.of(1900L, 2000L)));
     }
 
-}
\ No newline at end of file
+    @Test
+    void givenValidFormat_whenReadFromStdinWithConsumer_thenHandOverEachInterval() {
+        InputParser<Long> underTest = parserFor("[[10,20], [1,2], [5,5]]\n[[7,8]]");
+        List<List<Long>> received = new ArrayList<>();
+
+        boolean actual = underTest.readFromStdin((start, end) -> received.add(List.of(start, end)));
+
+        assertThat(actual).isTrue();
+        assertThat(received).containsExactly(List.of(10L, 20L), List.of(1L, 2L), List.of(5L, 5L));
+    }
+
+    @Test
+    void givenUnconvertibleValue_whenReadFromStdinWithConsumer_thenReturnFalse() {
+        InputParser<Long> underTest = parserFor("[[10,20], [1,a]]");
+        List<List<Long>> received = new ArrayList<>();
+
+        boolean actual = underTest.readFromStdin((start, end) -> received.add(List.of(start, end)));
+
+        assertThat(actual).isFalse();
+        assertThat(received).containsExactly(List.of(10L, 20L));
+    }
+
+    @Test
+    void givenMetrics_whenReadFromStdin_thenRecordIntervalsParsedIncludingThoseBeforeError() {
+        RecordingMergerMetrics metrics = new RecordingMergerMetrics();
+        InputParser<Long> underTest = new InputParser<>(() -> new BufferedReader(new StringReader("[[1,2], [3,4], [5,x]]")), typeConverter, metrics);
+
+        underTest.readFromStdin((start, end) -> {
+        });
+
+        assertThat(metrics.getIntervalsParsed()).isEqualTo(2);
+    }
+
+    @Test
+    void givenFile_whenReadFromStdin_thenReadIntervalsOfMappedFile() throws IOException {
+        Path file = Files.writeString(temporaryDirectory.resolve("intervals.txt"), "[[25,30], [2,19], [14, 23], [4,8]]\n");
+        InputParser<Long> underTest = new InputParser<>(file, typeConverter, MergerMetrics.disabled());
+
+        Optional<List<List<Long>>> actual = underTest.readFromStdin();
+
+        assertThat(actual).contains(List.of(List.of(25L, 30L), List.of(2L, 19L), List.of(14L, 23L), List.of(4L, 8L)));
+    }
+
+    @Test
+    void givenMissingFile_whenReadFromStdin_thenWriteLogErrorNamingFile() {
+        Path file = temporaryDirectory.resolve("missing.txt");
+        InputParser<Long> underTest = new InputParser<>(file, typeConverter, MergerMetrics.disabled());
+        LogCaptor logCaptor = LogCaptor.forClass(InputParser.class);
+
+        Optional<List<List<Long>>> actual = underTest.readFromStdin();
+
+        assertThat(actual).isEmpty();
+        assertThat(logCaptor.getErrorLogs()).containsExactly("Couldn't read " + file + ". Returning empty list.");
+    }
+
+    private static String randomLine(int count, long seed) {
+        Random random = new Random(seed);
+        StringBuilder line = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            long start = random.nextInt(1_000_000);
+            line.append(i == 0 ? "" : random.nextBoolean() ? "," : " , ")
+                    .append('[').append(start).append(", ").append(start + random.nextInt(100)).append(']');
+        }
+        return line.append("]\n").toString();
+    }
+
+    private static <T> List<T> flatten(List<List<T>> chunks) {
+        List<T> flattened = new ArrayList<>();
+        chunks.forEach(flattened::addAll);
+        return flattened;
+    }
+
+    private static List<List<Long>> collectChunk(IntervalChunk<Long> chunk) {
+        List<List<Long>> intervals = new ArrayList<>();
+        chunk.forEachInterval((start, end) -> intervals.add(List.of(start, end)));
+        return intervals;
+    }
+
+    @Test
+    void givenLargeFile_whenReadInParallel_thenHandOverAllIntervalsInChunksInOrder() throws IOException {
+        Path file = Files.writeString(temporaryDirectory.resolve("intervals.txt"), randomLine(5_000, 1));
+        RecordingMergerMetrics metrics = new RecordingMergerMetrics();
+        InputParser<Long> underTest = new InputParser<>(file, typeConverter, metrics, 1024);
+        List<List<Long>> expected = new InputParser<>(file, typeConverter, MergerMetrics.disabled()).readFromStdin().orElseThrow();
+
+        Optional<List<List<List<Long>>>> actual = underTest.readInParallel(new ForkJoinPool(4), InputParserTest::collectChunk);
+
+        assertThat(actual).isPresent();
+        assertThat(actual.get()).hasSizeGreaterThan(1);
+        assertThat(flatten(actual.get())).isEqualTo(expected);
+        assertThat(metrics.getIntervalsParsed()).isEqualTo(5_000);
+    }
+
+    @Test
+    void givenFurtherLines_whenReadInParallel_thenHandOverIntervalsOfFirstLineOnly() throws IOException {
+        Path file = Files.writeString(temporaryDirectory.resolve("intervals.txt"), "[[1,2], [3,4]]\n" + randomLine(5_000, 2) + "[[x]]\n");
+        InputParser<Long> underTest = new InputParser<>(file, typeConverter, MergerMetrics.disabled(), 1024);
+
+        Optional<List<List<List<Long>>>> actual = underTest.readInParallel(new ForkJoinPool(4), InputParserTest::collectChunk);
+
+        assertThat(actual.map(InputParserTest::flatten)).contains(List.of(List.of(1L, 2L), List.of(3L, 4L)));
+    }
+
+    @Test
+    void givenShortFirstLineBeforeLongLines_whenReadInParallel_thenMapSingleChunkEndingWithFirstLine() throws IOException {
+        Path file = Files.writeString(temporaryDirectory.resolve("intervals.txt"), "[[1,2], [3,4]]\n" + randomLine(5_000, 2) + randomLine(5_000, 3));
+        InputParser<Long> underTest = new InputParser<>(file, typeConverter, MergerMetrics.disabled(), 1024);
+        AtomicInteger chunksRead = new AtomicInteger();
+
+        Optional<List<List<List<Long>>>> actual = underTest.readInParallel(new ForkJoinPool(4), chunk -> {
+            chunksRead.incrementAndGet();
+            return collectChunk(chunk);
+        });
+
+        assertThat(actual).contains(List.of(List.of(List.of(1L, 2L), List.of(3L, 4L))));
+        assertThat(chunksRead).hasValue(1);
+    }
+
+    @Test
+    void givenMalformedChunk_whenReadInParallel_thenReturnEmptyAndWriteLogError() throws IOException {
+        String head = randomLine(2_500, 3);
+        String tail = randomLine(2_500, 4);
+        String line = head.substring(0, head.length() - 2) + ",[1, x]," + tail.substring(1);
+        Path file = Files.writeString(temporaryDirectory.resolve("intervals.txt"), line);
+        InputParser<Long> underTest = new InputParser<>(file, typeConverter, MergerMetrics.disabled(), 1024);
+        LogCaptor logCaptor = LogCaptor.forClass(InputParser.class);
+
+        Optional<List<List<List<Long>>>> actual = underTest.readInParallel(new ForkJoinPool(4), InputParserTest::collectChunk);
+
+        assertThat(actual).isEmpty();
+        assertThat(logCaptor.getErrorLogs()).containsExactly("Couldn't read " + file + ". Returning empty list.");
+    }
+
+    @Test
+    void givenStdin_whenReadInParallel_thenHandOverSingleChunk() {
+        InputParser<Long> underTest = parserFor("[[1,3], [2,6]]");
+
+        Optional<List<List<List<Long>>>> actual = underTest.readInParallel(new ForkJoinPool(4), InputParserTest::collectChunk);
+
+        assertThat(actual).contains(List.of(List.of(List.of(1L, 3L), List.of(2L, 6L))));
+    }
+
+    @Test
+    void givenEmptyLine_whenReadInParallel_thenReturnEmptyWithoutLogError() {
+        InputParser<Long> underTest = parserFor("\n");
+        LogCaptor logCaptor = LogCaptor.forClass(InputParser.class);
+
+        Optional<List<List<List<Long>>>> actual = underTest.readInParallel(new ForkJoinPool(4), InputParserTest::collectChunk);
+
+        assertThat(actual).isEmpty();
+        assertThat(logCaptor.getErrorLogs()).isEmpty();
+    }
+
+}
@@ -0,0 +1,74 @@
+package interval.input;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalListSplitterTest {
+
+    @TempDir
+    Path temporaryDirectory;
+
+    private List<Long> split(String content, int count) throws IOException {
+        Path file = Files.writeString(temporaryDirectory.resolve("intervals.txt"), content, StandardCharsets.US_ASCII);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new IntervalListSplitter(channel).split(count);
+        }
+    }
+
+    @Test
+    void givenList_whenSplit_thenCutOnlyAtCommasBetweenIntervals() throws IOException {
+        String content = "[[100,200], [300,400] ,[500,600],[700,800]]";
+
+        List<Long> actual = split(content, 4);
+
+        assertThat(actual).isNotEmpty().isSorted().doesNotHaveDuplicates();
+        for (long separator : actual) {
+            assertThat(content.charAt((int) separator)).isEqualTo(',');
+            assertThat(content.substring(0, (int) separator).strip()).endsWith("]");
+            assertThat(content.substring((int) separator + 1).strip()).startsWith("[");
+        }
+    }
+
+    @Test
+    void givenMoreChunksThanIntervals_whenSplit_thenCutBetweenEveryInterval() throws IOException {
+        assertThat(split("[[1,2],[3,4],[5,6]]", 100)).containsExactly(6L, 12L);
+    }
+
+    @Test
+    void givenEndOfLineBeforeTarget_whenSplit_thenStopCutting() throws IOException {
+        assertThat(split("[[1,2],[3,4]]\n[[5,6]]", 2)).isEmpty();
+    }
+
+    @Test
+    void givenSingleChunk_whenSplit_thenDoNotCut() throws IOException {
+        assertThat(split("[[1,2],[3,4]]", 1)).isEmpty();
+    }
+
+    private long findLineEnd(String content, int regionSize) throws IOException {
+        Path file = Files.writeString(temporaryDirectory.resolve("intervals.txt"), content, StandardCharsets.US_ASCII);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return IntervalListSplitter.findLineEnd(channel, regionSize);
+        }
+    }
+
+    @Test
+    void givenLineFeedInLaterRegion_whenFindLineEnd_thenReturnItsOffset() throws IOException {
+        assertThat(findLineEnd("[[1,2],[3,4]]\n[[5,6]]\n", 4)).isEqualTo(13L);
+    }
+
+    @Test
+    void givenNoLineFeed_whenFindLineEnd_thenReturnSizeOfFile() throws IOException {
+        assertThat(findLineEnd("[[1,2],[3,4]]", 4)).isEqualTo(13L);
+    }
+
+}
@@ -0,0 +1,84 @@
+package interval.input;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IntervalTokenizerTest {
+
+    private final TypeConverter<Long> typeConverter = new TypeConverter<>(Long.class);
+    private final List<List<Long>> received = new ArrayList<>();
+
+    private IntervalTokenizer<Long> tokenizerFor(String input) {
+        return new IntervalTokenizer<>(new StringReader(input), typeConverter);
+    }
+
+    private void receive(Long start, Long end) {
+        received.add(List.of(start, end));
+    }
+
+    @Test
+    void givenExhaustedInput_whenNextLine_thenReturnMinusOne() throws IOException {
+        IntervalTokenizer<Long> underTest = tokenizerFor("");
+
+        int actual = underTest.nextLine(this::receive);
+
+        assertThat(actual).isEqualTo(-1);
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    void givenBlankLine_whenNextLine_thenReturnZero() throws IOException {
+        IntervalTokenizer<Long> underTest = tokenizerFor("   \n[[1,2]]");
+
+        int actual = underTest.nextLine(this::receive);
+
+        assertThat(actual).isEqualTo(0);
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    void givenSeveralLines_whenNextLine_thenReadOneLineAtATime() throws IOException {
+        IntervalTokenizer<Long> underTest = tokenizerFor("[[1,2],[3,4]]\r\n [ [5 , 6] ] \n");
+
+        assertThat(underTest.nextLine(this::receive)).isEqualTo(2);
+        assertThat(received).containsExactly(List.of(1L, 2L), List.of(3L, 4L));
+        assertThat(underTest.nextLine(this::receive)).isEqualTo(1);
+        assertThat(received).containsExactly(List.of(1L, 2L), List.of(3L, 4L), List.of(5L, 6L));
+        assertThat(underTest.nextLine(this::receive)).isEqualTo(-1);
+    }
+
+    @Test
+    void givenLineLongerThanBuffer_whenNextLine_thenReadAllIntervals() throws IOException {
+        StringBuilder input = new StringBuilder("[");
+        for (long i = 0; i < 20_000; i++) {
+            input.append(i == 0 ? "" : ", ").append('[').append(i).append(", ").append(i + 1_000_000_000_000L).append(']');
+        }
+        IntervalTokenizer<Long> underTest = tokenizerFor(input.append(']').toString());
+
+        int actual = underTest.nextLine(this::receive);
+
+        assertThat(actual).isEqualTo(20_000);
+        assertThat(received.get(19_999)).isEqualTo(List.of(19_999L, 1_000_000_019_999L));
+    }
+
+    @ParameterizedTest(name = "Expect failure for malformed line {0}")
+    @ValueSource(strings = {"[10,20]", "[[10,20]", "[[10 20]]", "[[10,]]", "[[10,20],]", "[[10,20]] x", "[]", "[[1,2,3]]"})
+    void givenMalformedLine_whenNextLine_thenThrowAndSkipToNextLine(String line) throws IOException {
+        IntervalTokenizer<Long> underTest = tokenizerFor(line + "\n[[7,8]]");
+
+        assertThatThrownBy(() -> underTest.nextLine(this::receive)).isInstanceOf(IllegalArgumentException.class);
+        received.clear();
+        assertThat(underTest.nextLine(this::receive)).isEqualTo(1);
+        assertThat(received).containsExactly(List.of(7L, 8L));
+    }
+
+}
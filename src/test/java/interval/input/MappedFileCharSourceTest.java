@@ -0,0 +1,64 @@
+package interval.input;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedFileCharSourceTest {
+
+    @TempDir
+    Path temporaryDirectory;
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(temporaryDirectory.resolve("intervals.txt"), content, StandardCharsets.US_ASCII);
+    }
+
+    private static String readAll(CharSource source) throws IOException {
+        StringBuilder read = new StringBuilder();
+        int next;
+        while ((next = source.peek()) != CharSource.END_OF_INPUT) {
+            read.append((char) next);
+            source.advance();
+        }
+        return read.toString();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 7, 1 << 20})
+    void givenRegionSize_whenReadingFile_thenReturnEveryCharacterOnceAcrossRegions(int regionSize) throws IOException {
+        String content = "[[1,3], [2,6], [8,10], [15,18]]\n";
+
+        try (MappedFileCharSource underTest = new MappedFileCharSource(write(content), regionSize)) {
+            assertThat(readAll(underTest)).isEqualTo(content);
+        }
+    }
+
+    @Test
+    void givenEmptyFile_whenPeek_thenReturnEndOfInput() throws IOException {
+        try (MappedFileCharSource underTest = new MappedFileCharSource(write(""))) {
+            assertThat(underTest.peek()).isEqualTo(CharSource.END_OF_INPUT);
+        }
+    }
+
+    @Test
+    void givenValueSpanningRegions_whenTokenizing_thenConvertWholeValue() throws IOException {
+        List<List<Long>> intervals = new ArrayList<>();
+
+        try (MappedFileCharSource source = new MappedFileCharSource(write("[[123456789, 987654321]]"), 4)) {
+            new IntervalTokenizer<>(source, new TypeConverter<>(Long.class)).nextLine((start, end) -> intervals.add(List.of(start, end)));
+        }
+
+        assertThat(intervals).containsExactly(List.of(123456789L, 987654321L));
+    }
+
+}
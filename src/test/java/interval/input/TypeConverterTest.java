@@ -0,0 +1,90 @@
+package interval.input;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TypeConverterTest {
+
+    @ParameterizedTest(name = "Expect Long.parseLong({0})")
+    @ValueSource(strings = {"0", "-0", "+7", "42", "-42", "9223372036854775807", "-9223372036854775808", "007"})
+    void givenLong_whenGet_thenEqualToParseLong(String s) {
+        TypeConverter<Long> underTest = new TypeConverter<>(Long.class);
+
+        assertThat(underTest.get(s)).isEqualTo(Long.parseLong(s));
+    }
+
+    @ParameterizedTest(name = "Expect NumberFormatException for {0}")
+    @ValueSource(strings = {"", "-", "+", "1.5", "9223372036854775808", "-9223372036854775809", "1a", "--1"})
+    void givenInvalidLong_whenGet_thenThrowNumberFormatException(String s) {
+        TypeConverter<Long> underTest = new TypeConverter<>(Long.class);
+
+        assertThatThrownBy(() -> underTest.get(s)).isInstanceOf(NumberFormatException.class);
+    }
+
+    @ParameterizedTest(name = "Expect Integer.parseInt({0})")
+    @ValueSource(strings = {"0", "-5", "2147483647", "-2147483648"})
+    void givenInteger_whenGet_thenEqualToParseInt(String s) {
+        TypeConverter<Integer> underTest = new TypeConverter<>(Integer.class);
+
+        assertThat(underTest.get(s)).isEqualTo(Integer.parseInt(s));
+    }
+
+    @Test
+    void givenIntegerOutOfRange_whenGet_thenThrowNumberFormatException() {
+        TypeConverter<Integer> underTest = new TypeConverter<>(Integer.class);
+
+        assertThatThrownBy(() -> underTest.get("2147483648")).isInstanceOf(NumberFormatException.class);
+    }
+
+    @ParameterizedTest(name = "Expect Double.parseDouble({0})")
+    @ValueSource(strings = {"0", "-0", "1.5", "-0.1", "0.3", ".5", "5.", "123456789012345", "1234567890123456789",
+            "0.1234567890123456789", "1e10", "-2.5E-3", "NaN", "Infinity", "3.141592653589793", "0.0000000000000000000001"})
+    void givenDouble_whenGet_thenEqualToParseDouble(String s) {
+        TypeConverter<Double> underTest = new TypeConverter<>(Double.class);
+
+        assertThat(underTest.get(s)).isEqualTo(Double.valueOf(s));
+    }
+
+    @ParameterizedTest(name = "Expect new BigInteger({0})")
+    @ValueSource(strings = {"0", "-1", "123456789012345678", "-123456789012345678901234567890"})
+    void givenBigInteger_whenGet_thenEqualToConstructor(String s) {
+        TypeConverter<BigInteger> underTest = new TypeConverter<>(BigInteger.class);
+
+        assertThat(underTest.get(s)).isEqualTo(new BigInteger(s));
+    }
+
+    @ParameterizedTest(name = "Expect new BigDecimal({0})")
+    @ValueSource(strings = {"0", "-1.50", "1E+3", "123456789012345678901234567890.000001"})
+    void givenBigDecimal_whenGet_thenEqualToConstructor(String s) {
+        TypeConverter<BigDecimal> underTest = new TypeConverter<>(BigDecimal.class);
+
+        assertThat(underTest.get(s)).isEqualTo(new BigDecimal(s));
+    }
+
+    @Test
+    void givenSliceOfCharacters_whenGet_thenParseOnlySlice() {
+        TypeConverter<Long> underTest = new TypeConverter<>(Long.class);
+
+        assertThat(underTest.get("[12,345]".toCharArray(), 4, 3)).isEqualTo(345L);
+    }
+
+    @Test
+    void givenTypeWithoutCodec_whenGet_thenUseStringConstructor() {
+        TypeConverter<String> underTest = new TypeConverter<>(String.class);
+
+        assertThat(underTest.get("abc")).isEqualTo("abc");
+    }
+
+    @Test
+    void givenTypeWithoutStringConstructor_whenInstantiating_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> new TypeConverter<>(Boolean.TYPE)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,145 @@
+package interval.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecordingMergerMetricsTest {
+
+    private final RecordingMergerMetrics underTest = new RecordingMergerMetrics();
+
+    @ParameterizedTest
+    @CsvSource({"0,0", "1,1", "2,2", "3,3", "4,3", "5,4", "8,4", "9,5", "1024,11", "1025,12", "2147483647,32"})
+    void givenMerges_whenBucketOf_thenReturnPowerOfTwoBucket(int merges, int expected) {
+        assertThat(RecordingMergerMetrics.bucketOf(merges)).isEqualTo(expected);
+    }
+
+    @Test
+    void givenSingleInserts_whenReadingMetrics_thenCountInsertsMergesAndHistogram() {
+        underTest.intervalInserted(0, 1);
+        underTest.intervalInserted(0, 2);
+        underTest.intervalInserted(2, 1);
+        underTest.intervalInserted(5, 1);
+
+        assertThat(underTest.getIntervalsInserted()).isEqualTo(4);
+        assertThat(underTest.getMerges()).isEqualTo(7);
+        assertThat(underTest.getMergesPerInsert()).isEqualTo(1.75);
+        assertThat(underTest.getMergesPerInsertHistogram()).containsExactly(2, 0, 1, 0, 1);
+    }
+
+    @Test
+    void givenBatchInsert_whenReadingMetrics_thenCountMergesWithoutHistogram() {
+        underTest.intervalsInserted(100, 90, 10);
+
+        assertThat(underTest.getIntervalsInserted()).isEqualTo(100);
+        assertThat(underTest.getMerges()).isEqualTo(90);
+        assertThat(underTest.getMergesPerInsertHistogram()).containsExactly(0);
+    }
+
+    @Test
+    void givenMetricsWithoutTreeSize_whenInserting_thenCountInsertsButKeepTreeSize() {
+        MergerMetrics perRequest = underTest.withoutTreeSize();
+
+        perRequest.intervalsParsed(3);
+        perRequest.intervalInserted(2, 50);
+        perRequest.intervalsInserted(10, 4, 70);
+        perRequest.treeResized(90);
+
+        assertThat(perRequest.isEnabled()).isTrue();
+        assertThat(underTest.getIntervalsParsed()).isEqualTo(3);
+        assertThat(underTest.getIntervalsInserted()).isEqualTo(11);
+        assertThat(underTest.getMerges()).isEqualTo(6);
+        assertThat(underTest.getCurrentTreeSize()).isZero();
+        assertThat(underTest.getPeakTreeSize()).isZero();
+    }
+
+    @Test
+    void givenDisabledMetrics_whenWithoutTreeSize_thenReturnDisabledMetrics() {
+        assertThat(MergerMetrics.disabled().withoutTreeSize()).isSameAs(MergerMetrics.disabled());
+    }
+
+    @Test
+    void givenShrinkingTree_whenReadingMetrics_thenKeepPeakTreeSize() {
+        underTest.intervalInserted(0, 1);
+        underTest.intervalInserted(0, 2);
+        underTest.intervalInserted(0, 3);
+        underTest.treeResized(1);
+
+        assertThat(underTest.getCurrentTreeSize()).isEqualTo(1);
+        assertThat(underTest.getPeakTreeSize()).isEqualTo(3);
+    }
+
+    @Test
+    void givenPhaseTimings_whenReadingMetrics_thenSumPerPhase() {
+        underTest.phaseCompleted(Phase.PARSE, TimeUnit.MILLISECONDS.toNanos(3));
+        underTest.phaseCompleted(Phase.PARSE, TimeUnit.MILLISECONDS.toNanos(4));
+        underTest.phaseCompleted(Phase.MERGE, TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThat(underTest.getParseMillis()).isEqualTo(7);
+        assertThat(underTest.getMergeMillis()).isEqualTo(5);
+        assertThat(underTest.getPrintMillis()).isZero();
+    }
+
+    @Test
+    void givenRecordedMetrics_whenReset_thenReturnZero() {
+        underTest.intervalsParsed(3);
+        underTest.intervalInserted(4, 1);
+        underTest.phaseCompleted(Phase.PRINT, TimeUnit.SECONDS.toNanos(1));
+
+        underTest.reset();
+
+        assertThat(underTest.getIntervalsParsed()).isZero();
+        assertThat(underTest.getIntervalsInserted()).isZero();
+        assertThat(underTest.getMerges()).isZero();
+        assertThat(underTest.getMergesPerInsert()).isZero();
+        assertThat(underTest.getMergesPerInsertHistogram()).containsExactly(0);
+        assertThat(underTest.getPeakTreeSize()).isZero();
+        assertThat(underTest.getPrintMillis()).isZero();
+    }
+
+    @Test
+    void givenRecordedMetrics_whenSummary_thenRenderEveryMetric() {
+        underTest.intervalsParsed(3);
+        underTest.intervalInserted(0, 1);
+        underTest.intervalInserted(0, 2);
+        underTest.intervalInserted(3, 1);
+
+        String actual = underTest.summary();
+
+        assertThat(actual)
+                .contains("intervals parsed:    3")
+                .contains("intervals inserted:  3")
+                .contains("merges:              3")
+                .contains("merges per insert:   0=2 1=0 2=0 3-4=1")
+                .contains("tree size:           1 (peak 2)")
+                .contains("parse:", "merge:", "print:");
+    }
+
+    @Test
+    void givenMBeanServer_whenRegister_thenExposeMetricsAsAttributes() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        underTest.intervalsParsed(42);
+        underTest.intervalInserted(0, 1);
+
+        ObjectName name = underTest.register(server);
+
+        assertThat(name).isEqualTo(new ObjectName(RecordingMergerMetrics.OBJECT_NAME));
+        assertThat(server.getAttribute(name, "IntervalsParsed")).isEqualTo(42L);
+        assertThat(server.getAttribute(name, "PeakTreeSize")).isEqualTo(1);
+        assertThat((long[]) server.getAttribute(name, "MergesPerInsertHistogram")).containsExactly(1);
+    }
+
+    @Test
+    void givenDisabledMetrics_whenIsEnabled_thenReturnFalse() {
+        assertThat(MergerMetrics.disabled().isEnabled()).isFalse();
+        assertThat(underTest.isEnabled()).isTrue();
+    }
+
+}
@@ -0,0 +1,70 @@
+package interval.output;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IntervalPrinterTest {
+
+    private static Stream<Arguments> intervals() {
+        return Stream.of(
+                Arguments.of(List.of()),
+                Arguments.of(List.of(List.of(1L, 3L))),
+                Arguments.of(List.of(List.of(-5L, -1L), List.of(0L, 0L), List.of(2L, Long.MAX_VALUE))),
+                Arguments.of(List.of(List.of(new BigDecimal("1.50"), new BigDecimal("1E+3")), List.of(new BigDecimal("-0.000001"), BigDecimal.TEN))),
+                Arguments.of(List.of(List.of(-0.0, 1e-7), List.of(Double.NEGATIVE_INFINITY, 3.5)))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("intervals")
+    <T> void givenIntervals_whenPrinting_thenWriteSameAsPrintlnOfList(List<List<T>> intervals) {
+        StringWriter actual = new StringWriter();
+        IntervalPrinter<T> underTest = new IntervalPrinter<>(actual);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        new PrintStream(expected).println(intervals);
+
+        intervals.forEach(interval -> underTest.print(interval.get(0), interval.get(1)));
+        underTest.finish();
+
+        assertThat(actual.toString()).isEqualTo(expected.toString());
+    }
+
+    @Test
+    void givenFailingWriter_whenPrinting_thenThrowUncheckedIOException() {
+        Writer failing = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        IntervalPrinter<Long> underTest = new IntervalPrinter<>(failing);
+
+        assertThatThrownBy(() -> underTest.print(1L, 2L))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasMessageContaining("Broken pipe");
+    }
+
+}